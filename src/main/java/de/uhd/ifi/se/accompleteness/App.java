@@ -1,7 +1,18 @@
 package de.uhd.ifi.se.accompleteness;
 
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uhd.ifi.se.accompleteness.cache.ResponseCache;
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler;
+import de.uhd.ifi.se.accompleteness.coordinator.CoordinatorApp;
+import de.uhd.ifi.se.accompleteness.rest.ReevaluateRest;
 import de.uhd.ifi.se.accompleteness.rest.RunRest;
 import de.uhd.ifi.se.accompleteness.rest.StatusRest;
+import de.uhd.ifi.se.accompleteness.rest.SweepRest;
+import de.uhd.ifi.se.accompleteness.session.SessionStore;
+import de.uhd.ifi.se.accompleteness.startup.Warmup;
 
 import static spark.Spark.*;
 
@@ -10,7 +21,9 @@ import static spark.Spark.*;
  * API endpoint listeners.
  * 
  * @see RunRest
+ * @see ReevaluateRest
  * @see StatusRest
+ * @see SweepRest
  */
 public class App {
 
@@ -23,21 +36,80 @@ public class App {
     public App(int port) {
         port(port);
 
-        StatusRest statusRest = new StatusRest();
-        RunRest runRest = new RunRest();
+        SessionStore sessionStore = new SessionStore(ServiceConfig.getInt("sessions.capacity", 1000));
+        ResponseCache responseCache = new ResponseCache(
+                ServiceConfig.getLong("responseCache.maxBytes", 64L * 1024 * 1024),
+                ServiceConfig.getLong("responseCache.ttlSeconds", 600));
+
+        PriorityScheduler scheduler = new PriorityScheduler(
+                ServiceConfig.getInt("scheduler.workers", Runtime.getRuntime().availableProcessors()),
+                ServiceConfig.getInt("scheduler.maxInteractiveStreak", 8),
+                ServiceConfig.getLong("scheduler.maxBulkWaitMillis", 30000));
+
+        Warmup warmup = new Warmup(scheduler);
+        StatusRest statusRest = new StatusRest(scheduler, warmup);
+        RunRest runRest = new RunRest(sessionStore, responseCache, scheduler,
+                ServiceConfig.getInt("scheduler.interactiveMaxDocuments", 5));
+        ReevaluateRest reevaluateRest = new ReevaluateRest(sessionStore);
+        SweepRest sweepRest = new SweepRest(scheduler, ServiceConfig.getInt("sweep.maxCombinations", 1000));
         get("/hitec/classify/concepts/acceptance-criteria-completeness/status", statusRest::createResponse);
+        get("/hitec/classify/concepts/acceptance-criteria-completeness/live", statusRest::createLivenessResponse);
+        get("/hitec/classify/concepts/acceptance-criteria-completeness/ready", statusRest::createReadinessResponse);
         post("/hitec/classify/concepts/acceptance-criteria-completeness/run", runRest::createResponse);
+        post("/hitec/classify/concepts/acceptance-criteria-completeness/reevaluate", reevaluateRest::createResponse);
+        post("/hitec/classify/concepts/acceptance-criteria-completeness/sweep", sweepRest::createResponse);
+
+        // the models are loaded while the server already answers /live
+        if (ServiceConfig.getBoolean("warmup.enabled", true)) {
+            warmup.start();
+        } else {
+            warmup.skip();
+        }
     }
 
     
     /** 
      * The main method of the {@link App} which starts a server listening to
-     * port 9640.
+     * port 9640 or the port given by {@code --port}. With
+     * {@code --coordinator}, the server distributes the documents across
+     * worker instances, which are either started as local processes
+     * ({@code --workers <n>}) or already running
+     * ({@code --worker-urls <url>,<url>,...}).
      * 
      * @param args The command line arguments passed to the application
      */
-    public static void main( String[] args ) {
-        new App(9640);
+    public static void main( String[] args ) throws Exception {
+        int port = 9640;
+        boolean coordinator = false;
+        int workers = Runtime.getRuntime().availableProcessors() / 4;
+        List<URI> workerUris = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--port":
+                port = Integer.parseInt(args[++i]);
+                break;
+            case "--coordinator":
+                coordinator = true;
+                break;
+            case "--workers":
+                workers = Integer.parseInt(args[++i]);
+                break;
+            case "--worker-urls":
+                for (String workerUrl : args[++i].split(",")) {
+                    workerUris.add(URI.create(workerUrl.trim()));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        if (!coordinator) {
+            new App(port);
+        } else if (!workerUris.isEmpty()) {
+            new CoordinatorApp(port, workerUris);
+        } else {
+            CoordinatorApp.startWithWorkers(port, Math.max(1, workers));
+        }
     }
     
 }
@@ -0,0 +1,43 @@
+package de.uhd.ifi.se.accompleteness;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Parses the values of the params of a request that select one of several
+ * options, so that an unknown value is answered with the allowed values
+ * instead of an internal error.
+ */
+public class ParamValues {
+
+    private ParamValues() {
+    }
+
+    /**
+     * Parses the value of a param as a constant of an enum, ignoring the case.
+     *
+     * @param <E>   the type of the enum
+     * @param type  the class of the enum
+     * @param param the name of the param
+     * @param value the value of the param
+     * @return the constant named by the value
+     * @throws IllegalArgumentException if no constant is named by the value
+     */
+    public static <E extends Enum<E>> E parseEnum(Class<E> type, String param, String value) {
+        for (E constant : type.getEnumConstants()) {
+            if (constant.name().equalsIgnoreCase(value)) {
+                return constant;
+            }
+        }
+        throw new IllegalArgumentException(
+                "Unknown value " + value + " of the param " + param + ", the values are " + getNames(type));
+    }
+
+    private static List<String> getNames(Class<? extends Enum<?>> type) {
+        List<String> names = new ArrayList<>();
+        for (Enum<?> constant : type.getEnumConstants()) {
+            names.add(constant.name().toLowerCase());
+        }
+        return names;
+    }
+}
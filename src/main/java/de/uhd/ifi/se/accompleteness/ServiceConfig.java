@@ -0,0 +1,66 @@
+package de.uhd.ifi.se.accompleteness;
+
+/**
+ * Reads the configuration of the service, which is given as system property
+ * {@code accompleteness.<name>} (e.g. {@code -Daccompleteness.sessions.capacity=100})
+ * or as environment variable {@code ACCOMPLETENESS_<NAME>} (e.g.
+ * {@code ACCOMPLETENESS_SESSIONS_CAPACITY=100}).
+ */
+public class ServiceConfig {
+
+    private static String get(String name) {
+        String value = System.getProperty("accompleteness." + name);
+        if (value == null) {
+            value = System.getenv("ACCOMPLETENESS_" + name.toUpperCase().replace('.', '_'));
+        }
+        return value;
+    }
+
+    /**
+     * Returns an integer configuration value.
+     * 
+     * @param name         the name of the configuration value
+     * @param defaultValue the value used if it is not configured
+     * @return the configured or the default value
+     */
+    public static int getInt(String name, int defaultValue) {
+        String value = get(name);
+        return value == null ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    /**
+     * Returns a long configuration value.
+     * 
+     * @param name         the name of the configuration value
+     * @param defaultValue the value used if it is not configured
+     * @return the configured or the default value
+     */
+    public static long getLong(String name, long defaultValue) {
+        String value = get(name);
+        return value == null ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    /**
+     * Returns a string configuration value.
+     * 
+     * @param name         the name of the configuration value
+     * @param defaultValue the value used if it is not configured
+     * @return the configured or the default value
+     */
+    public static String getString(String name, String defaultValue) {
+        String value = get(name);
+        return value == null || value.isBlank() ? defaultValue : value.trim();
+    }
+
+    /**
+     * Returns a boolean configuration value.
+     * 
+     * @param name         the name of the configuration value
+     * @param defaultValue the value used if it is not configured
+     * @return the configured or the default value
+     */
+    public static boolean getBoolean(String name, boolean defaultValue) {
+        String value = get(name);
+        return value == null || value.isBlank() ? defaultValue : Boolean.parseBoolean(value.trim());
+    }
+}
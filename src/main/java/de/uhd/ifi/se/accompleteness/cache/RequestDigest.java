@@ -0,0 +1,90 @@
+package de.uhd.ifi.se.accompleteness.cache;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+
+/**
+ * Computes a digest of a request payload that does not depend on the order of
+ * the members of JSON objects or on the formatting of the payload.
+ */
+public class RequestDigest {
+
+    /**
+     * Computes the SHA-256 digest of JSON elements.
+     * 
+     * @param elements the JSON elements, e.g., the dataset and the params of a
+     *                 request
+     * @return the digest as hexadecimal string
+     */
+    public static String digest(JsonElement... elements) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (JsonElement element : elements) {
+            StringBuilder canonical = new StringBuilder();
+            appendCanonical(element, canonical);
+            messageDigest.update(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            // separates the elements
+            messageDigest.update((byte) 0);
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : messageDigest.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Serializes a JSON element with the members of all objects sorted by
+     * name.
+     */
+    private static void appendCanonical(JsonElement element, StringBuilder canonical) {
+        if (element == null || element.isJsonNull()) {
+            canonical.append("null");
+        } else if (element.isJsonObject()) {
+            Map<String, JsonElement> members = new TreeMap<>(element.getAsJsonObject().asMap());
+            canonical.append('{');
+            boolean first = true;
+            for (Map.Entry<String, JsonElement> member : members.entrySet()) {
+                if (!first) {
+                    canonical.append(',');
+                }
+                first = false;
+                appendString(member.getKey(), canonical);
+                canonical.append(':');
+                appendCanonical(member.getValue(), canonical);
+            }
+            canonical.append('}');
+        } else if (element.isJsonArray()) {
+            JsonArray array = element.getAsJsonArray();
+            canonical.append('[');
+            for (int i = 0; i < array.size(); i++) {
+                if (i > 0) {
+                    canonical.append(',');
+                }
+                appendCanonical(array.get(i), canonical);
+            }
+            canonical.append(']');
+        } else if (element.getAsJsonPrimitive().isNumber()) {
+            // 3 and 3.0 are the same parameter value
+            canonical.append(new BigDecimal(element.getAsString()).stripTrailingZeros().toPlainString());
+        } else {
+            canonical.append(element.toString());
+        }
+    }
+
+    private static void appendString(String string, StringBuilder canonical) {
+        canonical.append(new JsonPrimitive(string).toString());
+    }
+}
@@ -0,0 +1,101 @@
+package de.uhd.ifi.se.accompleteness.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores serialized responses by the digest of their request. The cache is
+ * bounded by the total size of the stored responses, the least recently used
+ * responses are removed first, and responses expire after a time to live.
+ */
+public class ResponseCache {
+
+    private final long maxBytes;
+    private final long ttlMillis;
+    private long bytes;
+
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private static class Entry {
+        final String response;
+        final long size;
+        final long expiresAt;
+
+        Entry(String response, long size, long expiresAt) {
+            this.response = response;
+            this.size = size;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Creates a response cache.
+     * 
+     * @param maxBytes   the maximum total size of the stored responses in
+     *                   bytes, 0 disables the cache
+     * @param ttlSeconds the time to live of a stored response in seconds
+     */
+    public ResponseCache(long maxBytes, long ttlSeconds) {
+        this.maxBytes = maxBytes;
+        this.ttlMillis = ttlSeconds * 1000;
+    }
+
+    /**
+     * Returns a stored response.
+     * 
+     * @param digest the digest of the request
+     * @return the serialized response or {@code null} if it is not stored or
+     *         has expired
+     */
+    public synchronized String get(String digest) {
+        Entry entry = entries.get(digest);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt < System.currentTimeMillis()) {
+            remove(digest);
+            return null;
+        }
+        return entry.response;
+    }
+
+    /**
+     * Stores a response, removing the least recently used responses if the
+     * cache exceeds its size. Responses larger than the whole cache are not
+     * stored.
+     * 
+     * @param digest   the digest of the request
+     * @param response the serialized response
+     */
+    public synchronized void put(String digest, String response) {
+        long size = response.getBytes(StandardCharsets.UTF_8).length;
+        if (size > maxBytes) {
+            return;
+        }
+        remove(digest);
+        entries.put(digest, new Entry(response, size, System.currentTimeMillis() + ttlMillis));
+        bytes += size;
+        Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+        while (bytes > maxBytes && iterator.hasNext()) {
+            bytes -= iterator.next().getValue().size;
+            iterator.remove();
+        }
+    }
+
+    private void remove(String digest) {
+        Entry entry = entries.remove(digest);
+        if (entry != null) {
+            bytes -= entry.size;
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,197 @@
+package de.uhd.ifi.se.accompleteness.cache;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.Relationship;
+import de.uhd.ifi.se.accompleteness.model.Topic;
+
+/**
+ * Stores the topics and relationships extracted from single sentences by the
+ * sentence text, so that sentences occurring in several user stories, e.g.,
+ * boilerplate acceptance criteria, are annotated only once. Sentences are
+ * identified by their text with whitespace collapsed, and the positions of the
+ * topics are stored relative to that normalized text and converted back to
+ * the text of the sentence they are requested for. The cache is bounded by the
+ * number of sentences, the least recently used sentences are removed first.
+ */
+public class SentenceCache {
+
+    private final int capacity;
+    private long hits;
+    private long misses;
+
+    private final Map<String, ExtractionResult> entries;
+
+    /**
+     * Creates a sentence cache.
+     * 
+     * @param capacity the maximum number of stored sentences, 0 disables the
+     *                 cache
+     */
+    public SentenceCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ExtractionResult> eldest) {
+                return size() > SentenceCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the result stored for a sentence.
+     * 
+     * @param sentence the text of the sentence
+     * @return the result with positions relative to the start of the sentence,
+     *         or {@code null} if no result is stored for the sentence
+     */
+    public ExtractionResult get(String sentence) {
+        NormalizedText normalized = new NormalizedText(sentence);
+        ExtractionResult result;
+        synchronized (this) {
+            result = entries.get(normalized.text);
+            if (result == null) {
+                misses++;
+                return null;
+            }
+            hits++;
+        }
+        return move(result, normalized.toRaw);
+    }
+
+    /**
+     * Stores the result of a sentence.
+     * 
+     * @param sentence the text of the sentence
+     * @param result   the result with positions relative to the start of the
+     *                 sentence
+     */
+    public void put(String sentence, ExtractionResult result) {
+        if (capacity <= 0) {
+            return;
+        }
+        NormalizedText normalized = new NormalizedText(sentence);
+        ExtractionResult normalizedResult = move(result, normalized.toNormalized);
+        synchronized (this) {
+            entries.put(normalized.text, normalizedResult);
+        }
+    }
+
+    /**
+     * Converts the positions of the topics of a result.
+     */
+    private static ExtractionResult move(ExtractionResult result, int[] positions) {
+        List<Topic> topics = new ArrayList<>();
+        for (Topic topic : result.getTopics()) {
+            topics.add(move(topic, positions));
+        }
+        List<Relationship> relationships = new ArrayList<>();
+        for (Relationship relationship : result.getRelationships()) {
+            relationships.add(new Relationship(move(relationship.getLeftTopic(), positions),
+                    move(relationship.getRightTopic(), positions), relationship.getRelationship()));
+        }
+        return new ExtractionResult(relationships, topics);
+    }
+
+    private static Topic move(Topic topic, int[] positions) {
+        int start = topic.getStartPosition();
+        int end = topic.getEndPosition();
+        if (start < 0 || end > positions.length || start >= positions.length) {
+            return topic;
+        }
+        int movedStart = positions[start];
+        // the end is exclusive, so it is moved along with its last character
+        int movedEnd = end > start ? positions[end - 1] + 1 : movedStart;
+        return new Topic(topic.toString(), topic.getTag(), movedStart, movedEnd);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the share of lookups that found a stored sentence.
+     * 
+     * @return the hit rate between 0 and 1
+     */
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Adds the size and the hit rate of the cache to the metrics of the
+     * service.
+     * 
+     * @param metrics the metrics of the /status response
+     */
+    public synchronized void addMetrics(JsonObject metrics) {
+        metrics.addProperty("sentence_cache_size", entries.size());
+        metrics.addProperty("sentence_cache_hits", hits);
+        metrics.addProperty("sentence_cache_misses", misses);
+        metrics.addProperty("sentence_cache_hit_rate", getHitRate());
+    }
+
+    /**
+     * A text whose whitespace runs are collapsed to single spaces and which is
+     * trimmed, together with the mapping of the character positions of both
+     * texts.
+     */
+    private static class NormalizedText {
+        final String text;
+
+        /**
+         * The position in the normalized text of every character of the raw
+         * text.
+         */
+        final int[] toNormalized;
+
+        /**
+         * The position in the raw text of every character of the normalized
+         * text.
+         */
+        final int[] toRaw;
+
+        NormalizedText(String raw) {
+            StringBuilder builder = new StringBuilder(raw.length());
+            int[] rawPositions = new int[raw.length()];
+            toNormalized = new int[raw.length()];
+            boolean whitespace = false;
+            for (int i = 0; i < raw.length(); i++) {
+                char c = raw.charAt(i);
+                if (Character.isWhitespace(c)) {
+                    whitespace = true;
+                    toNormalized[i] = builder.length();
+                    continue;
+                }
+                if (whitespace && builder.length() > 0) {
+                    rawPositions[builder.length()] = i - 1;
+                    builder.append(' ');
+                }
+                whitespace = false;
+                toNormalized[i] = builder.length();
+                rawPositions[builder.length()] = i;
+                builder.append(c);
+            }
+            text = builder.toString();
+            toRaw = new int[text.length()];
+            System.arraycopy(rawPositions, 0, toRaw, 0, text.length());
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package de.uhd.ifi.se.accompleteness.calculation;
+
+/**
+ * Measures the agreement of calculated completeness values with labeled
+ * completeness values, e.g., to compare the params of the calculation.
+ */
+public class Agreement {
+
+    private Agreement() {
+    }
+
+    /**
+     * Computes the mean absolute error of calculated values.
+     * 
+     * @param calculated the calculated values
+     * @param labeled    the labeled values in the same order
+     * @return the mean absolute error or {@code NaN} if there are no values
+     */
+    public static double meanAbsoluteError(double[] calculated, double[] labeled) {
+        double sum = 0;
+        for (int i = 0; i < calculated.length; i++) {
+            sum += Math.abs(calculated[i] - labeled[i]);
+        }
+        return sum / calculated.length;
+    }
+
+    /**
+     * Computes the Pearson correlation coefficient of calculated and labeled
+     * values.
+     * 
+     * @param calculated the calculated values
+     * @param labeled    the labeled values in the same order
+     * @return the correlation coefficient or {@code NaN} if there are less
+     *         than two values or one of the value lists is constant
+     */
+    public static double pearsonCorrelation(double[] calculated, double[] labeled) {
+        int n = calculated.length;
+        if (n < 2) {
+            return Double.NaN;
+        }
+        double calculatedMean = 0;
+        double labeledMean = 0;
+        for (int i = 0; i < n; i++) {
+            calculatedMean += calculated[i] / n;
+            labeledMean += labeled[i] / n;
+        }
+        double covariance = 0;
+        double calculatedVariance = 0;
+        double labeledVariance = 0;
+        for (int i = 0; i < n; i++) {
+            double calculatedDeviation = calculated[i] - calculatedMean;
+            double labeledDeviation = labeled[i] - labeledMean;
+            covariance += calculatedDeviation * labeledDeviation;
+            calculatedVariance += calculatedDeviation * calculatedDeviation;
+            labeledVariance += labeledDeviation * labeledDeviation;
+        }
+        if (calculatedVariance == 0 || labeledVariance == 0) {
+            return Double.NaN;
+        }
+        return covariance / Math.sqrt(calculatedVariance * labeledVariance);
+    }
+}
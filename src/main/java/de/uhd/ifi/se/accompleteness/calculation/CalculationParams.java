@@ -1,8 +1,33 @@
 package de.uhd.ifi.se.accompleteness.calculation;
 
+import java.util.List;
+
 import com.google.gson.JsonObject;
 
 public interface CalculationParams {
     public void setCalculationParamsFromJson(JsonObject params);
-    
+
+    /**
+     * Returns the names of the calculators selected by the params.
+     * 
+     * @return the names of the calculators, the first of which determines the
+     *         topic mapping of the response
+     * @see CalculatorRegistry
+     */
+    public List<String> getCalculatorNames();
+
+    /**
+     * Returns whether exact matches of topics ignore the case of the lemmas.
+     * 
+     * @return {@code true} if lemmas differing in case are equal
+     */
+    public boolean isMatchIgnoreCase();
+
+    /**
+     * Returns whether exact matches of topics ignore plural endings of the
+     * lemmas.
+     * 
+     * @return {@code true} if lemmas differing in a plural ending are equal
+     */
+    public boolean isMatchIgnorePlural();
 }
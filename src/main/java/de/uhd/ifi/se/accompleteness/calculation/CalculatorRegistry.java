@@ -0,0 +1,138 @@
+package de.uhd.ifi.se.accompleteness.calculation;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.uhd.ifi.se.accompleteness.calculation.naive.NaiveCompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.calculation.relationship.RelationshipCompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.calculation.vectors.VectorCompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.AcceptanceCriteriaPool;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.HypernymDistanceCache;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.model.CompletenessCalcResult;
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.UserStory;
+
+/**
+ * The completeness calculators that can be selected by name with the param
+ * {@code calculators}. The calculators are stateless apart from shared caches,
+ * so a single instance of every calculator is used for all user stories.
+ */
+public class CalculatorRegistry {
+
+    /**
+     * The calculator used if the params do not select any.
+     */
+    public static final String DEFAULT_CALCULATOR = "wordnet";
+
+    private static final Map<String, CompletenessCalculator> CALCULATORS = new LinkedHashMap<>();
+
+    static {
+        WordnetCompletenessCalculator wordnetCalculator = new WordnetCompletenessCalculator(
+                HypernymDistanceCache.getInstance());
+        CALCULATORS.put("wordnet", wordnetCalculator);
+        CALCULATORS.put("naive", new NaiveCompletenessCalculator());
+        CALCULATORS.put("vectors", new VectorCompletenessCalculator());
+        CALCULATORS.put("relationships", new RelationshipCompletenessCalculator(wordnetCalculator));
+    }
+
+    private CalculatorRegistry() {
+    }
+
+    /**
+     * Returns the names of all calculators.
+     * 
+     * @return the names in the order of registration
+     */
+    public static Set<String> getNames() {
+        return CALCULATORS.keySet();
+    }
+
+    /**
+     * Returns the shared instance of a calculator.
+     * 
+     * @param name the name of the calculator
+     * @return the calculator
+     * @throws IllegalArgumentException if there is no calculator with the name
+     */
+    public static CompletenessCalculator get(String name) {
+        CompletenessCalculator calculator = CALCULATORS.get(name);
+        if (calculator == null) {
+            throw new IllegalArgumentException(
+                    "Unknown calculator " + name + ", the calculators are " + CALCULATORS.keySet());
+        }
+        return calculator;
+    }
+
+    /**
+     * Calculates the completeness of a user story with all calculators
+     * selected by the params from the same extraction results. The result of
+     * the first calculator is returned, together with the completeness of
+     * every calculator by name.
+     * 
+     * @param usResult  the topics of the user story
+     * @param acResult  the topics of the acceptance criteria
+     * @param params    the params selecting the calculators
+     * @param userStory the user story
+     * @return the result of the first calculator
+     */
+    public static CompletenessCalcResult calculate(ExtractionResult usResult, ExtractionResult acResult,
+            CalculationParams params, UserStory userStory) throws Exception {
+        return calculate(usResult, acResult, params, userStory, null);
+    }
+
+    /**
+     * Calculates the completeness of a user story as
+     * {@link #calculate(ExtractionResult, ExtractionResult, CalculationParams, UserStory)}
+     * with the pool of the shared acceptance criteria of the request.
+     * 
+     * @param usResult  the topics of the user story
+     * @param acResult  the topics of the acceptance criteria
+     * @param params    the params selecting the calculators
+     * @param userStory the user story
+     * @param pool      the pool of the shared acceptance criteria, or
+     *                  {@code null}
+     * @return the result of the first calculator
+     */
+    public static CompletenessCalcResult calculate(ExtractionResult usResult, ExtractionResult acResult,
+            CalculationParams params, UserStory userStory, AcceptanceCriteriaPool pool) throws Exception {
+        List<String> names = params.getCalculatorNames();
+        CompletenessCalcResult result = null;
+        Map<String, Double> completenessByCalculator = new LinkedHashMap<>();
+        for (String name : names) {
+            CompletenessCalcResult calculatorResult = calculate(name, usResult, acResult, params, userStory, pool);
+            if (result == null) {
+                result = calculatorResult;
+            }
+            completenessByCalculator.put(name, calculatorResult.getCompleteness());
+        }
+        result.setCompletenessByCalculator(completenessByCalculator);
+        return result;
+    }
+
+    /**
+     * Calculates the completeness of a user story with a single calculator.
+     * Only the wordnet calculator uses the pool of the shared acceptance
+     * criteria, which the params reject for the other calculators.
+     * 
+     * @param name      the name of the calculator
+     * @param usResult  the topics of the user story
+     * @param acResult  the topics of the acceptance criteria
+     * @param params    the params of the calculation
+     * @param userStory the user story
+     * @param pool      the pool of the shared acceptance criteria, or
+     *                  {@code null}
+     * @return the result of the calculator
+     */
+    public static CompletenessCalcResult calculate(String name, ExtractionResult usResult, ExtractionResult acResult,
+            CalculationParams params, UserStory userStory, AcceptanceCriteriaPool pool) throws Exception {
+        CompletenessCalculator calculator = get(name);
+        if (calculator instanceof WordnetCompletenessCalculator) {
+            return ((WordnetCompletenessCalculator) calculator).calculate_completeness(usResult, acResult, params,
+                    userStory, pool);
+        }
+        return calculator.calculate_completeness(usResult, acResult, params, userStory);
+    }
+}
@@ -0,0 +1,91 @@
+package de.uhd.ifi.se.accompleteness.calculation;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A hashed index of acceptance criteria topics by their normalized lemmas, so
+ * that the exact matches of all user story topics are found in linear instead
+ * of quadratic time. Optionally, the lemmas are compared ignoring case and
+ * plural endings.
+ *
+ * @param <V> the type of the indexed values
+ */
+public class TopicIndex<V> {
+
+    private final Map<String, V> index = new HashMap<>();
+    private final boolean ignoreCase;
+    private final boolean ignorePlural;
+
+    /**
+     * Creates an empty index.
+     *
+     * @param ignoreCase   whether lemmas differing in case are equal
+     * @param ignorePlural whether lemmas differing in a plural ending are equal
+     */
+    public TopicIndex(boolean ignoreCase, boolean ignorePlural) {
+        this.ignoreCase = ignoreCase;
+        this.ignorePlural = ignorePlural;
+    }
+
+    /**
+     * Adds a value unless a value with the same normalized key is already
+     * indexed, so the first of several equal topics is found.
+     *
+     * @param key   the lemmas of the topic
+     * @param value the value
+     */
+    public void add(String key, V value) {
+        index.putIfAbsent(normalize(key), value);
+    }
+
+    /**
+     * Finds the value indexed by a key.
+     *
+     * @param key the lemmas of a topic
+     * @return the value of the first topic with the same normalized lemmas or
+     *         {@code null}
+     */
+    public V get(String key) {
+        return index.get(normalize(key));
+    }
+
+    /**
+     * Normalizes every space-separated lemma of a key.
+     *
+     * @param key the lemmas of a topic
+     * @return the normalized lemmas
+     */
+    public String normalize(String key) {
+        if (!ignoreCase && !ignorePlural) {
+            return key;
+        }
+        String[] lemmas = key.split(" ", -1);
+        for (int i = 0; i < lemmas.length; i++) {
+            String lemma = ignoreCase ? lemmas[i].toLowerCase() : lemmas[i];
+            lemmas[i] = ignorePlural ? toSingular(lemma) : lemma;
+        }
+        return String.join(" ", lemmas);
+    }
+
+    /**
+     * Removes a regular English plural ending. Lemmas are mostly singular
+     * already, but proper nouns and unknown words keep their plural.
+     */
+    private static String toSingular(String word) {
+        if (word.length() <= 3) {
+            return word;
+        }
+        if (word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("ses") || word.endsWith("xes") || word.endsWith("zes") || word.endsWith("ches")
+                || word.endsWith("shes")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+}
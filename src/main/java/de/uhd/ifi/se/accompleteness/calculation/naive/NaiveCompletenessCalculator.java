@@ -5,6 +5,7 @@ import java.util.Map;
 
 import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
 import de.uhd.ifi.se.accompleteness.calculation.CompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.calculation.TopicIndex;
 import de.uhd.ifi.se.accompleteness.model.CompletenessCalcResult;
 import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
 import de.uhd.ifi.se.accompleteness.model.Topic;
@@ -17,19 +18,24 @@ public class NaiveCompletenessCalculator implements CompletenessCalculator {
         Map<Topic, Topic> matchedTopics = new HashMap<>();
         int topicsFound = 0;
         int topicsAll = 0;
+        // a single pass over each list with a hashed index of the acceptance
+        // criteria topics
+        TopicIndex<Topic> acTopicIndex = new TopicIndex<>(params.isMatchIgnoreCase(), params.isMatchIgnorePlural());
+        for (Topic acTopic : acResult.getTopics()) {
+            acTopicIndex.add(acTopic.toString(), acTopic);
+        }
         for (Topic topic: usResult.getTopics()) {
-            boolean topicFound = false;
-            for (Topic topic2 : acResult.getTopics()) {
-                if (topic.equals(topic2)) {
-                    topicFound = true;
-                }
-            }
-            if (topicFound) {
+            Topic acTopic = acTopicIndex.get(topic.toString());
+            if (acTopic != null) {
                 topicsFound++;
-            } 
+                matchedTopics.put(topic, acTopic);
+            }
             topicsAll++;
         }
         double completeness = ((double)(topicsFound) / (double)(topicsAll));
+        if (Double.isNaN(completeness)) {
+            completeness = 0;
+        }
         return new CompletenessCalcResult(completeness, usResult.getTopics(), acResult.getTopics(), matchedTopics, userStory);
     }
     
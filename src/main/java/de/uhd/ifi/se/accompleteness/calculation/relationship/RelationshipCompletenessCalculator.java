@@ -0,0 +1,145 @@
+package de.uhd.ifi.se.accompleteness.calculation.relationship;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.CompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.calculation.TopicIndex;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetDictionary;
+import de.uhd.ifi.se.accompleteness.model.CompletenessCalcResult;
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.Relationship;
+import de.uhd.ifi.se.accompleteness.model.Topic;
+import de.uhd.ifi.se.accompleteness.model.UserStory;
+import net.sf.extjwnl.JWNLException;
+import net.sf.extjwnl.data.IndexWord;
+import net.sf.extjwnl.data.POS;
+import net.sf.extjwnl.data.Synset;
+
+/**
+ * Calculates the share of the subject-relation-object triples of a user story
+ * that are covered by a triple of the acceptance criteria with the same
+ * normalized relation, whose subject and object match the subject and object
+ * of the user story triple.
+ *
+ * Topics are compared by their head word, i.e., the last word before the
+ * first preposition without determiners, so "my order by credit card" matches
+ * "the order". The heads match if they are equal or, if the param
+ * {@code relationshipTopicMatch} is {@code "wordnet"}, if their synsets match
+ * by the WordNet measure of the params. First person subjects of the user
+ * story, as in "I want to pay my order", stand for the role of the user story.
+ */
+public class RelationshipCompletenessCalculator implements CompletenessCalculator {
+
+    /**
+     * How the subjects and objects of triples are compared.
+     */
+    public enum TopicMatch {
+        WORDNET, EXACT
+    }
+
+    private static final Set<String> FIRST_PERSON = Set.of("i", "we", "me", "us");
+
+    private static final Set<String> DETERMINERS = Set.of("a", "an", "the", "my", "our", "your", "his", "her", "its",
+            "their", "this", "that", "these", "those", "as", "some", "any", "all", "every", "each");
+
+    private static final Set<String> PREPOSITIONS = Set.of("of", "by", "with", "for", "in", "on", "at", "from", "to",
+            "into", "about", "via", "without");
+
+    private final WordnetCompletenessCalculator wordnetCalculator;
+
+    /**
+     * Creates a calculator matching topics by the WordNet measures of a WordNet
+     * calculator.
+     *
+     * @param wordnetCalculator the calculator deciding whether synsets match
+     */
+    public RelationshipCompletenessCalculator(WordnetCompletenessCalculator wordnetCalculator) {
+        this.wordnetCalculator = wordnetCalculator;
+    }
+
+    @Override
+    public CompletenessCalcResult calculate_completeness(ExtractionResult usResult, ExtractionResult acResult,
+            CalculationParams params, UserStory userStory) throws Exception {
+        RelationshipIndex acRelationshipIndex = new RelationshipIndex(acResult.getRelationships());
+        // the normalizer of the exact matches of heads
+        TopicIndex<Void> normalizer = new TopicIndex<>(true, params.isMatchIgnorePlural());
+        Map<String, Synset> synsets = new HashMap<>();
+        String role = getHead(userStory.getRole());
+        Map<Topic, Topic> matchedTopics = new HashMap<>();
+
+        List<Relationship> usRelationships = usResult.getRelationships();
+        int covered = 0;
+        for (Relationship usRelationship : usRelationships) {
+            String subject = getHead(usRelationship.getLeftTopic().toString());
+            if (FIRST_PERSON.contains(subject)) {
+                subject = role;
+            }
+            String object = getHead(usRelationship.getRightTopic().toString());
+            for (Relationship acRelationship : acRelationshipIndex.get(usRelationship.getRelationship())) {
+                if (headsMatch(subject, getHead(acRelationship.getLeftTopic().toString()), normalizer, synsets, params)
+                        && headsMatch(object, getHead(acRelationship.getRightTopic().toString()), normalizer,
+                                synsets, params)) {
+                    covered++;
+                    matchedTopics.put(usRelationship.getLeftTopic(), acRelationship.getLeftTopic());
+                    matchedTopics.put(usRelationship.getRightTopic(), acRelationship.getRightTopic());
+                    break;
+                }
+            }
+        }
+        double completeness = (double) covered / usRelationships.size();
+        if (Double.isNaN(completeness)) {
+            completeness = 0;
+        }
+        return new CompletenessCalcResult(completeness, usResult.getTopics(), acResult.getTopics(), matchedTopics,
+                userStory);
+    }
+
+    /**
+     * Returns the head word of a topic in lower case.
+     */
+    static String getHead(String topic) {
+        String head = "";
+        for (String word : topic.toLowerCase().trim().split("\\s+")) {
+            if (head.isEmpty() && DETERMINERS.contains(word)) {
+                continue;
+            }
+            if (!head.isEmpty() && PREPOSITIONS.contains(word)) {
+                break;
+            }
+            head = word;
+        }
+        return head;
+    }
+
+    private boolean headsMatch(String usHead, String acHead, TopicIndex<Void> normalizer, Map<String, Synset> synsets,
+            CalculationParams params) throws JWNLException, CloneNotSupportedException {
+        if (normalizer.normalize(usHead).equals(normalizer.normalize(acHead))) {
+            return true;
+        }
+        WordnetCalculationParams calcParams = (WordnetCalculationParams) params;
+        if (calcParams.getRelationshipTopicMatch() != TopicMatch.WORDNET) {
+            return false;
+        }
+        Synset usSynset = getSynset(usHead, synsets);
+        Synset acSynset = getSynset(acHead, synsets);
+        return usSynset != null && acSynset != null && wordnetCalculator.matches(usSynset, acSynset, calcParams);
+    }
+
+    /**
+     * Returns the first noun sense of a head word, looked up once per user
+     * story.
+     */
+    private static Synset getSynset(String head, Map<String, Synset> synsets) throws JWNLException {
+        if (!synsets.containsKey(head)) {
+            IndexWord word = WordnetDictionary.getInstance().lookupIndexWord(POS.NOUN, head);
+            synsets.put(head, word == null ? null : word.getSenses().get(0));
+        }
+        return synsets.get(head);
+    }
+}
@@ -0,0 +1,70 @@
+package de.uhd.ifi.se.accompleteness.calculation.relationship;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import de.uhd.ifi.se.accompleteness.model.Relationship;
+
+/**
+ * A hashed index of acceptance criteria relationships by their normalized
+ * relation lemmas, so that only the relationships with the same relation are
+ * compared with a user story relationship instead of all of them.
+ */
+public class RelationshipIndex {
+
+    /**
+     * Auxiliary and modal verbs that do not change the meaning of a relation,
+     * e.g., "be able to log" and "can log" both have the relation "log".
+     */
+    private static final Set<String> AUXILIARIES = Set.of("be", "can", "could", "will", "would", "shall", "should",
+            "must", "may", "might", "able", "to", "do", "have");
+
+    private final Map<String, List<Relationship>> index = new HashMap<>();
+
+    /**
+     * Creates an index of relationships.
+     *
+     * @param relationships the relationships of the acceptance criteria
+     */
+    public RelationshipIndex(List<Relationship> relationships) {
+        for (Relationship relationship : relationships) {
+            index.computeIfAbsent(normalize(relationship.getRelationship()), key -> new ArrayList<>())
+                    .add(relationship);
+        }
+    }
+
+    /**
+     * Finds the relationships with the same normalized relation.
+     *
+     * @param relation the relation lemmas of a user story relationship
+     * @return the relationships with the same relation in the order of
+     *         indexing, or an empty list
+     */
+    public List<Relationship> get(String relation) {
+        return index.getOrDefault(normalize(relation), List.of());
+    }
+
+    /**
+     * Normalizes relation lemmas by converting them to lower case and removing
+     * auxiliary and modal verbs, unless the relation consists only of them.
+     *
+     * @param relation the relation lemmas
+     * @return the normalized relation
+     */
+    static String normalize(String relation) {
+        String[] lemmas = relation.toLowerCase().trim().split("\\s+");
+        StringBuilder normalized = new StringBuilder();
+        for (String lemma : lemmas) {
+            if (!AUXILIARIES.contains(lemma)) {
+                if (normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                normalized.append(lemma);
+            }
+        }
+        return normalized.length() == 0 ? String.join(" ", lemmas) : normalized.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package de.uhd.ifi.se.accompleteness.calculation.vectors;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.CompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.calculation.TopicIndex;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCalculationParams;
+import de.uhd.ifi.se.accompleteness.model.CompletenessCalcResult;
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.Topic;
+import de.uhd.ifi.se.accompleteness.model.UserStory;
+
+/**
+ * Matches every user story topic with the most similar acceptance criteria
+ * topic by the cosine similarity of their word vectors, averaged over the words
+ * of multi-word topics. Topics without any word vector only match equal
+ * topics.
+ */
+public class VectorCompletenessCalculator implements CompletenessCalculator {
+
+    private final WordVectors vectors;
+
+    /**
+     * Creates a calculator using the word vectors configured by
+     * {@code vectors.path}, which are mapped by the first calculation.
+     */
+    public VectorCompletenessCalculator() {
+        this(null);
+    }
+
+    /**
+     * Creates a calculator using the given word vectors.
+     * 
+     * @param vectors the word vectors
+     */
+    public VectorCompletenessCalculator(WordVectors vectors) {
+        this.vectors = vectors;
+    }
+
+    @Override
+    public CompletenessCalcResult calculate_completeness(ExtractionResult usResult, ExtractionResult acResult,
+            CalculationParams params, UserStory userStory) throws Exception {
+        WordVectors wordVectors = vectors == null ? WordVectors.getInstance() : vectors;
+        WordnetCalculationParams calcParams = (WordnetCalculationParams) params;
+        double threshold = calcParams.getVectorSimilarityThreshold();
+        Map<Topic, Topic> matchedTopics = new HashMap<>();
+
+        // the vectors of the acceptance criteria topics are pooled once
+        List<Topic> acVectorTopics = new ArrayList<>();
+        List<float[]> acVectors = new ArrayList<>();
+        TopicIndex<Topic> acTopicIndex = new TopicIndex<>(params.isMatchIgnoreCase(), params.isMatchIgnorePlural());
+        for (Topic acTopic : acResult.getTopics()) {
+            float[] vector = wordVectors.getPhraseVector(acTopic.toString());
+            if (vector == null) {
+                acTopicIndex.add(acTopic.toString(), acTopic);
+            } else {
+                acVectorTopics.add(acTopic);
+                acVectors.add(vector);
+            }
+        }
+
+        int topicsFound = 0;
+        for (Topic usTopic : usResult.getTopics()) {
+            float[] vector = wordVectors.getPhraseVector(usTopic.toString());
+            Topic acTopic = null;
+            if (vector == null) {
+                acTopic = acTopicIndex.get(usTopic.toString());
+            } else {
+                double bestSimilarity = threshold;
+                for (int i = 0; i < acVectors.size(); i++) {
+                    double similarity = WordVectors.dot(vector, acVectors.get(i));
+                    if (similarity >= bestSimilarity) {
+                        bestSimilarity = similarity;
+                        acTopic = acVectorTopics.get(i);
+                    }
+                }
+            }
+            if (acTopic != null) {
+                topicsFound++;
+                matchedTopics.put(usTopic, acTopic);
+            }
+        }
+        double completeness = (double) topicsFound / usResult.getTopics().size();
+        if (Double.isNaN(completeness)) {
+            completeness = 0;
+        }
+        return new CompletenessCalcResult(completeness, usResult.getTopics(), acResult.getTopics(), matchedTopics,
+                userStory);
+    }
+}
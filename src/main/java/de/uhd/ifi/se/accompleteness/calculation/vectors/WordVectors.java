@@ -0,0 +1,405 @@
+package de.uhd.ifi.se.accompleteness.calculation.vectors;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.uhd.ifi.se.accompleteness.ServiceConfig;
+
+/**
+ * Word vectors in a compact binary file that is memory-mapped instead of being
+ * loaded into Java objects, so the heap footprint is independent of the size
+ * of the vocabulary.
+ *
+ * The binary file consists of a header (the magic number, the version, the
+ * number of words and the number of dimensions), the offsets of the words in
+ * the following UTF-8 bytes of all words sorted by their bytes, and the matrix
+ * of the vectors normalized to unit length in the order of the words. Words are
+ * found by a binary search over the mapped words. Text files in the format of
+ * GloVe or word2vec (a word followed by its components on every line) are
+ * converted beforehand with {@link #convert(Path, Path)}, e.g., by the
+ * {@code VectorConverter}, so that no request waits for a conversion.
+ */
+public class WordVectors {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WordVectors.class);
+
+    /**
+     * The first four bytes of a binary file, "ACWV".
+     */
+    public static final int MAGIC = 0x41435756;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 16;
+
+    /**
+     * The file extension of binary files converted from text files.
+     */
+    public static final String BINARY_EXTENSION = ".acvec";
+
+    private static WordVectors instance;
+
+    private final int count;
+    private final int dimensions;
+    private final IntBuffer wordOffsets;
+    private final ByteBuffer words;
+    /**
+     * The matrix of the vectors, split into mappings of at most 2 GiB each.
+     */
+    private final FloatBuffer[] matrix;
+    private final int rowsPerMapping;
+
+    private WordVectors(Path binary) throws IOException {
+        try (FileChannel channel = FileChannel.open(binary, StandardOpenOption.READ)) {
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION) {
+                throw new IOException(binary + " is not a word vectors file of version " + VERSION);
+            }
+            count = header.getInt(8);
+            dimensions = header.getInt(12);
+            long offsetsBytes = 4L * (count + 1);
+            wordOffsets = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, offsetsBytes).asIntBuffer();
+            int wordBytes = wordOffsets.get(count);
+            words = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES + offsetsBytes, wordBytes);
+            long matrixStart = align(HEADER_BYTES + offsetsBytes + wordBytes);
+            long rowBytes = 4L * dimensions;
+            rowsPerMapping = (int) Math.max(1, Integer.MAX_VALUE / rowBytes);
+            matrix = new FloatBuffer[count == 0 ? 0 : (count - 1) / rowsPerMapping + 1];
+            for (int i = 0; i < matrix.length; i++) {
+                int rows = Math.min(rowsPerMapping, count - i * rowsPerMapping);
+                matrix[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        matrixStart + i * rowsPerMapping * rowBytes, rows * rowBytes).asFloatBuffer();
+            }
+        }
+    }
+
+    /**
+     * Returns the word vectors configured by {@code vectors.path}, mapping
+     * them on first use.
+     *
+     * @return the configured word vectors
+     * @throws IllegalStateException if no word vectors are configured
+     * @throws IOException           if the configured file is not a binary
+     *                               file
+     */
+    public static synchronized WordVectors getInstance() throws IOException {
+        if (instance == null) {
+            String path = ServiceConfig.getString("vectors.path", null);
+            if (path == null) {
+                throw new IllegalStateException(
+                        "No word vectors are configured, set accompleteness.vectors.path to a vectors file");
+            }
+            instance = open(Path.of(path));
+        }
+        return instance;
+    }
+
+    /**
+     * Maps a binary file.
+     *
+     * @param path the binary file
+     * @return the word vectors
+     * @throws IOException if the file is not a binary file, e.g., a text file
+     *                     that has not been converted
+     */
+    public static WordVectors open(Path path) throws IOException {
+        if (!isBinary(path)) {
+            throw new IOException(path + " is not a binary word vectors file, convert it with "
+                    + "de.uhd.ifi.se.accompleteness.cli.VectorConverter --input " + path);
+        }
+        return new WordVectors(path);
+    }
+
+    private static boolean isBinary(Path path) throws IOException {
+        try (InputStream input = Files.newInputStream(path)) {
+            byte[] magic = input.readNBytes(4);
+            return magic.length == 4 && ByteBuffer.wrap(magic).getInt() == MAGIC;
+        }
+    }
+
+    private static long align(long position) {
+        return (position + 3) & ~3L;
+    }
+
+    /**
+     * Converts a text file with a word and its components on every line to a
+     * binary file. A first line with only the number of words and dimensions,
+     * as in word2vec files, is skipped, and of several vectors of a word the
+     * first one is kept.
+     *
+     * The text file is read twice: first for the words, which are sorted, and
+     * then for the vectors, which are written to their rows of the mapped
+     * matrix, so that only the words and not the vectors are held on the heap.
+     * The binary file is written to a temporary file that replaces the binary
+     * file when it is complete, so it is never mapped partially written.
+     *
+     * @param text   the text file
+     * @param binary the binary file to write
+     */
+    public static void convert(Path text, Path binary) throws IOException {
+        long start = System.currentTimeMillis();
+        // the line of the first vector and the row of every word
+        Map<String, int[]> entries = new HashMap<>();
+        int dimensions = -1;
+        try (BufferedReader reader = Files.newBufferedReader(text, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] fields = line.trim().split(" ");
+                if (isSkipped(fields, lineNumber)) {
+                    continue;
+                }
+                if (dimensions < 0) {
+                    dimensions = fields.length - 1;
+                } else if (fields.length - 1 != dimensions) {
+                    throw new IOException("Line " + lineNumber + " of " + text + " has " + (fields.length - 1)
+                            + " instead of " + dimensions + " components");
+                }
+                entries.putIfAbsent(fields[0], new int[] { lineNumber, -1 });
+            }
+        }
+        dimensions = Math.max(dimensions, 0);
+
+        List<byte[]> sortedWords = new ArrayList<>();
+        for (String word : entries.keySet()) {
+            sortedWords.add(word.getBytes(StandardCharsets.UTF_8));
+        }
+        sortedWords.sort(Arrays::compareUnsigned);
+        for (int row = 0; row < sortedWords.size(); row++) {
+            entries.get(new String(sortedWords.get(row), StandardCharsets.UTF_8))[1] = row;
+        }
+
+        Path directory = binary.toAbsolutePath().getParent();
+        Path temporaryFile = Files.createTempFile(directory, binary.getFileName().toString(), ".tmp");
+        try {
+            long matrixStart;
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryFile), 1 << 16))) {
+                output.writeInt(MAGIC);
+                output.writeInt(VERSION);
+                output.writeInt(sortedWords.size());
+                output.writeInt(dimensions);
+                int offset = 0;
+                for (byte[] word : sortedWords) {
+                    output.writeInt(offset);
+                    offset += word.length;
+                }
+                output.writeInt(offset);
+                for (byte[] word : sortedWords) {
+                    output.write(word);
+                }
+                long position = HEADER_BYTES + 4L * (sortedWords.size() + 1) + offset;
+                matrixStart = align(position);
+                for (long i = position; i < matrixStart; i++) {
+                    output.write(0);
+                }
+            }
+            writeMatrix(text, temporaryFile, matrixStart, entries, sortedWords.size(), dimensions);
+            Files.move(temporaryFile, binary, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        LOG.info("Converted %d word vectors of %d dimensions from %s to %s in %d ms".formatted(sortedWords.size(),
+                dimensions, text, binary, System.currentTimeMillis() - start));
+    }
+
+    /**
+     * Reads the vectors of a text file a second time and writes them
+     * normalized to the rows of their words in the mapped matrix.
+     */
+    private static void writeMatrix(Path text, Path binary, long matrixStart, Map<String, int[]> entries, int count,
+            int dimensions) throws IOException {
+        if (count == 0 || dimensions == 0) {
+            return;
+        }
+        long rowBytes = 4L * dimensions;
+        int rowsPerMapping = (int) Math.max(1, Integer.MAX_VALUE / rowBytes);
+        try (FileChannel channel = FileChannel.open(binary, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                BufferedReader reader = Files.newBufferedReader(text, StandardCharsets.UTF_8)) {
+            MappedByteBuffer[] mappings = new MappedByteBuffer[(count - 1) / rowsPerMapping + 1];
+            FloatBuffer[] matrix = new FloatBuffer[mappings.length];
+            for (int i = 0; i < mappings.length; i++) {
+                int rows = Math.min(rowsPerMapping, count - i * rowsPerMapping);
+                mappings[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                        matrixStart + i * rowsPerMapping * rowBytes, rows * rowBytes);
+                matrix[i] = mappings[i].asFloatBuffer();
+            }
+            float[] vector = new float[dimensions];
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                String[] fields = line.trim().split(" ");
+                if (isSkipped(fields, lineNumber)) {
+                    continue;
+                }
+                int[] entry = entries.get(fields[0]);
+                if (entry[0] != lineNumber) {
+                    continue;
+                }
+                for (int i = 0; i < dimensions; i++) {
+                    vector[i] = Float.parseFloat(fields[i + 1]);
+                }
+                normalize(vector);
+                matrix[entry[1] / rowsPerMapping].put((entry[1] % rowsPerMapping) * dimensions, vector);
+            }
+            for (MappedByteBuffer mapping : mappings) {
+                mapping.force();
+            }
+        }
+    }
+
+    private static boolean isSkipped(String[] fields, int lineNumber) {
+        return fields.length < 2 || (lineNumber == 1 && fields.length == 2);
+    }
+
+    private static void normalize(float[] vector) {
+        double norm = Math.sqrt(dot(vector, vector));
+        if (norm > 0) {
+            for (int i = 0; i < vector.length; i++) {
+                vector[i] /= norm;
+            }
+        }
+    }
+
+    /**
+     * Returns the row of a word in the matrix.
+     *
+     * @param word the word
+     * @return the row, or -1 if the word has no vector
+     */
+    public int indexOf(String word) {
+        byte[] key = word.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compareWord(middle, key);
+            if (comparison < 0) {
+                low = middle + 1;
+            } else if (comparison > 0) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Compares the mapped bytes of a word with a key in unsigned byte order.
+     */
+    private int compareWord(int row, byte[] key) {
+        int start = wordOffsets.get(row);
+        int length = wordOffsets.get(row + 1) - start;
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int comparison = Byte.compareUnsigned(words.get(start + i), key[i]);
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    /**
+     * Adds the vector of a row of the matrix to a sum.
+     *
+     * @param row the row of a word
+     * @param sum the sum of vectors, with one component per dimension
+     */
+    public void addTo(int row, float[] sum) {
+        FloatBuffer mapping = matrix[row / rowsPerMapping];
+        int offset = (row % rowsPerMapping) * dimensions;
+        for (int i = 0; i < dimensions; i++) {
+            sum[i] += mapping.get(offset + i);
+        }
+    }
+
+    /**
+     * Returns the vector of a phrase as the normalized average of the vectors
+     * of its words. Words without vector are tried in lower case and are left
+     * out otherwise.
+     *
+     * @param phrase the words of the phrase separated by spaces
+     * @return the vector of unit length, or {@code null} if no word of the
+     *         phrase has a vector
+     */
+    public float[] getPhraseVector(String phrase) {
+        float[] sum = new float[dimensions];
+        int found = 0;
+        for (String word : phrase.split(" ")) {
+            int row = indexOf(word);
+            if (row < 0) {
+                row = indexOf(word.toLowerCase());
+            }
+            if (row >= 0) {
+                addTo(row, sum);
+                found++;
+            }
+        }
+        if (found == 0) {
+            return null;
+        }
+        normalize(sum);
+        return sum;
+    }
+
+    /**
+     * Returns the dot product of two vectors, which is their cosine similarity
+     * if both have unit length.
+     *
+     * @param first  a vector
+     * @param second a vector with the same number of components
+     * @return the dot product
+     */
+    public static float dot(float[] first, float[] second) {
+        // independent sums of four components each, so that the loop is not
+        // bound by the latency of a single chain of additions
+        float sum0 = 0;
+        float sum1 = 0;
+        float sum2 = 0;
+        float sum3 = 0;
+        int i = 0;
+        for (; i + 3 < first.length; i += 4) {
+            sum0 += first[i] * second[i];
+            sum1 += first[i + 1] * second[i + 1];
+            sum2 += first[i + 2] * second[i + 2];
+            sum3 += first[i + 3] * second[i + 3];
+        }
+        for (; i < first.length; i++) {
+            sum0 += first[i] * second[i];
+        }
+        return sum0 + sum1 + sum2 + sum3;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public int getDimensions() {
+        return dimensions;
+    }
+}
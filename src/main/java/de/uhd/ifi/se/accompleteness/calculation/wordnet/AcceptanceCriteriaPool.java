@@ -0,0 +1,229 @@
+package de.uhd.ifi.se.accompleteness.calculation.wordnet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.TopicIndex;
+import de.uhd.ifi.se.accompleteness.extractor.ACExtractor;
+import de.uhd.ifi.se.accompleteness.model.Topic;
+import net.sf.extjwnl.JWNLException;
+import net.sf.extjwnl.data.IndexWord;
+import net.sf.extjwnl.data.POS;
+import net.sf.extjwnl.data.Pointer;
+import net.sf.extjwnl.data.PointerType;
+import net.sf.extjwnl.data.Synset;
+import net.sf.extjwnl.dictionary.Dictionary;
+
+/**
+ * The topics of acceptance criteria shared by many user stories, e.g., written
+ * at epic level, extracted once per request and indexed so that the cost of a
+ * lookup does not grow with the size of the pool.
+ *
+ * Topics with words that are not in WordNet are indexed by their lemmas. The
+ * synsets of the other topics are indexed under all their hypernyms up to the
+ * longest path between matching synsets that the measure of the params
+ * allows, together with the number of hypernym edges to them. The candidates
+ * of a user story synset are the pool synsets indexed under its own hypernyms
+ * within the remaining number of edges, and the candidates are checked with
+ * the measure of the params.
+ */
+public class AcceptanceCriteriaPool {
+
+    private static class Entry {
+        final Topic topic;
+        final Synset synset;
+        final int edges;
+
+        Entry(Topic topic, Synset synset, int edges) {
+            this.topic = topic;
+            this.synset = synset;
+            this.edges = edges;
+        }
+    }
+
+    private final List<Topic> topics;
+    private final TopicIndex<Topic> lemmaIndex;
+    private final Map<String, List<Entry>> hypernymIndex = new HashMap<>();
+    private final int maxPathLength;
+
+    /**
+     * Indexes the topics of a pool.
+     *
+     * @param topics     the topics of the shared acceptance criteria
+     * @param calcParams the params of the request, whose measure bounds the
+     *                   indexed hypernyms
+     */
+    public AcceptanceCriteriaPool(List<Topic> topics, WordnetCalculationParams calcParams) throws Exception {
+        this.topics = topics;
+        lemmaIndex = new TopicIndex<>(calcParams.isMatchIgnoreCase(), calcParams.isMatchIgnorePlural());
+        maxPathLength = getMaxPathLength(calcParams);
+        Dictionary dictionary = WordnetDictionary.getInstance();
+        for (Topic topic : topics) {
+            POS tag = topic.getPOSTag();
+            for (String singleWord : topic.toString().split(" ")) {
+                IndexWord word = tag == null ? null : dictionary.lookupIndexWord(tag, singleWord);
+                if (word == null) {
+                    lemmaIndex.add(topic.toString(), topic);
+                    continue;
+                }
+                Synset synset = word.getSenses().get(0);
+                for (Map.Entry<String, Integer> hypernym : getHypernyms(synset, maxPathLength).entrySet()) {
+                    hypernymIndex.computeIfAbsent(hypernym.getKey(), key -> new ArrayList<>())
+                            .add(new Entry(topic, synset, hypernym.getValue()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Extracts the topics of shared acceptance criteria and indexes them.
+     *
+     * @param texts       the shared acceptance criteria
+     * @param acExtractor the extractor of the acceptance criteria topics
+     * @param calcParams  the params of the request
+     * @return the pool of the acceptance criteria
+     */
+    public static AcceptanceCriteriaPool extract(List<String> texts, ACExtractor acExtractor,
+            WordnetCalculationParams calcParams) throws Exception {
+        return new AcceptanceCriteriaPool(extractTopics(texts, acExtractor), calcParams);
+    }
+
+    /**
+     * Extracts the pool of the shared acceptance criteria of the params of a
+     * request.
+     *
+     * @param params      the params of the request
+     * @param acExtractor the extractor of the request
+     * @return the pool of the acceptance criteria, or {@code null} if the
+     *         params have no shared acceptance criteria
+     */
+    public static AcceptanceCriteriaPool fromParams(CalculationParams params, ACExtractor acExtractor)
+            throws Exception {
+        WordnetCalculationParams calcParams = (WordnetCalculationParams) params;
+        if (calcParams.getSharedAcceptanceCriteria().isEmpty()) {
+            return null;
+        }
+        return extract(calcParams.getSharedAcceptanceCriteria(), acExtractor, calcParams);
+    }
+
+    /**
+     * Extracts the distinct topics of shared acceptance criteria, which can be
+     * indexed for several params.
+     *
+     * @param texts       the shared acceptance criteria
+     * @param acExtractor the extractor of the acceptance criteria topics
+     * @return the topics of the acceptance criteria
+     */
+    public static List<Topic> extractTopics(List<String> texts, ACExtractor acExtractor) throws Exception {
+        List<Topic> topics = new ArrayList<>();
+        for (String text : texts) {
+            for (Topic topic : acExtractor.extract(text).getTopics()) {
+                if (!topics.contains(topic)) {
+                    topics.add(topic);
+                }
+            }
+        }
+        return topics;
+    }
+
+    /**
+     * Returns the longest path between two synsets that can match by the
+     * measure of the params, derived from the depths of the hierarchy for the
+     * similarity measures.
+     */
+    private static int getMaxPathLength(WordnetCalculationParams calcParams) throws JWNLException {
+        double threshold = calcParams.getWordnetSimilarityThreshold();
+        switch (calcParams.getWordnetMeasure()) {
+        case WUPALMER:
+            // 2 * d(lcs) / (d1 + d2) >= t implies d1 + d2 - 2 * d(lcs) <= (1 - t)(d1 + d2),
+            // where the nouns are the deepest hierarchy
+            return (int) Math.floor((1 - threshold) * 2 * HypernymHierarchy.getInstance(POS.NOUN).getMaxDepth());
+        case LEACOCKCHODOROW:
+            return (int) Math.floor(2 * HypernymHierarchy.getInstance(POS.NOUN).getMaxDepth() * Math.exp(-threshold)
+                    - 1);
+        default:
+            return calcParams.getWordnetDistanceThreshold() - 1;
+        }
+    }
+
+    private static String getKey(Synset synset) {
+        return synset.getPOS().getKey() + synset.getOffset();
+    }
+
+    /**
+     * Returns the keys of a synset and its hypernyms up to a number of edges,
+     * with the fewest edges to every hypernym.
+     */
+    private static Map<String, Integer> getHypernyms(Synset synset, int maxEdges) throws JWNLException {
+        Map<String, Integer> hypernyms = new LinkedHashMap<>();
+        List<Synset> level = List.of(synset);
+        hypernyms.put(getKey(synset), 0);
+        for (int edges = 1; edges <= maxEdges && !level.isEmpty(); edges++) {
+            List<Synset> nextLevel = new ArrayList<>();
+            for (Synset current : level) {
+                for (Pointer pointer : current.getPointers()) {
+                    if (pointer.getType() == PointerType.HYPERNYM
+                            || pointer.getType() == PointerType.INSTANCE_HYPERNYM) {
+                        Synset hypernym = pointer.getTargetSynset();
+                        if (!hypernyms.containsKey(getKey(hypernym))) {
+                            hypernyms.put(getKey(hypernym), edges);
+                            nextLevel.add(hypernym);
+                        }
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+        return hypernyms;
+    }
+
+    /**
+     * Finds a pool topic with the same lemmas as a user story topic.
+     *
+     * @param topic the lemmas of the user story topic
+     * @return the first pool topic with the same normalized lemmas or
+     *         {@code null}
+     */
+    public Topic findByLemmas(String topic) {
+        return lemmaIndex.get(topic);
+    }
+
+    /**
+     * Finds a pool topic whose synset matches the synset of a user story
+     * topic, preferring the shortest path between the synsets.
+     *
+     * @param synset     the synset of the user story topic
+     * @param calculator the calculator deciding whether synsets match
+     * @param calcParams the params of the request
+     * @return the matching pool topic or {@code null}
+     */
+    public Topic findBySynset(Synset synset, WordnetCompletenessCalculator calculator,
+            WordnetCalculationParams calcParams) throws JWNLException, CloneNotSupportedException {
+        Topic best = null;
+        int bestPathLength = Integer.MAX_VALUE;
+        for (Map.Entry<String, Integer> hypernym : getHypernyms(synset, maxPathLength).entrySet()) {
+            for (Entry entry : hypernymIndex.getOrDefault(hypernym.getKey(), List.of())) {
+                int pathLength = hypernym.getValue() + entry.edges;
+                if (pathLength <= maxPathLength && pathLength < bestPathLength
+                        && calculator.matches(synset, entry.synset, calcParams)) {
+                    best = entry.topic;
+                    bestPathLength = pathLength;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the topics of the pool.
+     *
+     * @return the topics in the order of the shared acceptance criteria
+     */
+    public List<Topic> getTopics() {
+        return topics;
+    }
+}
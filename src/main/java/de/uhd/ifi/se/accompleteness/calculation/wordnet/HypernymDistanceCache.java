@@ -0,0 +1,83 @@
+package de.uhd.ifi.se.accompleteness.calculation.wordnet;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.uhd.ifi.se.accompleteness.ServiceConfig;
+import net.sf.extjwnl.JWNLException;
+import net.sf.extjwnl.data.PointerType;
+import net.sf.extjwnl.data.Synset;
+import net.sf.extjwnl.data.relationship.RelationshipFinder;
+import net.sf.extjwnl.data.relationship.RelationshipList;
+
+/**
+ * Stores the depth of the shallowest hypernym relationship between pairs of
+ * synsets, so that pairs that have already been compared, e.g., in an earlier
+ * calculation for the same user story, do not have to be searched for again.
+ * The depths do not depend on the distance threshold, so a single cache is
+ * shared by all calculations. Once the cache is full, further depths are
+ * computed but not stored.
+ */
+public class HypernymDistanceCache {
+
+    private static HypernymDistanceCache instance;
+
+    /**
+     * The depth for pairs of synsets without a hypernym relationship.
+     */
+    public static final int NO_RELATIONSHIP = -1;
+
+    private final Map<String, Integer> depths = new ConcurrentHashMap<>();
+
+    private final int capacity;
+
+    /**
+     * Creates a cache.
+     * 
+     * @param capacity the maximum number of stored pairs of synsets
+     */
+    public HypernymDistanceCache(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Returns the cache shared by all calculations, whose capacity is
+     * configured by {@code distanceCache.capacity} (default 1000000 pairs).
+     * 
+     * @return the shared cache
+     */
+    public static synchronized HypernymDistanceCache getInstance() {
+        if (instance == null) {
+            instance = new HypernymDistanceCache(ServiceConfig.getInt("distanceCache.capacity", 1000000));
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the depth of the shallowest hypernym relationship between two
+     * synsets.
+     * 
+     * @param usSynset the synset of a user story word
+     * @param acSynset the synset of an acceptance criteria word
+     * @return the depth of the shallowest relationship or
+     *         {@link #NO_RELATIONSHIP}
+     */
+    public int getDepth(Synset usSynset, Synset acSynset) throws JWNLException, CloneNotSupportedException {
+        String key = usSynset.getPOS().getKey() + usSynset.getOffset() + "|" + acSynset.getPOS().getKey()
+                + acSynset.getOffset();
+        Integer depth = depths.get(key);
+        if (depth == null) {
+            RelationshipList relationships = RelationshipFinder.findRelationships(usSynset, acSynset,
+                    PointerType.HYPERNYM);
+            depth = relationships.size() > 0 ? relationships.getShallowest().getDepth() : NO_RELATIONSHIP;
+            if (depths.size() < capacity) {
+                depths.put(key, depth);
+            }
+        }
+        return depth;
+    }
+
+    public int size() {
+        return depths.size();
+    }
+}
@@ -0,0 +1,296 @@
+package de.uhd.ifi.se.accompleteness.calculation.wordnet;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import net.sf.extjwnl.JWNLException;
+import net.sf.extjwnl.data.POS;
+import net.sf.extjwnl.data.Pointer;
+import net.sf.extjwnl.data.PointerType;
+import net.sf.extjwnl.data.Synset;
+
+/**
+ * The hypernym hierarchy of the synsets of a part of speech, preprocessed
+ * once so that the lowest common subsumer of any two synsets is found in
+ * constant time.
+ *
+ * The hierarchy is a directed acyclic graph, since synsets can have several
+ * hypernyms (including instance hypernyms), and verbs have many roots. All
+ * roots are attached to a virtual root, and the graph is unfolded into a tree
+ * in which a synset with several hypernyms occurs once below each of them. The
+ * lowest common ancestor of two tree nodes is the node of minimum depth
+ * between their first occurrences in the Euler tour of the tree, which is
+ * answered by a sparse table of range minima in O(1). For synsets occurring
+ * several times, the deepest of the ancestors of all their occurrences is the
+ * lowest common subsumer.
+ */
+public class HypernymHierarchy {
+
+    private static final Map<POS, HypernymHierarchy> INSTANCES = new EnumMap<>(POS.class);
+
+    /**
+     * The tree nodes of every synset by its offset.
+     */
+    private final Map<Long, int[]> nodesBySynset = new HashMap<>();
+
+    /**
+     * The depth of every tree node, the virtual root having depth 0 and the
+     * roots of the hierarchy depth 1.
+     */
+    private final int[] depth;
+
+    /**
+     * The index of the first occurrence of every tree node in the Euler tour.
+     */
+    private final int[] firstOccurrence;
+
+    /**
+     * The node of minimum depth of every range of length 2^k of the Euler
+     * tour, starting at every index.
+     */
+    private final int[][] sparseTable;
+
+    private final int maxDepth;
+
+    /**
+     * The result of a query of the lowest common subsumer of two synsets.
+     */
+    public static class Subsumption {
+        private final int firstDepth;
+        private final int secondDepth;
+        private final int subsumerDepth;
+
+        Subsumption(int firstDepth, int secondDepth, int subsumerDepth) {
+            this.firstDepth = firstDepth;
+            this.secondDepth = secondDepth;
+            this.subsumerDepth = subsumerDepth;
+        }
+
+        public int getFirstDepth() {
+            return firstDepth;
+        }
+
+        public int getSecondDepth() {
+            return secondDepth;
+        }
+
+        /**
+         * Returns the depth of the lowest common subsumer, which is 0 if the
+         * synsets only share the virtual root.
+         *
+         * @return the depth of the lowest common subsumer
+         */
+        public int getSubsumerDepth() {
+            return subsumerDepth;
+        }
+
+        /**
+         * Returns the number of hypernym edges on the path between the synsets
+         * through their lowest common subsumer.
+         *
+         * @return the length of the path
+         */
+        public int getPathLength() {
+            return firstDepth + secondDepth - 2 * subsumerDepth;
+        }
+    }
+
+    /**
+     * Returns the preprocessed hierarchy of a part of speech, building it on
+     * first use.
+     *
+     * @param pos the part of speech
+     * @return the hierarchy of the synsets of the part of speech
+     */
+    public static HypernymHierarchy getInstance(POS pos) throws JWNLException {
+        synchronized (INSTANCES) {
+            HypernymHierarchy hierarchy = INSTANCES.get(pos);
+            if (hierarchy == null) {
+                hierarchy = new HypernymHierarchy(pos);
+                INSTANCES.put(pos, hierarchy);
+            }
+            return hierarchy;
+        }
+    }
+
+    private HypernymHierarchy(POS pos) throws JWNLException {
+        // read the hypernyms of all synsets of the part of speech
+        Map<Long, List<Long>> children = new HashMap<>();
+        List<Long> roots = new ArrayList<>();
+        Iterator<Synset> synsets = WordnetDictionary.getInstance().getSynsetIterator(pos);
+        while (synsets.hasNext()) {
+            Synset synset = synsets.next();
+            boolean hasHypernym = false;
+            for (Pointer pointer : synset.getPointers()) {
+                if (pointer.getType() == PointerType.HYPERNYM || pointer.getType() == PointerType.INSTANCE_HYPERNYM) {
+                    children.computeIfAbsent(pointer.getTargetOffset(), offset -> new ArrayList<>())
+                            .add(synset.getOffset());
+                    hasHypernym = true;
+                }
+            }
+            if (!hasHypernym) {
+                roots.add(synset.getOffset());
+            }
+        }
+
+        // unfold the graph into a tree below a virtual root and record the
+        // Euler tour of the tree
+        List<Integer> depths = new ArrayList<>();
+        List<Integer> tour = new ArrayList<>();
+        List<Integer> firstOccurrences = new ArrayList<>();
+        Map<Long, List<Integer>> nodes = new HashMap<>();
+        // a stack of the tree nodes being visited with the index of their next
+        // child
+        Deque<long[]> stack = new ArrayDeque<>();
+        depths.add(0);
+        firstOccurrences.add(0);
+        tour.add(0);
+        stack.push(new long[] { 0, -1, 0 });
+        int deepest = 0;
+        while (!stack.isEmpty()) {
+            long[] top = stack.peek();
+            int node = (int) top[0];
+            List<Long> nodeChildren = top[1] < 0 ? roots : children.getOrDefault(top[1], List.of());
+            if (top[2] >= nodeChildren.size()) {
+                stack.pop();
+                if (!stack.isEmpty()) {
+                    tour.add((int) stack.peek()[0]);
+                }
+                continue;
+            }
+            long childSynset = nodeChildren.get((int) top[2]++);
+            int child = depths.size();
+            int childDepth = depths.get(node) + 1;
+            deepest = Math.max(deepest, childDepth);
+            depths.add(childDepth);
+            firstOccurrences.add(tour.size());
+            tour.add(child);
+            nodes.computeIfAbsent(childSynset, offset -> new ArrayList<>()).add(child);
+            stack.push(new long[] { child, childSynset, 0 });
+        }
+
+        depth = depths.stream().mapToInt(Integer::intValue).toArray();
+        firstOccurrence = firstOccurrences.stream().mapToInt(Integer::intValue).toArray();
+        maxDepth = deepest;
+        for (Map.Entry<Long, List<Integer>> entry : nodes.entrySet()) {
+            nodesBySynset.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+
+        // build the sparse table of the Euler tour
+        int length = tour.size();
+        int levels = 32 - Integer.numberOfLeadingZeros(length);
+        sparseTable = new int[levels][];
+        sparseTable[0] = tour.stream().mapToInt(Integer::intValue).toArray();
+        for (int k = 1; k < levels; k++) {
+            int half = 1 << (k - 1);
+            int[] previous = sparseTable[k - 1];
+            int[] level = new int[length - (1 << k) + 1];
+            for (int i = 0; i < level.length; i++) {
+                level[i] = shallower(previous[i], previous[i + half]);
+            }
+            sparseTable[k] = level;
+        }
+    }
+
+    private int shallower(int first, int second) {
+        return depth[first] <= depth[second] ? first : second;
+    }
+
+    /**
+     * Returns the lowest common ancestor of two tree nodes.
+     */
+    private int lowestCommonAncestor(int first, int second) {
+        int from = firstOccurrence[first];
+        int to = firstOccurrence[second];
+        if (from > to) {
+            int swap = from;
+            from = to;
+            to = swap;
+        }
+        int k = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+        return shallower(sparseTable[k][from], sparseTable[k][to - (1 << k) + 1]);
+    }
+
+    /**
+     * Finds the lowest common subsumer of two synsets of the part of speech of
+     * the hierarchy.
+     *
+     * @param first  a synset
+     * @param second another synset
+     * @return the depths of the synsets and of their deepest common subsumer,
+     *         or {@code null} if a synset is not part of the hierarchy
+     */
+    public Subsumption getSubsumption(Synset first, Synset second) {
+        int[] firstNodes = nodesBySynset.get(first.getOffset());
+        int[] secondNodes = nodesBySynset.get(second.getOffset());
+        if (firstNodes == null || secondNodes == null || first.getPOS() != second.getPOS()) {
+            return null;
+        }
+        Subsumption best = null;
+        for (int firstNode : firstNodes) {
+            for (int secondNode : secondNodes) {
+                int subsumerDepth = depth[lowestCommonAncestor(firstNode, secondNode)];
+                if (best == null || subsumerDepth > best.subsumerDepth || (subsumerDepth == best.subsumerDepth
+                        && depth[firstNode] + depth[secondNode] < best.firstDepth + best.secondDepth)) {
+                    best = new Subsumption(depth[firstNode], depth[secondNode], subsumerDepth);
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the Wu-Palmer similarity of two synsets, i.e., twice the depth
+     * of their lowest common subsumer divided by the sum of their depths.
+     *
+     * @param first  a synset
+     * @param second another synset
+     * @return the similarity between 0 and 1, or 0 if the synsets have no
+     *         common subsumer
+     */
+    public double getWuPalmerSimilarity(Synset first, Synset second) {
+        Subsumption subsumption = getSubsumption(first, second);
+        if (subsumption == null) {
+            return 0;
+        }
+        return 2.0 * subsumption.getSubsumerDepth() / (subsumption.getFirstDepth() + subsumption.getSecondDepth());
+    }
+
+    /**
+     * Returns the Leacock-Chodorow similarity of two synsets, i.e., the
+     * negative logarithm of the length of the path between them (counted in
+     * nodes) divided by twice the maximum depth of the hierarchy.
+     *
+     * @param first  a synset
+     * @param second another synset
+     * @return the similarity, or 0 if the synsets are not part of the
+     *         hierarchy
+     */
+    public double getLeacockChodorowSimilarity(Synset first, Synset second) {
+        Subsumption subsumption = getSubsumption(first, second);
+        if (subsumption == null) {
+            return 0;
+        }
+        return -Math.log((subsumption.getPathLength() + 1.0) / (2.0 * maxDepth));
+    }
+
+    /**
+     * Returns the number of nodes of the unfolded tree, including the virtual
+     * root.
+     *
+     * @return the size of the tree
+     */
+    public int size() {
+        return depth.length;
+    }
+
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+}
@@ -1,21 +1,205 @@
 package de.uhd.ifi.se.accompleteness.calculation.wordnet;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import de.uhd.ifi.se.accompleteness.ParamValues;
 import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.CalculatorRegistry;
+import de.uhd.ifi.se.accompleteness.calculation.relationship.RelationshipCompletenessCalculator.TopicMatch;
 
 public class WordnetCalculationParams implements CalculationParams {
 
     private int wordnetDistanceThreshold;
 
+    private List<String> calculatorNames = List.of(CalculatorRegistry.DEFAULT_CALCULATOR);
+
+    private boolean matchIgnoreCase;
+
+    private boolean matchIgnorePlural;
+
+    private WordnetMeasure wordnetMeasure = WordnetMeasure.DISTANCE;
+
+    private double wordnetSimilarityThreshold = Double.NaN;
+
+    private int wordnetSenses = 1;
+
+    private int wordnetComparisonBudget = DEFAULT_COMPARISON_BUDGET;
+
+    private double vectorSimilarityThreshold = DEFAULT_VECTOR_SIMILARITY_THRESHOLD;
+
+    private TopicMatch relationshipTopicMatch = TopicMatch.WORDNET;
+
+    private List<String> sharedAcceptanceCriteria = List.of();
+
+    /**
+     * The number of comparisons of further senses per user story if the params
+     * do not contain a budget.
+     */
+    public static final int DEFAULT_COMPARISON_BUDGET = 500;
+
+    /**
+     * The minimum cosine similarity of matching topics if the params do not
+     * contain one.
+     */
+    public static final double DEFAULT_VECTOR_SIMILARITY_THRESHOLD = .6;
+
     public int getWordnetDistanceThreshold() {
         return wordnetDistanceThreshold;
     }
 
+    public WordnetMeasure getWordnetMeasure() {
+        return wordnetMeasure;
+    }
+
+    /**
+     * Returns the minimum similarity of matching synsets if the measure is a
+     * similarity.
+     * 
+     * @return the threshold of the similarity
+     */
+    public double getWordnetSimilarityThreshold() {
+        return wordnetSimilarityThreshold;
+    }
+
+    /**
+     * Returns the number of senses of every word compared, starting with the
+     * most frequent one.
+     * 
+     * @return the number of senses, 1 if only the first sense is compared
+     */
+    public int getWordnetSenses() {
+        return wordnetSenses;
+    }
+
+    /**
+     * Returns the number of comparisons of senses other than the first senses
+     * per user story.
+     * 
+     * @return the budget of comparisons
+     */
+    public int getWordnetComparisonBudget() {
+        return wordnetComparisonBudget;
+    }
+
     @Override
     public void setCalculationParamsFromJson(JsonObject params) {
 
         this.wordnetDistanceThreshold = params.get("wordnetDistanceThreshold").getAsInt();
+        this.matchIgnoreCase = params.has("matchIgnoreCase") && params.get("matchIgnoreCase").getAsBoolean();
+        this.matchIgnorePlural = params.has("matchIgnorePlural") && params.get("matchIgnorePlural").getAsBoolean();
+        if (params.has("wordnetMeasure")) {
+            this.wordnetMeasure = ParamValues.parseEnum(WordnetMeasure.class, "wordnetMeasure",
+                    params.get("wordnetMeasure").getAsString().replace("-", ""));
+        }
+        this.wordnetSimilarityThreshold = params.has("wordnetSimilarityThreshold")
+                ? params.get("wordnetSimilarityThreshold").getAsDouble()
+                : wordnetMeasure.getDefaultThreshold();
+        this.wordnetSenses = params.has("wordnetSenses") ? params.get("wordnetSenses").getAsInt() : 1;
+        if (wordnetSenses < 1) {
+            throw new IllegalArgumentException("The param wordnetSenses must be at least 1");
+        }
+        this.wordnetComparisonBudget = params.has("wordnetComparisonBudget")
+                ? params.get("wordnetComparisonBudget").getAsInt()
+                : DEFAULT_COMPARISON_BUDGET;
+        this.vectorSimilarityThreshold = params.has("vectorSimilarityThreshold")
+                ? params.get("vectorSimilarityThreshold").getAsDouble()
+                : DEFAULT_VECTOR_SIMILARITY_THRESHOLD;
+        this.relationshipTopicMatch = params.has("relationshipTopicMatch")
+                ? ParamValues.parseEnum(TopicMatch.class, "relationshipTopicMatch",
+                        params.get("relationshipTopicMatch").getAsString())
+                : TopicMatch.WORDNET;
+
+        // a single text or an array of texts, which are extracted into an
+        // AcceptanceCriteriaPool once per request
+        this.sharedAcceptanceCriteria = new ArrayList<>();
+        if (params.has("sharedAcceptanceCriteria")) {
+            JsonElement texts = params.get("sharedAcceptanceCriteria");
+            if (texts.isJsonArray()) {
+                for (JsonElement text : texts.getAsJsonArray()) {
+                    sharedAcceptanceCriteria.add(text.getAsString());
+                }
+            } else {
+                sharedAcceptanceCriteria.add(texts.getAsString());
+            }
+        }
+        // a single name or an array of names
+        if (params.has("calculators")) {
+            JsonElement calculators = params.get("calculators");
+            List<String> names = new ArrayList<>();
+            if (calculators.isJsonArray()) {
+                for (JsonElement name : calculators.getAsJsonArray()) {
+                    names.add(name.getAsString());
+                }
+            } else {
+                names.add(calculators.getAsString());
+            }
+            for (String name : names) {
+                CalculatorRegistry.get(name);
+            }
+            if (names.isEmpty()) {
+                throw new IllegalArgumentException("The param calculators must name at least one calculator");
+            }
+            this.calculatorNames = names;
+        }
+        if (!sharedAcceptanceCriteria.isEmpty()) {
+            for (String name : calculatorNames) {
+                if (!name.equals(CalculatorRegistry.DEFAULT_CALCULATOR)) {
+                    throw new IllegalArgumentException("The param sharedAcceptanceCriteria is only supported by the "
+                            + CalculatorRegistry.DEFAULT_CALCULATOR + " calculator, not by the " + name
+                            + " calculator");
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<String> getCalculatorNames() {
+        return calculatorNames;
+    }
+
+    @Override
+    public boolean isMatchIgnoreCase() {
+        return matchIgnoreCase;
+    }
+
+    @Override
+    public boolean isMatchIgnorePlural() {
+        return matchIgnorePlural;
+    }
+
+    /**
+     * Returns the minimum cosine similarity of the word vectors of matching
+     * topics.
+     * 
+     * @return the threshold of the similarity
+     */
+    public double getVectorSimilarityThreshold() {
+        return vectorSimilarityThreshold;
+    }
+
+    /**
+     * Returns how the subjects and objects of triples are compared by the
+     * relationship calculator.
+     * 
+     * @return whether heads are compared by WordNet or exactly
+     */
+    public TopicMatch getRelationshipTopicMatch() {
+        return relationshipTopicMatch;
+    }
+
+    /**
+     * Returns the texts of the acceptance criteria shared by all user stories
+     * of a request, which only the wordnet calculator supports.
+     * 
+     * @return the shared acceptance criteria, empty if there are none
+     * @see AcceptanceCriteriaPool
+     */
+    public List<String> getSharedAcceptanceCriteria() {
+        return sharedAcceptanceCriteria;
     }
 
 }
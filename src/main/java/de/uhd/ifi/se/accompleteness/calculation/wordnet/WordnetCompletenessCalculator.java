@@ -1,10 +1,12 @@
 package de.uhd.ifi.se.accompleteness.calculation.wordnet;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
 import de.uhd.ifi.se.accompleteness.calculation.CompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.calculation.TopicIndex;
 import de.uhd.ifi.se.accompleteness.model.CompletenessCalcResult;
 import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
 import de.uhd.ifi.se.accompleteness.model.Topic;
@@ -12,24 +14,57 @@ import de.uhd.ifi.se.accompleteness.model.UserStory;
 import net.sf.extjwnl.JWNLException;
 import net.sf.extjwnl.data.IndexWord;
 import net.sf.extjwnl.data.POS;
-import net.sf.extjwnl.data.PointerType;
 import net.sf.extjwnl.data.Synset;
-import net.sf.extjwnl.data.relationship.RelationshipFinder;
-import net.sf.extjwnl.data.relationship.RelationshipList;
 import net.sf.extjwnl.dictionary.Dictionary;
 
 public class WordnetCompletenessCalculator implements CompletenessCalculator {
 
+    private final HypernymDistanceCache distanceCache;
+
+    public WordnetCompletenessCalculator() {
+        this(HypernymDistanceCache.getInstance());
+    }
+
+    /**
+     * Creates a calculator reusing the hypernym relationships found in earlier
+     * calculations.
+     * 
+     * @param distanceCache the cache of hypernym relationship depths
+     */
+    public WordnetCompletenessCalculator(HypernymDistanceCache distanceCache) {
+        this.distanceCache = distanceCache;
+    }
+
     @Override
     public CompletenessCalcResult calculate_completeness(ExtractionResult usResult, ExtractionResult acResult, CalculationParams params, UserStory userStory)
             throws JWNLException, CloneNotSupportedException, Exception {
+        return calculate_completeness(usResult, acResult, params, userStory, null);
+    }
+
+    /**
+     * Calculates the completeness of a user story, looking up the topics
+     * without match in its own acceptance criteria in the pool of shared
+     * acceptance criteria.
+     * 
+     * @param usResult  the topics of the user story
+     * @param acResult  the topics of the acceptance criteria
+     * @param params    the params of the calculation
+     * @param userStory the user story
+     * @param pool      the pool of the shared acceptance criteria of the
+     *                  request, or {@code null}
+     * @return the result of the calculation
+     */
+    public CompletenessCalcResult calculate_completeness(ExtractionResult usResult, ExtractionResult acResult,
+            CalculationParams params, UserStory userStory, AcceptanceCriteriaPool pool) throws Exception {
         WordnetCalculationParams calcParams = (WordnetCalculationParams) params;
-        int SIMILAR_THRESHHOLD = calcParams.getWordnetDistanceThreshold();
-        Dictionary dictionary = Dictionary.getDefaultResourceInstance();
+        Dictionary dictionary = WordnetDictionary.getInstance();
         Map<String, Double> toReturn = new HashMap<>();
         Map<Topic, Topic> matchedTopics = new HashMap<>();
-        Map<Topic, Synset> usWordsWordnet = new HashMap<>();
-        Map<Topic, Synset> acWordsWordnet = new HashMap<>();
+        // the first senses of the words of every topic, precomputed once per
+        // user story
+        int senses = calcParams.getWordnetSenses();
+        Map<Topic, List<Synset>> usWordsWordnet = new HashMap<>();
+        Map<Topic, List<Synset>> acWordsWordnet = new HashMap<>();
         Map<Topic, String> usWordsNonWordnet = new HashMap<>();
         Map<Topic, String> acWordsNonWordnet = new HashMap<>();
 
@@ -40,8 +75,7 @@ public class WordnetCompletenessCalculator implements CompletenessCalculator {
                 if (tag != null) {
                     IndexWord word = dictionary.lookupIndexWord(tag, singleWord);
                     if (word != null) {
-                        Synset synset = word.getSenses().get(0);
-                        usWordsWordnet.put(topic, synset);
+                        usWordsWordnet.put(topic, getSenses(word, senses));
                         continue;
                     }
                 }
@@ -55,8 +89,7 @@ public class WordnetCompletenessCalculator implements CompletenessCalculator {
                 if (tag != null) {
                     IndexWord word = dictionary.lookupIndexWord(tag, singleWord);
                     if (word != null) {
-                        Synset synset = word.getSenses().get(0);
-                        acWordsWordnet.put(topic, synset);
+                        acWordsWordnet.put(topic, getSenses(word, senses));
                         continue;
                     }
                 }
@@ -65,26 +98,46 @@ public class WordnetCompletenessCalculator implements CompletenessCalculator {
         }
         int wordsTotal = usWordsNonWordnet.size();
         int wordsFound = 0;
-        for (var usWordString : usWordsNonWordnet.entrySet()) {
-            for (var acWordString : acWordsNonWordnet.entrySet()) {
-                if (usWordString.equals(acWordString)) {
-                    wordsFound++;
-                    matchedTopics.put(usWordString.getKey(), acWordString.getKey());
-                }
+        // words that are not in WordNet only match within topics with equal
+        // lemmas, which are found in the index of the acceptance criteria
+        TopicIndex<Topic> acTopicIndex = new TopicIndex<>(calcParams.isMatchIgnoreCase(),
+                calcParams.isMatchIgnorePlural());
+        for (Topic acTopic : acWordsNonWordnet.keySet()) {
+            acTopicIndex.add(acTopic.toString(), acTopic);
+        }
+        // topics without match in the own acceptance criteria are looked up in
+        // the pool of shared acceptance criteria
+        Map<Topic, Topic> poolMatchedTopics = new HashMap<>();
+        for (Topic usTopic : usWordsNonWordnet.keySet()) {
+            Topic acTopic = acTopicIndex.get(usTopic.toString());
+            if (acTopic != null) {
+                wordsFound++;
+                matchedTopics.put(usTopic, acTopic);
+            } else if (pool != null && (acTopic = pool.findByLemmas(usTopic.toString())) != null) {
+                wordsFound++;
+                poolMatchedTopics.put(usTopic, acTopic);
             }
         }
         wordsTotal += usWordsWordnet.size();
-        for (var usSynset : usWordsWordnet.entrySet()) {
-            for (var acSynset : acWordsWordnet.entrySet()) {
-                RelationshipList relationships = RelationshipFinder.findRelationships(
-                        usSynset.getValue(), acSynset.getValue(), PointerType.HYPERNYM);
-                if (relationships.size() > 0
-                        && relationships.getShallowest().getDepth() < SIMILAR_THRESHHOLD) {
-                            wordsFound++;
-                    matchedTopics.put(usSynset.getKey(), acSynset.getKey());
+        ComparisonBudget budget = new ComparisonBudget(calcParams.getWordnetComparisonBudget());
+        for (var usSynsets : usWordsWordnet.entrySet()) {
+            for (var acSynsets : acWordsWordnet.entrySet()) {
+                boolean matching = senses == 1
+                        ? matches(usSynsets.getValue().get(0), acSynsets.getValue().get(0), calcParams)
+                        : matchesAnySense(usSynsets.getValue(), acSynsets.getValue(), calcParams, budget);
+                if (matching) {
+                    wordsFound++;
+                    matchedTopics.put(usSynsets.getKey(), acSynsets.getKey());
                     break;
                 }
             }
+            if (pool != null && !matchedTopics.containsKey(usSynsets.getKey())) {
+                Topic poolTopic = pool.findBySynset(usSynsets.getValue().get(0), this, calcParams);
+                if (poolTopic != null) {
+                    wordsFound++;
+                    poolMatchedTopics.put(usSynsets.getKey(), poolTopic);
+                }
+            }
         }
         double resultCompleteness = ((double) (wordsFound) / (double) (wordsTotal));
         System.out.println("wordsFound" + wordsFound);
@@ -94,7 +147,99 @@ public class WordnetCompletenessCalculator implements CompletenessCalculator {
             resultCompleteness = 0;
         }
         toReturn.put("completeness",  resultCompleteness);
-        return new CompletenessCalcResult(resultCompleteness, usResult.getTopics(), acResult.getTopics(), matchedTopics, userStory);
+        CompletenessCalcResult result = new CompletenessCalcResult(resultCompleteness, usResult.getTopics(),
+                acResult.getTopics(), matchedTopics, userStory);
+        if (pool != null) {
+            result.setPoolMatchedTopics(poolMatchedTopics);
+        }
+        return result;
+    }
+
+    /**
+     * The number of comparisons of senses other than the first senses that are
+     * left for a user story.
+     */
+    private static class ComparisonBudget {
+        private int remaining;
+
+        ComparisonBudget(int remaining) {
+            this.remaining = remaining;
+        }
+
+        boolean take() {
+            if (remaining <= 0) {
+                return false;
+            }
+            remaining--;
+            return true;
+        }
+    }
+
+    private static List<Synset> getSenses(IndexWord word, int senses) {
+        List<Synset> wordSenses = word.getSenses();
+        return wordSenses.size() <= senses ? wordSenses : wordSenses.subList(0, senses);
+    }
+
+    /**
+     * Decides whether any pair of senses of two words match. The pairs are
+     * compared in the order of the sum of their sense numbers, starting with
+     * the first senses, until the first matching pair. Comparisons of the
+     * first senses are free, all others take from the budget of the user
+     * story, so that a story costs at most the budget more than with single
+     * senses. All measures are answered by the preprocessed hypernym
+     * hierarchy, the distance being the length of the path through the lowest
+     * common subsumer.
+     */
+    private static boolean matchesAnySense(List<Synset> usSenses, List<Synset> acSenses,
+            WordnetCalculationParams calcParams, ComparisonBudget budget) throws JWNLException {
+        int rankCount = usSenses.size() + acSenses.size() - 1;
+        for (int rank = 0; rank < rankCount; rank++) {
+            for (int i = Math.max(0, rank - acSenses.size() + 1); i <= Math.min(rank, usSenses.size() - 1); i++) {
+                if (rank > 0 && !budget.take()) {
+                    return false;
+                }
+                if (matchesInHierarchy(usSenses.get(i), acSenses.get(rank - i), calcParams)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean matchesInHierarchy(Synset usSynset, Synset acSynset, WordnetCalculationParams calcParams)
+            throws JWNLException {
+        WordnetMeasure measure = calcParams.getWordnetMeasure();
+        if (measure != WordnetMeasure.DISTANCE) {
+            return measure.getSimilarity(usSynset, acSynset) >= calcParams.getWordnetSimilarityThreshold();
+        }
+        if (usSynset.getPOS() != acSynset.getPOS()) {
+            return false;
+        }
+        HypernymHierarchy.Subsumption subsumption = HypernymHierarchy.getInstance(usSynset.getPOS())
+                .getSubsumption(usSynset, acSynset);
+        // synsets only sharing the virtual root are not related
+        return subsumption != null && subsumption.getSubsumerDepth() > 0
+                && subsumption.getPathLength() < calcParams.getWordnetDistanceThreshold();
+    }
+
+    /**
+     * Decides whether two synsets match by the measure of the params. The
+     * similarity measures are answered by the preprocessed hypernym hierarchy
+     * instead of a search for relationships.
+     * 
+     * @param usSynset   the synset of a user story word
+     * @param acSynset   the synset of an acceptance criteria word
+     * @param calcParams the params selecting the measure and its threshold
+     * @return {@code true} if the synsets match
+     */
+    public boolean matches(Synset usSynset, Synset acSynset, WordnetCalculationParams calcParams)
+            throws JWNLException, CloneNotSupportedException {
+        WordnetMeasure measure = calcParams.getWordnetMeasure();
+        if (measure == WordnetMeasure.DISTANCE) {
+            int depth = distanceCache.getDepth(usSynset, acSynset);
+            return depth != HypernymDistanceCache.NO_RELATIONSHIP && depth < calcParams.getWordnetDistanceThreshold();
+        }
+        return measure.getSimilarity(usSynset, acSynset) >= calcParams.getWordnetSimilarityThreshold();
     }
 
 }
@@ -0,0 +1,28 @@
+package de.uhd.ifi.se.accompleteness.calculation.wordnet;
+
+import net.sf.extjwnl.JWNLException;
+import net.sf.extjwnl.dictionary.Dictionary;
+
+/**
+ * The WordNet dictionary shared by all calculations. Creating the dictionary
+ * takes several hundred milliseconds, so it is created only once.
+ */
+public class WordnetDictionary {
+
+    private static Dictionary instance;
+
+    private WordnetDictionary() {
+    }
+
+    /**
+     * Returns the shared dictionary, creating it on first use.
+     * 
+     * @return the shared dictionary
+     */
+    public static synchronized Dictionary getInstance() throws JWNLException {
+        if (instance == null) {
+            instance = Dictionary.getDefaultResourceInstance();
+        }
+        return instance;
+    }
+}
@@ -0,0 +1,66 @@
+package de.uhd.ifi.se.accompleteness.calculation.wordnet;
+
+import net.sf.extjwnl.JWNLException;
+import net.sf.extjwnl.data.Synset;
+
+/**
+ * The measures deciding whether the synsets of a user story topic and of an
+ * acceptance criteria topic match.
+ */
+public enum WordnetMeasure {
+
+    /**
+     * The synsets match if the shallowest hypernym relationship between them
+     * is shallower than the {@code wordnetDistanceThreshold}.
+     */
+    DISTANCE(Double.NaN),
+
+    /**
+     * The synsets match if their Wu-Palmer similarity is at least the
+     * {@code wordnetSimilarityThreshold}.
+     */
+    WUPALMER(.85),
+
+    /**
+     * The synsets match if their Leacock-Chodorow similarity is at least the
+     * {@code wordnetSimilarityThreshold}.
+     */
+    LEACOCKCHODOROW(2.5);
+
+    private final double defaultThreshold;
+
+    WordnetMeasure(double defaultThreshold) {
+        this.defaultThreshold = defaultThreshold;
+    }
+
+    /**
+     * Returns the similarity threshold used if the params do not contain one.
+     *
+     * @return the default threshold, {@link Double#NaN} for the distance
+     */
+    public double getDefaultThreshold() {
+        return defaultThreshold;
+    }
+
+    /**
+     * Returns the similarity of two synsets of the same part of speech.
+     *
+     * @param first  a synset
+     * @param second another synset
+     * @return the similarity, 0 if the synsets have different parts of speech
+     */
+    public double getSimilarity(Synset first, Synset second) throws JWNLException {
+        if (first.getPOS() != second.getPOS()) {
+            return 0;
+        }
+        HypernymHierarchy hierarchy = HypernymHierarchy.getInstance(first.getPOS());
+        switch (this) {
+        case WUPALMER:
+            return hierarchy.getWuPalmerSimilarity(first, second);
+        case LEACOCKCHODOROW:
+            return hierarchy.getLeacockChodorowSimilarity(first, second);
+        default:
+            throw new UnsupportedOperationException("The distance is not a similarity");
+        }
+    }
+}
@@ -0,0 +1,261 @@
+package de.uhd.ifi.se.accompleteness.cli;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonSyntaxException;
+
+import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.CalculatorRegistry;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.AcceptanceCriteriaPool;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCalculationParams;
+import de.uhd.ifi.se.accompleteness.extractor.ACExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.ExtractionParams;
+import de.uhd.ifi.se.accompleteness.extractor.USExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEExtractionParams;
+import de.uhd.ifi.se.accompleteness.model.CompletenessCalcResult;
+import de.uhd.ifi.se.accompleteness.model.ResponseFields;
+import de.uhd.ifi.se.accompleteness.model.UserStory;
+import de.uhd.ifi.se.accompleteness.model.UserStoryDocument;
+import de.uhd.ifi.se.accompleteness.model.UvlResponse;
+
+/**
+ * Calculates the completeness of a dataset file without starting the server.
+ * The dataset is streamed and its user stories are processed in parallel. The
+ * result of every user story is appended to the output file as a line of
+ * NDJSON as soon as it is calculated, in the same form as in the
+ * {@code completeness_results} of the /run endpoint, so the order of the lines
+ * may differ from the dataset.
+ * 
+ * The output file is the checkpoint: with {@code --resume}, the user stories
+ * already contained in the output file are skipped and a partially written
+ * last line is removed.
+ * 
+ * Usage: {@code BatchCli --input <dataset.jsonl|dataset.csv> --output
+ * <results.ndjson> [--params <params.json>] [--threads <n>] [--resume]}
+ */
+public class BatchCli {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BatchCli.class);
+
+    private final ExtractionParams extractionParams;
+    private final CalculationParams calcParams;
+    private final ResponseFields fields;
+    private final USExtractor usExtractor;
+    private final ACExtractor acExtractor;
+    private final AcceptanceCriteriaPool acceptanceCriteriaPool;
+
+    private final AtomicInteger completed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    /**
+     * Creates a batch run.
+     * 
+     * @param paramsJson the params as in requests to the /run endpoint
+     */
+    public BatchCli(JsonObject paramsJson) throws Exception {
+        extractionParams = new OpenIEExtractionParams();
+        extractionParams.setExtractionParamsFromJson(paramsJson);
+        usExtractor = extractionParams.getExtractorType().createUSExtractor();
+        acExtractor = extractionParams.getExtractorType().createACExtractor();
+        calcParams = new WordnetCalculationParams();
+        calcParams.setCalculationParamsFromJson(paramsJson);
+        // the shared acceptance criteria are extracted once for all user stories
+        acceptanceCriteriaPool = AcceptanceCriteriaPool.fromParams(calcParams, acExtractor);
+        fields = ResponseFields.fromJson(paramsJson);
+    }
+
+    /**
+     * Calculates the completeness of all user stories of a dataset file.
+     * 
+     * @param input   the dataset file
+     * @param output  the NDJSON file the results are appended to
+     * @param threads the number of user stories processed in parallel
+     * @param resume  whether the user stories already contained in the output
+     *                file are skipped
+     * @return the number of user stories that could not be processed
+     */
+    public int run(Path input, Path output, int threads, boolean resume) throws IOException, InterruptedException {
+        Set<String> completedIds = resume ? readCheckpoint(output) : new HashSet<>();
+        int skipped = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        // limits the documents read ahead of the processing
+        Semaphore readAhead = new Semaphore(threads * 4);
+        try (DatasetReader reader = new DatasetReader(input, DatasetReader.Format.of(input));
+                Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                        resume ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING,
+                        StandardOpenOption.WRITE)) {
+            JsonObject document;
+            while ((document = reader.next()) != null) {
+                if (completedIds.contains(document.get("id").getAsString())) {
+                    skipped++;
+                    continue;
+                }
+                readAhead.acquire();
+                JsonObject nextDocument = document;
+                executor.execute(() -> {
+                    try {
+                        process(nextDocument, writer);
+                    } finally {
+                        readAhead.release();
+                    }
+                });
+            }
+            executor.shutdown();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        } finally {
+            executor.shutdownNow();
+        }
+        LOG.info("Processed %d user stories, skipped %d, failed %d".formatted(completed.get(), skipped,
+                failed.get()));
+        return failed.get();
+    }
+
+    /**
+     * Calculates the completeness of a single user story and appends it to the
+     * output. User stories that fail are logged and not written, so that they
+     * are processed again when the run is resumed.
+     */
+    private void process(JsonObject document, Writer writer) {
+        String userStoryId = document.get("id").getAsString();
+        try {
+            UserStoryDocument userStoryDocument = UserStoryDocument.parse(document.get("text").getAsString());
+            String acceptanceText = userStoryDocument.getAcceptanceCriteriaText();
+            UserStory userStory = new UserStory(userStoryDocument.getUserStoryText(), userStoryId, acceptanceText);
+            CompletenessCalcResult result = CalculatorRegistry.calculate(
+                    usExtractor.extract(userStory, extractionParams), acExtractor.extract(acceptanceText), calcParams,
+                    userStory, acceptanceCriteriaPool);
+            String line = UvlResponse.getJsonFromResult(result, fields).toString();
+            synchronized (writer) {
+                writer.write(line);
+                writer.write('\n');
+                writer.flush();
+            }
+            completed.incrementAndGet();
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            LOG.error("Could not process user story %s: ".formatted(userStoryId), e);
+        }
+    }
+
+    /**
+     * Reads the IDs of the user stories contained in an output file and
+     * removes a partially written last line. If the last result is complete
+     * but its line break is missing, the line break is appended, so that the
+     * results of the resumed run start on a new line.
+     * 
+     * @param output the NDJSON output file of an earlier run
+     * @return the IDs of the completed user stories
+     */
+    public static Set<String> readCheckpoint(Path output) throws IOException {
+        Set<String> completedIds = new HashSet<>();
+        if (!Files.exists(output)) {
+            return completedIds;
+        }
+        Gson gson = new Gson();
+        long validBytes = 0;
+        try (BufferedReader reader = Files.newBufferedReader(output, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                try {
+                    JsonObject result = gson.fromJson(line, JsonObject.class);
+                    completedIds.add(result.get("id").getAsString());
+                } catch (JsonSyntaxException | NullPointerException e) {
+                    break;
+                }
+                validBytes += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+        }
+        try (FileChannel channel = FileChannel.open(output, StandardOpenOption.WRITE)) {
+            if (validBytes > channel.size()) {
+                // only the last line can lack its line break
+                channel.position(channel.size());
+                channel.write(ByteBuffer.wrap(new byte[] { '\n' }));
+            } else {
+                channel.truncate(validBytes);
+            }
+        }
+        return completedIds;
+    }
+
+    /**
+     * The params used if no params file is given, which are the same as in the
+     * examples of the /run endpoint.
+     */
+    static JsonObject getDefaultParams() {
+        JsonObject params = new JsonObject();
+        params.addProperty("debug", false);
+        params.addProperty("filterUSTopicsExcludeList", true);
+        params.addProperty("filterUSTopicsSimilarity", false);
+        params.addProperty("filterUSTopicsSimilarityThreshold", .5);
+        params.addProperty("filterUSTopicsCompositions", false);
+        params.addProperty("filterUSTopicsCompositionsMinLength", 3);
+        params.addProperty("wordnetDistanceThreshold", 3);
+        return params;
+    }
+
+    /**
+     * The main method of the batch mode.
+     * 
+     * @param args the command line arguments as described in the class
+     *             documentation
+     */
+    public static void main(String[] args) throws Exception {
+        Path input = null;
+        Path output = null;
+        JsonObject params = getDefaultParams();
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean resume = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--input":
+                input = Path.of(args[++i]);
+                break;
+            case "--output":
+                output = Path.of(args[++i]);
+                break;
+            case "--params":
+                JsonObject paramsFile = new Gson().fromJson(Files.readString(Path.of(args[++i])), JsonObject.class);
+                for (String name : paramsFile.keySet()) {
+                    params.add(name, paramsFile.get(name));
+                }
+                break;
+            case "--threads":
+                threads = Integer.parseInt(args[++i]);
+                break;
+            case "--resume":
+                resume = true;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        if (input == null || output == null) {
+            System.err.println("Usage: BatchCli --input <dataset.jsonl|dataset.csv> --output <results.ndjson> "
+                    + "[--params <params.json>] [--threads <n>] [--resume]");
+            System.exit(2);
+        }
+        int failures = new BatchCli(params).run(input, output, threads, resume);
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
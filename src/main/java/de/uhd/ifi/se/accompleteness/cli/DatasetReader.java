@@ -0,0 +1,159 @@
+package de.uhd.ifi.se.accompleteness.cli;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+/**
+ * Streams the documents of a dataset file, so that datasets larger than the
+ * heap can be processed. Every document is a JSON object with an {@code id}
+ * and a {@code text} as in the requests to the /run endpoint.
+ * 
+ * Two formats are supported: JSONL files contain one document per line. CSV
+ * files have a header row; if it contains the columns {@code id} and
+ * {@code text}, these are used, otherwise the first column is the user story,
+ * the second column the acceptance criteria and the row number the ID, as in
+ * the COMET dataset.
+ */
+public class DatasetReader implements Closeable {
+
+    /**
+     * The formats of dataset files.
+     */
+    public enum Format {
+        JSONL, CSV;
+
+        /**
+         * Determines the format of a file by its extension.
+         * 
+         * @param file the dataset file
+         * @return {@link #CSV} for files ending with {@code .csv}, otherwise
+         *         {@link #JSONL}
+         */
+        public static Format of(Path file) {
+            return file.getFileName().toString().toLowerCase().endsWith(".csv") ? CSV : JSONL;
+        }
+    }
+
+    private final BufferedReader reader;
+    private final Format format;
+    private final Gson gson = new Gson();
+
+    private int idColumn = -1;
+    private int textColumn = -1;
+    private int row;
+
+    /**
+     * Opens a dataset file.
+     * 
+     * @param file   the dataset file
+     * @param format the format of the file
+     */
+    public DatasetReader(Path file, Format format) throws IOException {
+        this.reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        this.format = format;
+        if (format == Format.CSV) {
+            List<String> header = readRecord();
+            if (header != null) {
+                for (int i = 0; i < header.size(); i++) {
+                    String column = header.get(i).trim().toLowerCase();
+                    if (column.equals("id")) {
+                        idColumn = i;
+                    } else if (column.equals("text")) {
+                        textColumn = i;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the next document.
+     * 
+     * @return the document or {@code null} at the end of the file
+     */
+    public JsonObject next() throws IOException {
+        if (format == Format.JSONL) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    return gson.fromJson(line, JsonObject.class);
+                }
+            }
+            return null;
+        }
+        List<String> record = readRecord();
+        if (record == null) {
+            return null;
+        }
+        JsonObject document = new JsonObject();
+        if (idColumn >= 0 && textColumn >= 0) {
+            document.addProperty("id", record.get(idColumn));
+            document.addProperty("text", record.get(textColumn));
+        } else {
+            document.addProperty("id", String.valueOf(row));
+            document.addProperty("text", "###" + record.get(0) + "###+++" + (record.size() > 1 ? record.get(1) : "") + "+++");
+        }
+        row++;
+        return document;
+    }
+
+    /**
+     * Reads a CSV record, which may span several lines if a field is quoted.
+     * 
+     * @return the fields of the record or {@code null} at the end of the file
+     */
+    private List<String> readRecord() throws IOException {
+        int c = reader.read();
+        while (c == '\r' || c == '\n') {
+            c = reader.read();
+        }
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
@@ -0,0 +1,175 @@
+package de.uhd.ifi.se.accompleteness.cli;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.calculation.Agreement;
+import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.extractor.ACExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.ExtractorType;
+import de.uhd.ifi.se.accompleteness.extractor.USExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.chunk.PhraseChunker;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEExtractionParams;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEPipeline;
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.Topic;
+import de.uhd.ifi.se.accompleteness.model.UserStory;
+import de.uhd.ifi.se.accompleteness.model.UserStoryDocument;
+
+/**
+ * Compares the speed of the chunk extractor with the OpenIE extractor and the
+ * agreement of their results on the user stories of a dataset file. Both
+ * pipelines are loaded before the measurement, and every user story is
+ * extracted by both extractors one after the other on a single thread.
+ *
+ * The report contains the mean extraction time per user story of both
+ * extractors, the mean Jaccard similarity of their topics (user story and
+ * acceptance criteria topics by text), and the mean absolute error and the
+ * Pearson correlation of the completeness calculated from their topics.
+ *
+ * Usage: {@code ExtractorBenchmark --input <dataset.jsonl|dataset.csv>
+ * [--params <params.json>]}
+ */
+public class ExtractorBenchmark {
+
+    private final OpenIEExtractionParams extractionParams;
+    private final CalculationParams calcParams;
+
+    private final List<Double> openIECompleteness = new ArrayList<>();
+    private final List<Double> chunkCompleteness = new ArrayList<>();
+    private double jaccardSum;
+    private long openIENanos;
+    private long chunkNanos;
+
+    /**
+     * Creates a benchmark.
+     *
+     * @param paramsJson the params as in requests to the /run endpoint
+     */
+    public ExtractorBenchmark(JsonObject paramsJson) {
+        extractionParams = new OpenIEExtractionParams();
+        extractionParams.setExtractionParamsFromJson(paramsJson);
+        calcParams = new WordnetCalculationParams();
+        calcParams.setCalculationParamsFromJson(paramsJson);
+    }
+
+    /**
+     * Extracts all user stories of a dataset file with both extractors.
+     *
+     * @param input the dataset file
+     * @return the report of the benchmark
+     */
+    public JsonObject run(Path input) throws Exception {
+        OpenIEPipeline.getInstance();
+        PhraseChunker.getPipeline();
+
+        try (DatasetReader reader = new DatasetReader(input, DatasetReader.Format.of(input))) {
+            JsonObject document;
+            while ((document = reader.next()) != null) {
+                UserStoryDocument userStoryDocument = UserStoryDocument.parse(document.get("text").getAsString());
+                String acceptanceText = userStoryDocument.getAcceptanceCriteriaText();
+                UserStory userStory = new UserStory(userStoryDocument.getUserStoryText(),
+                        document.get("id").getAsString(), acceptanceText);
+
+                long start = System.nanoTime();
+                ExtractionResult[] openIE = extract(ExtractorType.OPENIE, userStory, acceptanceText);
+                openIENanos += System.nanoTime() - start;
+
+                start = System.nanoTime();
+                ExtractionResult[] chunk = extract(ExtractorType.CHUNK, userStory, acceptanceText);
+                chunkNanos += System.nanoTime() - start;
+
+                jaccardSum += jaccard(getTopicTexts(openIE), getTopicTexts(chunk));
+                WordnetCompletenessCalculator calculator = new WordnetCompletenessCalculator();
+                openIECompleteness.add(
+                        calculator.calculate_completeness(openIE[0], openIE[1], calcParams, userStory).getCompleteness());
+                chunkCompleteness.add(
+                        calculator.calculate_completeness(chunk[0], chunk[1], calcParams, userStory).getCompleteness());
+            }
+        }
+
+        int documents = openIECompleteness.size();
+        JsonObject report = new JsonObject();
+        report.addProperty("documents", documents);
+        report.addProperty("openie_millis_per_document", documents == 0 ? 0 : openIENanos / 1e6 / documents);
+        report.addProperty("chunk_millis_per_document", documents == 0 ? 0 : chunkNanos / 1e6 / documents);
+        report.addProperty("speedup", chunkNanos == 0 ? 0 : (double) openIENanos / chunkNanos);
+        report.addProperty("mean_topic_jaccard", documents == 0 ? 0 : jaccardSum / documents);
+        double[] openIE = openIECompleteness.stream().mapToDouble(Double::doubleValue).toArray();
+        double[] chunk = chunkCompleteness.stream().mapToDouble(Double::doubleValue).toArray();
+        report.addProperty("completeness_mean_absolute_error", Agreement.meanAbsoluteError(openIE, chunk));
+        report.addProperty("completeness_pearson_correlation", Agreement.pearsonCorrelation(openIE, chunk));
+        return report;
+    }
+
+    private ExtractionResult[] extract(ExtractorType type, UserStory userStory, String acceptanceText) {
+        USExtractor usExtractor = type.createUSExtractor();
+        ACExtractor acExtractor = type.createACExtractor();
+        return new ExtractionResult[] { usExtractor.extract(userStory, extractionParams),
+                acExtractor.extract(acceptanceText) };
+    }
+
+    private static Set<String> getTopicTexts(ExtractionResult[] results) {
+        Set<String> texts = new HashSet<>();
+        for (ExtractionResult result : results) {
+            for (Topic topic : result.getTopics()) {
+                texts.add(topic.toString());
+            }
+        }
+        return texts;
+    }
+
+    private static double jaccard(Set<String> first, Set<String> second) {
+        if (first.isEmpty() && second.isEmpty()) {
+            return 1;
+        }
+        Set<String> union = new HashSet<>(first);
+        union.addAll(second);
+        Set<String> intersection = new HashSet<>(first);
+        intersection.retainAll(second);
+        return (double) intersection.size() / union.size();
+    }
+
+    /**
+     * The main method of the benchmark.
+     *
+     * @param args the command line arguments as described in the class
+     *             documentation
+     */
+    public static void main(String[] args) throws Exception {
+        Path input = null;
+        JsonObject params = BatchCli.getDefaultParams();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--input":
+                input = Path.of(args[++i]);
+                break;
+            case "--params":
+                JsonObject paramsFile = new Gson().fromJson(Files.readString(Path.of(args[++i])), JsonObject.class);
+                for (String name : paramsFile.keySet()) {
+                    params.add(name, paramsFile.get(name));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        if (input == null) {
+            System.err.println("Usage: ExtractorBenchmark --input <dataset.jsonl|dataset.csv> [--params <params.json>]");
+            System.exit(2);
+        }
+        JsonObject report = new ExtractorBenchmark(params).run(input);
+        System.out.println(new GsonBuilder().setPrettyPrinting().create().toJson(report));
+        System.exit(0);
+    }
+}
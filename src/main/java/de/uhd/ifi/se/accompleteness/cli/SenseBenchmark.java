@@ -0,0 +1,190 @@
+package de.uhd.ifi.se.accompleteness.cli;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.HypernymHierarchy;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEExtractionParams;
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.UserStory;
+import de.uhd.ifi.se.accompleteness.model.UserStoryDocument;
+import net.sf.extjwnl.data.POS;
+
+/**
+ * Compares the cost of the completeness calculation comparing several senses
+ * of every word with the calculation comparing only the first senses, on the
+ * user stories of a dataset file. The user stories are extracted once before
+ * the measurement, and the calculations of all user stories are repeated for
+ * several passes. The time of a user story is its fastest pass, so that both
+ * modes are measured with warm caches and without pauses of the garbage
+ * collector.
+ *
+ * The report contains the mean calculation time per user story of both modes,
+ * the ratio of the total times and the maximum ratio of a single user story,
+ * the mean completeness of both modes and the number of user stories whose
+ * completeness increased.
+ *
+ * Usage: {@code SenseBenchmark --input <dataset.jsonl|dataset.csv>
+ * [--params <params.json>] [--senses <k>] [--passes <n>]}
+ */
+public class SenseBenchmark {
+
+    private final OpenIEExtractionParams extractionParams;
+    private final WordnetCalculationParams singleSenseParams;
+    private final WordnetCalculationParams multiSenseParams;
+    private final int passes;
+
+    private final List<UserStory> userStories = new ArrayList<>();
+    private final List<ExtractionResult[]> extractionResults = new ArrayList<>();
+
+    /**
+     * Creates a benchmark.
+     *
+     * @param paramsJson the params as in requests to the /run endpoint
+     * @param senses     the number of senses compared by the multi-sense mode
+     * @param passes     the number of passes over the user stories
+     */
+    public SenseBenchmark(JsonObject paramsJson, int senses, int passes) {
+        extractionParams = new OpenIEExtractionParams();
+        extractionParams.setExtractionParamsFromJson(paramsJson);
+        JsonObject singleSenseJson = paramsJson.deepCopy();
+        singleSenseJson.addProperty("wordnetSenses", 1);
+        singleSenseParams = new WordnetCalculationParams();
+        singleSenseParams.setCalculationParamsFromJson(singleSenseJson);
+        JsonObject multiSenseJson = paramsJson.deepCopy();
+        multiSenseJson.addProperty("wordnetSenses", senses);
+        multiSenseParams = new WordnetCalculationParams();
+        multiSenseParams.setCalculationParamsFromJson(multiSenseJson);
+        this.passes = passes;
+    }
+
+    /**
+     * Extracts all user stories of a dataset file and calculates their
+     * completeness in both modes.
+     *
+     * @param input the dataset file
+     * @return the report of the benchmark
+     */
+    public JsonObject run(Path input) throws Exception {
+        HypernymHierarchy.getInstance(POS.NOUN);
+        HypernymHierarchy.getInstance(POS.VERB);
+        try (DatasetReader reader = new DatasetReader(input, DatasetReader.Format.of(input))) {
+            JsonObject document;
+            while ((document = reader.next()) != null) {
+                UserStoryDocument userStoryDocument = UserStoryDocument.parse(document.get("text").getAsString());
+                String acceptanceText = userStoryDocument.getAcceptanceCriteriaText();
+                UserStory userStory = new UserStory(userStoryDocument.getUserStoryText(),
+                        document.get("id").getAsString(), acceptanceText);
+                userStories.add(userStory);
+                extractionResults.add(new ExtractionResult[] {
+                        extractionParams.getExtractorType().createUSExtractor().extract(userStory, extractionParams),
+                        extractionParams.getExtractorType().createACExtractor().extract(acceptanceText) });
+            }
+        }
+
+        int documents = userStories.size();
+        long[] singleSenseNanos = new long[documents];
+        long[] multiSenseNanos = new long[documents];
+        Arrays.fill(singleSenseNanos, Long.MAX_VALUE);
+        Arrays.fill(multiSenseNanos, Long.MAX_VALUE);
+        double[] singleSenseCompleteness = new double[documents];
+        double[] multiSenseCompleteness = new double[documents];
+        WordnetCompletenessCalculator calculator = new WordnetCompletenessCalculator();
+        for (int pass = 0; pass < passes; pass++) {
+            for (int i = 0; i < documents; i++) {
+                ExtractionResult[] results = extractionResults.get(i);
+                long start = System.nanoTime();
+                singleSenseCompleteness[i] = calculator
+                        .calculate_completeness(results[0], results[1], singleSenseParams, userStories.get(i))
+                        .getCompleteness();
+                singleSenseNanos[i] = Math.min(singleSenseNanos[i], System.nanoTime() - start);
+
+                start = System.nanoTime();
+                multiSenseCompleteness[i] = calculator
+                        .calculate_completeness(results[0], results[1], multiSenseParams, userStories.get(i))
+                        .getCompleteness();
+                multiSenseNanos[i] = Math.min(multiSenseNanos[i], System.nanoTime() - start);
+            }
+        }
+
+        long singleSenseTotal = 0;
+        long multiSenseTotal = 0;
+        double maxRatio = 0;
+        double singleSenseSum = 0;
+        double multiSenseSum = 0;
+        int increased = 0;
+        for (int i = 0; i < documents; i++) {
+            singleSenseTotal += singleSenseNanos[i];
+            multiSenseTotal += multiSenseNanos[i];
+            maxRatio = Math.max(maxRatio, (double) multiSenseNanos[i] / Math.max(1, singleSenseNanos[i]));
+            singleSenseSum += singleSenseCompleteness[i];
+            multiSenseSum += multiSenseCompleteness[i];
+            if (multiSenseCompleteness[i] > singleSenseCompleteness[i]) {
+                increased++;
+            }
+        }
+        JsonObject report = new JsonObject();
+        report.addProperty("documents", documents);
+        report.addProperty("senses", multiSenseParams.getWordnetSenses());
+        report.addProperty("comparison_budget", multiSenseParams.getWordnetComparisonBudget());
+        report.addProperty("single_sense_millis_per_document", documents == 0 ? 0 : singleSenseTotal / 1e6 / documents);
+        report.addProperty("multi_sense_millis_per_document", documents == 0 ? 0 : multiSenseTotal / 1e6 / documents);
+        report.addProperty("cost_ratio", singleSenseTotal == 0 ? 0 : (double) multiSenseTotal / singleSenseTotal);
+        report.addProperty("max_document_cost_ratio", maxRatio);
+        report.addProperty("single_sense_mean_completeness", documents == 0 ? 0 : singleSenseSum / documents);
+        report.addProperty("multi_sense_mean_completeness", documents == 0 ? 0 : multiSenseSum / documents);
+        report.addProperty("documents_with_increased_completeness", increased);
+        return report;
+    }
+
+    /**
+     * The main method of the benchmark.
+     *
+     * @param args the command line arguments as described in the class
+     *             documentation
+     */
+    public static void main(String[] args) throws Exception {
+        Path input = null;
+        JsonObject params = BatchCli.getDefaultParams();
+        int senses = 3;
+        int passes = 5;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--input":
+                input = Path.of(args[++i]);
+                break;
+            case "--params":
+                JsonObject paramsFile = new Gson().fromJson(Files.readString(Path.of(args[++i])), JsonObject.class);
+                for (String name : paramsFile.keySet()) {
+                    params.add(name, paramsFile.get(name));
+                }
+                break;
+            case "--senses":
+                senses = Integer.parseInt(args[++i]);
+                break;
+            case "--passes":
+                passes = Integer.parseInt(args[++i]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        if (input == null) {
+            System.err.println("Usage: SenseBenchmark --input <dataset.jsonl|dataset.csv> [--params <params.json>]"
+                    + " [--senses <k>] [--passes <n>]");
+            System.exit(2);
+        }
+        JsonObject report = new SenseBenchmark(params, senses, passes).run(input);
+        System.out.println(new GsonBuilder().setPrettyPrinting().create().toJson(report));
+        System.exit(0);
+    }
+}
@@ -0,0 +1,49 @@
+package de.uhd.ifi.se.accompleteness.cli;
+
+import java.nio.file.Path;
+
+import de.uhd.ifi.se.accompleteness.calculation.vectors.WordVectors;
+
+/**
+ * Converts a text file of word vectors, e.g., of GloVe, to the binary file
+ * that is memory-mapped by the {@code vectors} calculator. The service only
+ * maps binary files and never converts a text file itself.
+ *
+ * Usage: {@code VectorConverter --input <vectors.txt> [--output <vectors.acvec>]}
+ */
+public class VectorConverter {
+
+    /**
+     * The main method of the converter.
+     *
+     * @param args the command line arguments as described in the class
+     *             documentation
+     */
+    public static void main(String[] args) throws Exception {
+        Path input = null;
+        Path output = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+            case "--input":
+                input = Path.of(args[++i]);
+                break;
+            case "--output":
+                output = Path.of(args[++i]);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown argument " + args[i]);
+            }
+        }
+        if (input == null) {
+            System.err.println("Usage: VectorConverter --input <vectors.txt> [--output <vectors.acvec>]");
+            System.exit(2);
+        }
+        if (output == null) {
+            output = input.resolveSibling(input.getFileName() + WordVectors.BINARY_EXTENSION);
+        }
+        WordVectors.convert(input, output);
+        WordVectors vectors = WordVectors.open(output);
+        System.out.println("Converted %d word vectors of %d dimensions to %s".formatted(vectors.size(),
+                vectors.getDimensions(), output));
+    }
+}
@@ -0,0 +1,200 @@
+package de.uhd.ifi.se.accompleteness.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler.Priority;
+
+/**
+ * Gathers items submitted by concurrent callers into batches and processes
+ * every batch at once. A batch is processed as soon as it is full or when the
+ * linger time has passed since its first item was submitted, whichever occurs
+ * first. Batches are filled with interactive items before bulk items, so the
+ * items of an interactive request do not wait behind those of a bulk request.
+ * To prevent bulk items from starving, a bulk item that has waited longer than
+ * a maximum waiting time is taken before interactive items.
+ * 
+ * @param <I> the type of the items
+ * @param <O> the type of the results
+ */
+public class MicroBatcher<I, O> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MicroBatcher.class);
+
+    private final Deque<Pending> interactiveQueue = new ArrayDeque<>();
+    private final Deque<Pending> bulkQueue = new ArrayDeque<>();
+
+    private final Function<List<I>, List<O>> processor;
+    private final int maxBatchSize;
+    private final long lingerMillis;
+    private final long maxBulkWaitMillis;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong items = new AtomicLong();
+
+    private class Pending {
+        final I item;
+        final CompletableFuture<O> result = new CompletableFuture<>();
+        final long submittedAt = System.currentTimeMillis();
+
+        Pending(I item) {
+            this.item = item;
+        }
+    }
+
+    /**
+     * Creates a micro-batcher and starts its dispatcher thread.
+     * 
+     * @param name              the name of the dispatcher thread
+     * @param processor         the function processing a batch, which returns
+     *                          the results in the order of the items
+     * @param maxBatchSize      the maximum number of items in a batch
+     * @param lingerMillis      the maximum time to wait for further items after
+     *                          the first item of a batch was submitted
+     * @param maxBulkWaitMillis the maximum time a bulk item waits before it is
+     *                          taken regardless of interactive items
+     */
+    public MicroBatcher(String name, Function<List<I>, List<O>> processor, int maxBatchSize, long lingerMillis,
+            long maxBulkWaitMillis) {
+        this.processor = processor;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.lingerMillis = lingerMillis;
+        this.maxBulkWaitMillis = maxBulkWaitMillis;
+        Thread dispatcher = new Thread(this::dispatch, name);
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+    }
+
+    /**
+     * Submits an item to be processed in one of the next batches.
+     * 
+     * @param priority the priority class of the item
+     * @param item     the item
+     * @return the future result of the item
+     */
+    public CompletableFuture<O> submit(Priority priority, I item) {
+        Pending pending = new Pending(item);
+        synchronized (this) {
+            (priority == Priority.INTERACTIVE ? interactiveQueue : bulkQueue).add(pending);
+            notify();
+        }
+        return pending.result;
+    }
+
+    private void dispatch() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Pending> batch = new ArrayList<>();
+            try {
+                synchronized (this) {
+                    while (interactiveQueue.isEmpty() && bulkQueue.isEmpty()) {
+                        wait();
+                    }
+                    batch.add(poll());
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                    while (batch.size() < maxBatchSize) {
+                        Pending next = poll();
+                        if (next != null) {
+                            batch.add(next);
+                            continue;
+                        }
+                        long remaining = deadline - System.nanoTime();
+                        if (remaining <= 0) {
+                            break;
+                        }
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            process(batch);
+        }
+    }
+
+    /**
+     * Takes the next item for the batch, or {@code null} if no item is waiting.
+     */
+    private Pending poll() {
+        if (!bulkQueue.isEmpty()
+                && System.currentTimeMillis() - bulkQueue.peek().submittedAt > maxBulkWaitMillis) {
+            return bulkQueue.poll();
+        }
+        return interactiveQueue.isEmpty() ? bulkQueue.poll() : interactiveQueue.poll();
+    }
+
+    private void process(List<Pending> batch) {
+        // items whose submitters gave up waiting are not processed
+        batch.removeIf(pending -> pending.result.isDone());
+        if (batch.isEmpty()) {
+            return;
+        }
+        batches.incrementAndGet();
+        items.addAndGet(batch.size());
+        try {
+            List<I> batchItems = new ArrayList<>(batch.size());
+            for (Pending pending : batch) {
+                batchItems.add(pending.item);
+            }
+            List<O> results = processor.apply(batchItems);
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(results.get(i));
+            }
+        } catch (RuntimeException | Error e) {
+            LOG.error("Error while processing a batch of %d items: ".formatted(batch.size()), e);
+            for (Pending pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public long getLingerMillis() {
+        return lingerMillis;
+    }
+
+    public long getMaxBulkWaitMillis() {
+        return maxBulkWaitMillis;
+    }
+
+    /**
+     * Returns the number of batches processed so far.
+     * 
+     * @return the number of batches
+     */
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /**
+     * Returns the average number of items per batch processed so far.
+     * 
+     * @return the average batch size
+     */
+    public double getAverageBatchSize() {
+        long batchCount = batches.get();
+        return batchCount == 0 ? 0 : (double) items.get() / batchCount;
+    }
+
+    /**
+     * Returns the number of items of a priority class waiting for the next
+     * batch.
+     * 
+     * @param priority the priority class
+     * @return the number of waiting items
+     */
+    public synchronized int getQueueSize(Priority priority) {
+        return priority == Priority.INTERACTIVE ? interactiveQueue.size() : bulkQueue.size();
+    }
+}
@@ -0,0 +1,239 @@
+package de.uhd.ifi.se.accompleteness.concurrent;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Runs tasks of two priority classes on a fixed number of worker threads.
+ * Interactive tasks are run before bulk tasks, so bulk work should be split
+ * into small tasks (e.g. one task per document) to let interactive tasks pass
+ * in between. To prevent bulk tasks from starving, a bulk task is run after a
+ * number of consecutive interactive tasks, or as soon as it has waited longer
+ * than a maximum waiting time. A task with a time budget is cancelled once it
+ * has run longer than its budget. The priority class of the running task is
+ * known to the code it calls, so that shared stages such as the annotation
+ * batches keep the order of the priority classes.
+ */
+public class PriorityScheduler {
+
+    /**
+     * The priority class of a task.
+     */
+    public enum Priority {
+        INTERACTIVE, BULK
+    }
+
+    /**
+     * The priority class of the task running on a worker thread.
+     */
+    private static final ThreadLocal<Priority> CURRENT_PRIORITY = new ThreadLocal<>();
+
+    private final Deque<Task> interactiveQueue = new ArrayDeque<>();
+    private final Deque<Task> bulkQueue = new ArrayDeque<>();
+
+    private final int maxInteractiveStreak;
+    private final long maxBulkWaitMillis;
+
+    /**
+     * The number of interactive tasks run in a row while bulk tasks were
+     * waiting.
+     */
+    private int interactiveStreak;
+
+    private int running;
+    private final AtomicLong completedInteractive = new AtomicLong();
+    private final AtomicLong completedBulk = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    /**
+     * Cancels tasks that exceed their time budget.
+     */
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "document-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static class Task {
+        final FutureTask<?> future;
+        final Priority priority;
+        final long timeoutMillis;
+        final long submittedAt = System.currentTimeMillis();
+
+        Task(FutureTask<?> future, Priority priority, long timeoutMillis) {
+            this.future = future;
+            this.priority = priority;
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+
+    /**
+     * Creates a scheduler and starts its worker threads.
+     * 
+     * @param workers              the number of worker threads
+     * @param maxInteractiveStreak the maximum number of interactive tasks run
+     *                             in a row while bulk tasks are waiting
+     * @param maxBulkWaitMillis    the maximum time a bulk task waits before it
+     *                             is run regardless of interactive tasks
+     */
+    public PriorityScheduler(int workers, int maxInteractiveStreak, long maxBulkWaitMillis) {
+        this.maxInteractiveStreak = Math.max(1, maxInteractiveStreak);
+        this.maxBulkWaitMillis = maxBulkWaitMillis;
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            Thread worker = new Thread(this::work, "document-worker-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Submits a task without a time budget.
+     * 
+     * @param <T>      the type of the result of the task
+     * @param priority the priority class of the task
+     * @param callable the task
+     * @return the future result of the task, which interrupts the task if it is
+     *         cancelled while running
+     */
+    public <T> Future<T> submit(Priority priority, Callable<T> callable) {
+        return submit(priority, callable, 0);
+    }
+
+    /**
+     * Submits a task with a time budget. The budget starts when the task
+     * starts running, so the time waiting in the queue is not counted.
+     * 
+     * @param <T>           the type of the result of the task
+     * @param priority      the priority class of the task
+     * @param callable      the task
+     * @param timeoutMillis the maximum running time of the task after which it
+     *                      is cancelled, or 0 for no limit
+     * @return the future result of the task, which interrupts the task if it is
+     *         cancelled while running
+     */
+    public <T> Future<T> submit(Priority priority, Callable<T> callable, long timeoutMillis) {
+        FutureTask<T> future = new FutureTask<>(callable);
+        synchronized (this) {
+            (priority == Priority.INTERACTIVE ? interactiveQueue : bulkQueue)
+                    .add(new Task(future, priority, timeoutMillis));
+            notify();
+        }
+        return future;
+    }
+
+    private void work() {
+        while (true) {
+            Task task;
+            try {
+                task = next();
+            } catch (InterruptedException e) {
+                // workers are only stopped together with the service
+                continue;
+            }
+            ScheduledFuture<?> timeout = null;
+            if (task.timeoutMillis > 0) {
+                timeout = watchdog.schedule(() -> {
+                    if (task.future.cancel(true)) {
+                        timedOut.incrementAndGet();
+                    }
+                }, task.timeoutMillis, TimeUnit.MILLISECONDS);
+            }
+            CURRENT_PRIORITY.set(task.priority);
+            try {
+                task.future.run();
+            } finally {
+                CURRENT_PRIORITY.remove();
+                if (timeout != null) {
+                    timeout.cancel(false);
+                }
+                synchronized (this) {
+                    running--;
+                }
+                (task.priority == Priority.INTERACTIVE ? completedInteractive : completedBulk).incrementAndGet();
+                // a cancelled task must not leave the interrupt flag set for
+                // the next task
+                Thread.interrupted();
+            }
+        }
+    }
+
+    /**
+     * Takes the next task to run, waiting until a task is available.
+     */
+    private synchronized Task next() throws InterruptedException {
+        while (interactiveQueue.isEmpty() && bulkQueue.isEmpty()) {
+            wait();
+        }
+        running++;
+        if (bulkQueue.isEmpty()) {
+            interactiveStreak = 0;
+            return interactiveQueue.poll();
+        }
+        boolean bulkStarving = interactiveStreak >= maxInteractiveStreak
+                || System.currentTimeMillis() - bulkQueue.peek().submittedAt > maxBulkWaitMillis;
+        if (interactiveQueue.isEmpty() || bulkStarving) {
+            interactiveStreak = 0;
+            return bulkQueue.poll();
+        }
+        interactiveStreak++;
+        return interactiveQueue.poll();
+    }
+
+    /**
+     * Returns the priority class of the task running on the current thread.
+     * Threads that do not run a task of a scheduler, e.g. the threads serving
+     * requests, are interactive.
+     * 
+     * @return the priority class of the current thread
+     */
+    public static Priority getCurrentPriority() {
+        Priority priority = CURRENT_PRIORITY.get();
+        return priority == null ? Priority.INTERACTIVE : priority;
+    }
+
+    /**
+     * Returns the number of tasks waiting in a priority class.
+     * 
+     * @param priority the priority class
+     * @return the queue depth of the priority class
+     */
+    public synchronized int getQueueDepth(Priority priority) {
+        return priority == Priority.INTERACTIVE ? interactiveQueue.size() : bulkQueue.size();
+    }
+
+    /**
+     * Returns the number of tasks that are waiting or running.
+     * 
+     * @return the number of unfinished tasks
+     */
+    public synchronized int getLoad() {
+        return interactiveQueue.size() + bulkQueue.size() + running;
+    }
+
+    /**
+     * Creates a JSON object containing the queue depths and the number of
+     * running, completed and timed out tasks.
+     * 
+     * @return the scheduler metrics
+     */
+    public synchronized JsonObject getMetrics() {
+        JsonObject metrics = new JsonObject();
+        metrics.addProperty("interactive_queue_depth", interactiveQueue.size());
+        metrics.addProperty("bulk_queue_depth", bulkQueue.size());
+        metrics.addProperty("running", running);
+        metrics.addProperty("completed_interactive", completedInteractive.get());
+        metrics.addProperty("completed_bulk", completedBulk.get());
+        metrics.addProperty("timed_out", timedOut.get());
+        return metrics;
+    }
+}
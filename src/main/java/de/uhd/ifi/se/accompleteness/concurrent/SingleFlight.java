@@ -0,0 +1,108 @@
+package de.uhd.ifi.se.accompleteness.concurrent;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import de.uhd.ifi.se.accompleteness.exception.ExtractionTimeoutException;
+
+/**
+ * Deduplicates concurrent computations of the same key: while a computation
+ * for a key is in progress, further callers for that key wait for its result
+ * instead of computing it again. Results are not kept after the computation
+ * has finished.
+ * 
+ * @param <K> the type of the keys
+ * @param <V> the type of the results
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final long timeoutMillis;
+
+    /**
+     * Creates a single-flight group.
+     * 
+     * @param timeoutMillis the maximum time a caller waits for the computation
+     *                      of another caller
+     */
+    public SingleFlight(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Computes the result for a key, or waits for the computation already in
+     * progress for that key. If the computation fails, the exception is
+     * thrown to the computing caller and to every waiting caller. If the
+     * computing caller is cancelled, a waiting caller computes the result
+     * instead.
+     * 
+     * @param key         the key identifying the computation
+     * @param computation the computation
+     * @return the result of the computation
+     * @throws ExtractionTimeoutException if the result of another caller is not
+     *                                    available within the timeout
+     */
+    public V execute(K key, Supplier<V> computation) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing;
+        while ((existing = inFlight.putIfAbsent(key, future)) != null) {
+            try {
+                return await(existing);
+            } catch (CancellationException e) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw e;
+                }
+                // the computing caller was cancelled, so this caller takes
+                // over the computation
+            }
+        }
+        try {
+            V result = computation.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new CompletionException(cause);
+        } catch (TimeoutException e) {
+            throw new ExtractionTimeoutException(
+                    "The result of an identical computation was not available within " + timeoutMillis + " ms.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for an identical computation.");
+        }
+    }
+
+    /**
+     * Returns the number of computations in progress.
+     * 
+     * @return the number of keys currently computed
+     */
+    public int size() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,39 @@
+package de.uhd.ifi.se.accompleteness.concurrent;
+
+import com.google.gson.JsonObject;
+
+/**
+ * The time a request may take. The per-document budget limits the running
+ * time of a single user story, the per-request budget limits the time until
+ * the response is created. User stories exceeding a budget are abandoned and
+ * reported as timed out. A budget of 0 means no limit.
+ */
+public class TimeBudget {
+
+    private long documentTimeoutMillis;
+
+    private long requestTimeoutMillis;
+
+    public long getDocumentTimeoutMillis() {
+        return documentTimeoutMillis;
+    }
+
+    public long getRequestTimeoutMillis() {
+        return requestTimeoutMillis;
+    }
+
+    /**
+     * Reads the optional params {@code documentTimeoutMillis} and
+     * {@code requestTimeoutMillis}.
+     * 
+     * @param params the params of the request
+     */
+    public void setTimeBudgetFromJson(JsonObject params) {
+        this.documentTimeoutMillis = params.has("documentTimeoutMillis")
+                ? params.get("documentTimeoutMillis").getAsLong()
+                : 0;
+        this.requestTimeoutMillis = params.has("requestTimeoutMillis")
+                ? params.get("requestTimeoutMillis").getAsLong()
+                : 0;
+    }
+}
@@ -0,0 +1,302 @@
+package de.uhd.ifi.se.accompleteness.coordinator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.duplicates.NearDuplicateDetector;
+import de.uhd.ifi.se.accompleteness.model.ResponseFields;
+
+/**
+ * Distributes the documents of a request across worker instances of the
+ * service and merges their responses. The documents are split into shards,
+ * every shard is sent to the worker with the lowest load that has a free slot
+ * for a shard, and a failed shard is retried on another worker. The worker of
+ * a shard is selected and reserved atomically, so that concurrent shards see
+ * the load of each other.
+ */
+public class Coordinator {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Coordinator.class);
+
+    private final List<WorkerClient> workers;
+    private final int shardSize;
+    private final int maxRetries;
+    private final ExecutorService dispatcher;
+
+    /**
+     * The slots of the shards that every worker processes at the same time,
+     * which are only acquired and released while holding the lock of the
+     * coordinator.
+     */
+    private final Map<WorkerClient, Semaphore> shardSlots = new HashMap<>();
+
+    private final AtomicInteger retries = new AtomicInteger();
+
+    /**
+     * Creates a coordinator.
+     * 
+     * @param workers         the workers
+     * @param shardSize       the maximum number of documents of a shard
+     * @param maxRetries      the maximum number of retries of a failed shard
+     * @param shardsPerWorker the number of shards sent to every worker at the
+     *                        same time
+     */
+    public Coordinator(List<WorkerClient> workers, int shardSize, int maxRetries, int shardsPerWorker) {
+        this.workers = workers;
+        this.shardSize = Math.max(1, shardSize);
+        this.maxRetries = maxRetries;
+        for (WorkerClient worker : workers) {
+            shardSlots.put(worker, new Semaphore(Math.max(1, shardsPerWorker)));
+        }
+        this.dispatcher = Executors.newFixedThreadPool(Math.max(1, workers.size() * shardsPerWorker), runnable -> {
+            Thread thread = new Thread(runnable, "shard-dispatcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Calculates the completeness of documents on the workers.
+     * 
+     * @param documents the documents of the request
+     * @param params    the params of the request, which are sent to every
+     *                  worker except for the near-duplicate detection, which
+     *                  runs on the merged response to find clusters across
+     *                  shards, so the workers return the fields of the
+     *                  shingles in addition to the selected fields
+     * @return the merged response in the same form as the response of a single
+     *         instance
+     * @throws IllegalArgumentException if the params are rejected by the
+     *                                  workers, which is not retried
+     */
+    public JsonObject run(JsonArray documents, JsonObject params) throws Exception {
+        ResponseFields fields = ResponseFields.fromJson(params);
+        NearDuplicateDetector nearDuplicateDetector = new NearDuplicateDetector();
+        nearDuplicateDetector.setNearDuplicateParamsFromJson(params);
+        JsonObject workerParams = params.deepCopy();
+        workerParams.remove("nearDuplicates");
+        if (nearDuplicateDetector.isEnabled() && params.has("fields")) {
+            // the workers return the fields of the shingles in addition
+            JsonArray workerFields = new JsonArray();
+            fields.with(nearDuplicateDetector.getShingleFields()).getNames().forEach(workerFields::add);
+            workerParams.add("fields", workerFields);
+        }
+
+        List<Future<JsonObject>> shards = new ArrayList<>();
+        for (int start = 0; start < documents.size(); start += shardSize) {
+            JsonArray shard = new JsonArray();
+            for (int i = start; i < Math.min(start + shardSize, documents.size()); i++) {
+                shard.add(documents.get(i));
+            }
+            shards.add(dispatcher.submit(() -> runShard(shard, workerParams)));
+        }
+
+        List<JsonObject> responses = new ArrayList<>();
+        try {
+            for (Future<JsonObject> shard : shards) {
+                responses.add(shard.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        } finally {
+            for (Future<JsonObject> shard : shards) {
+                shard.cancel(true);
+            }
+        }
+        JsonObject response = merge(responses);
+        if (nearDuplicateDetector.isEnabled()) {
+            nearDuplicateDetector.annotate(response, fields);
+        }
+        return response;
+    }
+
+    /**
+     * Sends a shard to the least loaded worker, retrying on other workers if it
+     * fails.
+     */
+    private JsonObject runShard(JsonArray shard, JsonObject params) throws IOException, InterruptedException {
+        Set<WorkerClient> failedWorkers = new HashSet<>();
+        IOException lastException = null;
+        for (int attempt = 0; attempt <= maxRetries; attempt++) {
+            if (failedWorkers.size() == workers.size()) {
+                // every worker failed once, so they get another chance
+                failedWorkers.clear();
+            }
+            WorkerClient worker = acquireWorker(failedWorkers, shard.size());
+            try {
+                return worker.run(shard, params);
+            } catch (IOException e) {
+                lastException = e;
+                failedWorkers.add(worker);
+                retries.incrementAndGet();
+                LOG.warn("Shard of %d documents failed on worker %s (attempt %d): %s".formatted(shard.size(), worker,
+                        attempt + 1, e.getMessage()));
+            } finally {
+                releaseWorker(worker, shard.size());
+            }
+        }
+        throw new IOException("Shard of %d documents failed after %d attempts".formatted(shard.size(),
+                maxRetries + 1), lastException);
+    }
+
+    /**
+     * Selects the least loaded worker with a free slot and reserves it for the
+     * documents of a shard, waiting for a slot if all workers are busy. The
+     * load of a worker is the larger of the documents reserved by this
+     * coordinator and the documents queued on the worker.
+     */
+    private WorkerClient acquireWorker(Set<WorkerClient> excluded, int documents) throws InterruptedException {
+        // the queues are read over HTTP, so they are read before taking the lock
+        Map<WorkerClient, Integer> queuedDocuments = new HashMap<>();
+        for (WorkerClient worker : workers) {
+            if (!excluded.contains(worker)) {
+                queuedDocuments.put(worker, worker.getQueuedDocuments());
+            }
+        }
+        synchronized (this) {
+            while (true) {
+                WorkerClient leastLoaded = null;
+                int leastLoad = Integer.MAX_VALUE;
+                for (WorkerClient worker : workers) {
+                    if (excluded.contains(worker) || shardSlots.get(worker).availablePermits() == 0) {
+                        continue;
+                    }
+                    int load = Math.max(worker.getPendingDocuments(), queuedDocuments.get(worker));
+                    if (leastLoaded == null || load < leastLoad) {
+                        leastLoaded = worker;
+                        leastLoad = load;
+                    }
+                }
+                if (leastLoaded != null && shardSlots.get(leastLoaded).tryAcquire()) {
+                    leastLoaded.reserve(documents);
+                    return leastLoaded;
+                }
+                wait();
+            }
+        }
+    }
+
+    private synchronized void releaseWorker(WorkerClient worker, int documents) {
+        worker.release(documents);
+        shardSlots.get(worker).release();
+        notifyAll();
+    }
+
+    /**
+     * Merges the responses of the shards in the order of the shards. The
+     * average completeness, in total and by calculator, is calculated over the
+     * completed documents of all shards from the averages of the shards, so it
+     * does not depend on the fields of the results. Documents are only
+     * deduplicated within a shard, so the deduplicated documents of the shards
+     * are summed up.
+     */
+    static JsonObject merge(List<JsonObject> responses) {
+        JsonArray results = new JsonArray();
+        double sumCompleteness = 0;
+        int completed = 0;
+        int timedOut = 0;
+        int deduplicated = 0;
+        Map<String, Double> sumCompletenessByCalculator = new LinkedHashMap<>();
+        for (JsonObject response : responses) {
+            int shardCompleted = 0;
+            for (JsonElement result : response.get("topics").getAsJsonObject().get("completeness_results")
+                    .getAsJsonArray()) {
+                JsonObject resultObject = result.getAsJsonObject();
+                if ("timeout".equals(resultObject.get("status").getAsString())) {
+                    timedOut++;
+                } else {
+                    shardCompleted++;
+                }
+                results.add(resultObject);
+            }
+            JsonObject shardMetrics = response.get("metrics").getAsJsonObject();
+            if (shardMetrics.has("deduplicated_documents")) {
+                deduplicated += shardMetrics.get("deduplicated_documents").getAsInt();
+            }
+            JsonElement shardAverage = shardMetrics.get("avg_completeness");
+            if (shardCompleted > 0 && shardAverage != null && !shardAverage.isJsonNull()) {
+                sumCompleteness += shardAverage.getAsDouble() * shardCompleted;
+            }
+            if (shardCompleted > 0 && shardMetrics.has("avg_completeness_by_calculator")) {
+                for (Map.Entry<String, JsonElement> shardAverageOfCalculator : shardMetrics
+                        .get("avg_completeness_by_calculator").getAsJsonObject().entrySet()) {
+                    sumCompletenessByCalculator.merge(shardAverageOfCalculator.getKey(),
+                            shardAverageOfCalculator.getValue().getAsDouble() * shardCompleted, Double::sum);
+                }
+            }
+            completed += shardCompleted;
+        }
+
+        JsonObject mainObject = new JsonObject();
+        mainObject.add("doc_topic", null);
+        mainObject.add("codes", null);
+        JsonObject completenessResults = new JsonObject();
+        completenessResults.add("completeness_results", results);
+        mainObject.add("topics", completenessResults);
+        JsonObject metrics = new JsonObject();
+        metrics.addProperty("avg_completeness", completed == 0 ? null : sumCompleteness / completed);
+        metrics.addProperty("timed_out_documents", timedOut);
+        metrics.addProperty("deduplicated_documents", deduplicated);
+        metrics.addProperty("shards", responses.size());
+        if (!sumCompletenessByCalculator.isEmpty()) {
+            JsonObject avgCompletenessByCalculator = new JsonObject();
+            for (Map.Entry<String, Double> sum : sumCompletenessByCalculator.entrySet()) {
+                avgCompletenessByCalculator.addProperty(sum.getKey(), sum.getValue() / completed);
+            }
+            metrics.add("avg_completeness_by_calculator", avgCompletenessByCalculator);
+        }
+        mainObject.add("metrics", metrics);
+        return mainObject;
+    }
+
+    /**
+     * Creates a JSON object containing the status of every worker and the
+     * number of retried shards.
+     * 
+     * @return the coordinator metrics
+     */
+    public JsonObject getMetrics() throws InterruptedException {
+        JsonArray workerStatus = new JsonArray();
+        for (WorkerClient worker : workers) {
+            JsonObject status;
+            try {
+                status = worker.getStatus();
+            } catch (IOException e) {
+                status = new JsonObject();
+                status.addProperty("status", "unreachable");
+            }
+            status.addProperty("uri", worker.getBaseUri().toString());
+            workerStatus.add(status);
+        }
+        JsonObject metrics = new JsonObject();
+        metrics.add("workers", workerStatus);
+        metrics.addProperty("shard_retries", retries.get());
+        return metrics;
+    }
+
+    public List<WorkerClient> getWorkers() {
+        return workers;
+    }
+}
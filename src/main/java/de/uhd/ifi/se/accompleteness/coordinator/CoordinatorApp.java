@@ -0,0 +1,104 @@
+package de.uhd.ifi.se.accompleteness.coordinator;
+
+import static spark.Spark.get;
+import static spark.Spark.port;
+import static spark.Spark.post;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.ServiceConfig;
+
+/**
+ * Starts the server of the coordinator mode, which distributes the documents
+ * of /run requests across worker instances of the service on the same host.
+ * 
+ * @see Coordinator
+ */
+public class CoordinatorApp {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CoordinatorApp.class);
+
+    /**
+     * Starts a coordinator using running workers.
+     * 
+     * @param port       the port the coordinator is listening to
+     * @param workerUris the URIs of the workers
+     */
+    public CoordinatorApp(int port, List<URI> workerUris) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        Duration requestTimeout = Duration
+                .ofMillis(ServiceConfig.getLong("coordinator.requestTimeoutMillis", 3600000));
+        List<WorkerClient> workers = new ArrayList<>();
+        for (URI workerUri : workerUris) {
+            workers.add(new WorkerClient(workerUri, client, requestTimeout));
+        }
+        awaitWorkers(workers, ServiceConfig.getLong("coordinator.startupTimeoutMillis", 120000));
+
+        Coordinator coordinator = new Coordinator(workers, ServiceConfig.getInt("coordinator.shardSize", 10),
+                ServiceConfig.getInt("coordinator.maxRetries", 2),
+                ServiceConfig.getInt("coordinator.shardsPerWorker", 2));
+        CoordinatorRest coordinatorRest = new CoordinatorRest(coordinator);
+
+        port(port);
+        get("/hitec/classify/concepts/acceptance-criteria-completeness/status", coordinatorRest::createStatusResponse);
+        post("/hitec/classify/concepts/acceptance-criteria-completeness/run", coordinatorRest::createRunResponse);
+    }
+
+    /**
+     * Starts workers as local processes on the ports following the port of
+     * the coordinator, and a coordinator using them.
+     * 
+     * @param port    the port the coordinator is listening to
+     * @param workers the number of workers
+     * @return the coordinator
+     */
+    public static CoordinatorApp startWithWorkers(int port, int workers) throws IOException, InterruptedException {
+        List<Integer> ports = new ArrayList<>();
+        List<URI> workerUris = new ArrayList<>();
+        for (int i = 1; i <= workers; i++) {
+            ports.add(port + i);
+            workerUris.add(URI.create("http://localhost:" + (port + i)));
+        }
+        String workerJvmArgs = ServiceConfig.getString("coordinator.workerJvmArgs", "");
+        new WorkerProcesses().start(ports, workerJvmArgs.isEmpty() ? List.of() : List.of(workerJvmArgs.split("\\s+")),
+                Path.of(ServiceConfig.getString("coordinator.logDirectory", ".")));
+        return new CoordinatorApp(port, workerUris);
+    }
+
+    /**
+     * Waits until every worker reports to be ready, i.e., has finished its
+     * warm-up.
+     */
+    private static void awaitWorkers(List<WorkerClient> workers, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        for (WorkerClient worker : workers) {
+            while (true) {
+                try {
+                    JsonObject status = worker.getStatus();
+                    if (!status.has("ready") || status.get("ready").getAsBoolean()) {
+                        LOG.info("Worker %s is available".formatted(worker));
+                        break;
+                    }
+                } catch (IOException e) {
+                    // the worker is not started yet
+                }
+                if (System.currentTimeMillis() > deadline) {
+                    LOG.warn("Worker %s is not available, continuing without waiting".formatted(worker));
+                    break;
+                }
+                Thread.sleep(500);
+            }
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package de.uhd.ifi.se.accompleteness.coordinator;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import spark.Request;
+import spark.Response;
+
+/**
+ * The /run and /status API endpoints of the coordinator mode, which have the
+ * same form as those of a single instance of the service.
+ */
+public class CoordinatorRest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CoordinatorRest.class);
+
+    private final Coordinator coordinator;
+
+    /**
+     * The constructor of the {@link CoordinatorRest} class.
+     * 
+     * @param coordinator the coordinator distributing the documents
+     */
+    public CoordinatorRest(Coordinator coordinator) {
+        this.coordinator = coordinator;
+    }
+
+    /**
+     * Creates a response for requests to the /run API by distributing the
+     * documents across the workers.
+     * 
+     * @param req the HTTP request sent to the /run endpoint
+     * @param res the HTTP response containing header and HTTP status code
+     *            information
+     * @return the merged response of the workers, or an error message in the
+     *         form of a string if an exception is thrown and catched
+     */
+    public Object createRunResponse(Request req, Response res) {
+        try {
+            JsonObject jsonRequest = new Gson().fromJson(req.body(), JsonObject.class);
+            JsonArray documents = jsonRequest.get("dataset").getAsJsonObject().get("documents").getAsJsonArray();
+            JsonObject paramsJson = jsonRequest.get("params").getAsJsonObject();
+
+            LOG.info("Distributing %d documents".formatted(documents.size()));
+
+            JsonObject response = coordinator.run(documents, paramsJson);
+
+            res.header("Content-Type", "application/json");
+            return response.toString();
+
+        } catch (IllegalArgumentException e) {
+            res.status(400);
+            LOG.warn(e.getMessage());
+            return "<h1>400 Bad Request</h1><code>" + e.getMessage() + "</code>";
+        } catch (Exception e) {
+            res.status(500);
+            LOG.error("Error during request handling: ", e);
+
+            StringWriter sw = new StringWriter();
+            PrintWriter pw = new PrintWriter(sw);
+            e.printStackTrace(pw);
+            String sStackTrace = sw.toString();
+
+            return "<h1>500 Internal Server Error</h1><code>" + sStackTrace.replaceAll("\\n", "<br>") + "</code>";
+        }
+    }
+
+    /**
+     * Creates a response for requests to the /status API containing the status
+     * of every worker.
+     * 
+     * @param req the HTTP request sent to the /status endpoint
+     * @param res the HTTP response
+     * @return a JSON object containing the status of the coordinator and its
+     *         workers
+     */
+    public Object createStatusResponse(Request req, Response res) throws InterruptedException {
+        JsonObject jsonResponse = coordinator.getMetrics();
+        jsonResponse.addProperty("status", "operational");
+        jsonResponse.addProperty("mode", "coordinator");
+        res.header("Content-Type", "application/json");
+        return jsonResponse;
+    }
+}
@@ -0,0 +1,156 @@
+package de.uhd.ifi.se.accompleteness.coordinator;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Sends requests to a worker instance of the service over HTTP.
+ */
+public class WorkerClient {
+
+    private static final String BASE_PATH = "/hitec/classify/concepts/acceptance-criteria-completeness/";
+
+    private final URI baseUri;
+    private final HttpClient client;
+    private final Duration requestTimeout;
+
+    /**
+     * The number of documents reserved for the worker by the coordinator whose
+     * results have not been received yet.
+     */
+    private final AtomicInteger pendingDocuments = new AtomicInteger();
+
+    /**
+     * Creates a client of a worker.
+     * 
+     * @param baseUri        the URI of the worker, e.g.,
+     *                       {@code http://localhost:9641}
+     * @param client         the HTTP client shared by all workers
+     * @param requestTimeout the maximum time of a request to the worker
+     */
+    public WorkerClient(URI baseUri, HttpClient client, Duration requestTimeout) {
+        this.baseUri = baseUri;
+        this.client = client;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Returns the status of the worker including the metrics of its scheduler.
+     * 
+     * @return the status of the worker
+     * @throws IOException if the worker is not reachable
+     */
+    public JsonObject getStatus() throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(BASE_PATH + "status"))
+                .timeout(Duration.ofSeconds(5)).GET().build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IOException("Worker %s returned status %d".formatted(baseUri, response.statusCode()));
+        }
+        return new Gson().fromJson(response.body(), JsonObject.class);
+    }
+
+    /**
+     * Returns the documents queued or running on the worker according to its
+     * status, which may not contain the documents sent by this coordinator
+     * yet.
+     * 
+     * @return the queued and running documents or {@link Integer#MAX_VALUE} if
+     *         the worker is not reachable
+     */
+    public int getQueuedDocuments() throws InterruptedException {
+        try {
+            JsonObject scheduler = getStatus().get("scheduler").getAsJsonObject();
+            return scheduler.get("interactive_queue_depth").getAsInt() + scheduler.get("bulk_queue_depth").getAsInt()
+                    + scheduler.get("running").getAsInt();
+        } catch (IOException | RuntimeException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Returns the documents reserved for the worker whose results have not
+     * been received yet.
+     * 
+     * @return the number of pending documents
+     */
+    public int getPendingDocuments() {
+        return pendingDocuments.get();
+    }
+
+    /**
+     * Reserves the worker for the documents of a shard before they are sent,
+     * so that concurrent shards see the load they add.
+     * 
+     * @param documents the number of documents of the shard
+     */
+    public void reserve(int documents) {
+        pendingDocuments.addAndGet(documents);
+    }
+
+    /**
+     * Releases the documents of a shard once its results have been received
+     * or it has failed.
+     * 
+     * @param documents the number of documents of the shard
+     */
+    public void release(int documents) {
+        pendingDocuments.addAndGet(-documents);
+    }
+
+    /**
+     * Calculates the completeness of documents on the worker.
+     * 
+     * @param documents the documents of a shard
+     * @param params    the params of the request
+     * @return the response of the worker
+     * @throws IOException              if the worker is not reachable or fails
+     * @throws IllegalArgumentException if the worker rejects the params, which
+     *                                  every other worker would reject as well
+     */
+    public JsonObject run(JsonArray documents, JsonObject params) throws IOException, InterruptedException {
+        JsonObject dataset = new JsonObject();
+        dataset.add("documents", documents);
+        JsonObject body = new JsonObject();
+        body.add("dataset", dataset);
+        body.add("params", params);
+        HttpRequest request = HttpRequest.newBuilder(baseUri.resolve(BASE_PATH + "run")).timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 400) {
+            throw new IllegalArgumentException(getErrorMessage(response.body()));
+        }
+        if (response.statusCode() != 200) {
+            throw new IOException("Worker %s returned status %d".formatted(baseUri, response.statusCode()));
+        }
+        return new Gson().fromJson(response.body(), JsonObject.class);
+    }
+
+    /**
+     * Returns the message of an error page of the worker.
+     */
+    private static String getErrorMessage(String body) {
+        int start = body.indexOf("<code>");
+        int end = body.lastIndexOf("</code>");
+        return start >= 0 && end > start ? body.substring(start + "<code>".length(), end) : body;
+    }
+
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    @Override
+    public String toString() {
+        return baseUri.toString();
+    }
+}
@@ -0,0 +1,58 @@
+package de.uhd.ifi.se.accompleteness.coordinator;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Starts worker instances of the service as local processes with the same
+ * class path and JVM options as the coordinator, and stops them together
+ * with the coordinator.
+ */
+public class WorkerProcesses {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WorkerProcesses.class);
+
+    private final List<Process> processes = new ArrayList<>();
+
+    /**
+     * Starts a worker on every port.
+     * 
+     * @param ports      the ports of the workers
+     * @param workerArgs the JVM options of the workers, e.g., {@code -Xmx4g}
+     * @param logDir     the directory of the log files of the workers
+     */
+    public void start(List<Integer> ports, List<String> workerArgs, Path logDir) throws IOException {
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        for (int port : ports) {
+            List<String> command = new ArrayList<>();
+            command.add(java);
+            command.addAll(workerArgs);
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add("de.uhd.ifi.se.accompleteness.App");
+            command.add("--port");
+            command.add(String.valueOf(port));
+            File logFile = logDir.resolve("worker-" + port + ".log").toFile();
+            Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                    .redirectOutput(ProcessBuilder.Redirect.appendTo(logFile)).start();
+            processes.add(process);
+            LOG.info("Started worker on port %d (pid %d), logging to %s".formatted(port, process.pid(), logFile));
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop, "worker-shutdown"));
+    }
+
+    /**
+     * Stops all started workers.
+     */
+    public void stop() {
+        for (Process process : processes) {
+            process.destroy();
+        }
+    }
+}
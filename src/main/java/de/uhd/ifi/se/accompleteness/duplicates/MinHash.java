@@ -0,0 +1,94 @@
+package de.uhd.ifi.se.accompleteness.duplicates;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Computes MinHash signatures of sets of shingles. The share of equal
+ * components of the signatures of two sets estimates the Jaccard similarity of
+ * the sets.
+ */
+public class MinHash {
+
+    private final long[] seeds;
+
+    /**
+     * Creates the hash functions of the signatures.
+     *
+     * @param hashCount the number of components of a signature
+     * @param seed      the seed of the hash functions, so that the signatures
+     *                  of different instances with the same seed are comparable
+     */
+    public MinHash(int hashCount, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        seeds = new long[hashCount];
+        for (int i = 0; i < hashCount; i++) {
+            seeds[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Computes the signature of a set of shingles.
+     *
+     * @param shingles the shingles
+     * @return the minimum of every hash function over the shingles, or
+     *         {@link Long#MAX_VALUE} for every component of an empty set
+     */
+    public long[] getSignature(Set<String> shingles) {
+        long[] signature = new long[seeds.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (String shingle : shingles) {
+            long hash = hash(shingle);
+            for (int i = 0; i < seeds.length; i++) {
+                long value = mix(hash ^ seeds[i]);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Estimates the Jaccard similarity of the sets of two signatures.
+     *
+     * @param first  a signature
+     * @param second a signature of the same instance
+     * @return the share of equal components
+     */
+    public static double estimateSimilarity(long[] first, long[] second) {
+        int equal = 0;
+        for (int i = 0; i < first.length; i++) {
+            if (first[i] == second[i]) {
+                equal++;
+            }
+        }
+        return (double) equal / first.length;
+    }
+
+    /**
+     * The 64-bit FNV-1a hash of the characters of a shingle.
+     */
+    private static long hash(String shingle) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < shingle.length(); i++) {
+            hash ^= shingle.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * The finalizer of MurmurHash3, which spreads every input bit over all
+     * output bits.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
@@ -0,0 +1,293 @@
+package de.uhd.ifi.se.accompleteness.duplicates;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.ParamValues;
+import de.uhd.ifi.se.accompleteness.model.ResponseFields;
+
+/**
+ * Finds clusters of near-duplicate user stories in a response. The shingles
+ * of every completed user story, i.e., the word bigrams of its goal or its
+ * topics, are reduced to a MinHash signature. The signatures are split into
+ * bands, and only user stories with an equal band are compared, so the
+ * detection takes near-linear time in the number of user stories. User stories
+ * whose estimated Jaccard similarity reaches the threshold are in the same
+ * cluster, also transitively.
+ *
+ * The detection is optional and enabled by the param {@code nearDuplicates}.
+ */
+public class NearDuplicateDetector {
+
+    /**
+     * The shingles that are compared.
+     */
+    public enum Shingles {
+        GOAL, TOPICS
+    }
+
+    public static final double DEFAULT_THRESHOLD = 0.8;
+
+    private static final int HASH_COUNT = 128;
+
+    private static final long SEED = 0x5eed_d0c5L;
+
+    private static final MinHash MIN_HASH = new MinHash(HASH_COUNT, SEED);
+
+    private boolean enabled;
+
+    private double threshold = DEFAULT_THRESHOLD;
+
+    private Shingles shingles = Shingles.GOAL;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public double getThreshold() {
+        return threshold;
+    }
+
+    public Shingles getShingles() {
+        return shingles;
+    }
+
+    /**
+     * Reads the optional params {@code nearDuplicates},
+     * {@code nearDuplicateThreshold} and {@code nearDuplicateShingles}.
+     *
+     * @param params the params of the request
+     */
+    public void setNearDuplicateParamsFromJson(JsonObject params) {
+        this.enabled = params.has("nearDuplicates") && params.get("nearDuplicates").getAsBoolean();
+        this.threshold = params.has("nearDuplicateThreshold") ? params.get("nearDuplicateThreshold").getAsDouble()
+                : DEFAULT_THRESHOLD;
+        if (threshold <= 0 || threshold > 1) {
+            throw new IllegalArgumentException("nearDuplicateThreshold must be in (0, 1], but is " + threshold);
+        }
+        this.shingles = params.has("nearDuplicateShingles")
+                ? ParamValues.parseEnum(Shingles.class, "nearDuplicateShingles",
+                        params.get("nearDuplicateShingles").getAsString())
+                : Shingles.GOAL;
+    }
+
+    /**
+     * Returns the fields of the results that the shingles are read from.
+     *
+     * @return the names of the fields, which responses to annotate must contain
+     */
+    public List<String> getShingleFields() {
+        return shingles == Shingles.TOPICS ? List.of("user_story_topics", "acceptance_criteria_topics")
+                : List.of("user_story_goal");
+    }
+
+    /**
+     * Adds the cluster of every completed user story as
+     * {@code near_duplicate_cluster} to the completeness results of a
+     * response, and the number of clusters as {@code near_duplicate_clusters}
+     * to its metrics. Clusters are numbered from 1 in the order of their first
+     * user story, user stories without near duplicates have no cluster.
+     *
+     * @param response the response of a single instance or the merged response
+     *                 of the coordinator
+     */
+    public void annotate(JsonObject response) {
+        annotate(response, ResponseFields.ALL);
+    }
+
+    /**
+     * Adds the clusters of the user stories to a response that contains the
+     * shingle fields in addition to the selected fields, and removes the
+     * shingle fields that are not selected.
+     *
+     * @param response the response containing the fields of
+     *                 {@link #getShingleFields()}
+     * @param fields   the fields selected by the request
+     */
+    public void annotate(JsonObject response, ResponseFields fields) {
+        JsonArray results = response.get("topics").getAsJsonObject().get("completeness_results").getAsJsonArray();
+        List<JsonObject> completed = new ArrayList<>();
+        List<Set<String>> shingleSets = new ArrayList<>();
+        for (JsonElement result : results) {
+            JsonObject resultObject = result.getAsJsonObject();
+            if ("completed".equals(resultObject.get("status").getAsString())) {
+                completed.add(resultObject);
+                shingleSets.add(getShingles(resultObject));
+            }
+        }
+        int[] clusters = findClusters(shingleSets, threshold);
+        int clusterCount = 0;
+        for (int i = 0; i < completed.size(); i++) {
+            if (fields.contains("near_duplicate_cluster")) {
+                completed.get(i).addProperty("near_duplicate_cluster", clusters[i] == 0 ? null : clusters[i]);
+            }
+            for (String field : getShingleFields()) {
+                if (!fields.contains(field)) {
+                    completed.get(i).remove(field);
+                }
+            }
+            clusterCount = Math.max(clusterCount, clusters[i]);
+        }
+        response.get("metrics").getAsJsonObject().addProperty("near_duplicate_clusters", clusterCount);
+    }
+
+    private Set<String> getShingles(JsonObject result) {
+        if (shingles == Shingles.TOPICS) {
+            Set<String> topics = new LinkedHashSet<>();
+            for (String field : List.of("user_story_topics", "acceptance_criteria_topics")) {
+                if (result.has(field)) {
+                    for (JsonElement topic : result.get(field).getAsJsonArray()) {
+                        topics.add(topic.getAsString().toLowerCase());
+                    }
+                }
+            }
+            return topics;
+        }
+        JsonElement goal = result.get("user_story_goal");
+        return getWordBigrams(goal == null || goal.isJsonNull() ? "" : goal.getAsString());
+    }
+
+    /**
+     * Returns the pairs of consecutive words of a text in lower case without
+     * punctuation, or the single word of a text with only one word.
+     *
+     * @param text the text
+     * @return the word bigrams
+     */
+    static Set<String> getWordBigrams(String text) {
+        String[] words = text.toLowerCase().replaceAll("[^\\p{L}\\p{N}]+", " ").trim().split(" ");
+        Set<String> bigrams = new LinkedHashSet<>();
+        if (words.length == 1) {
+            if (!words[0].isEmpty()) {
+                bigrams.add(words[0]);
+            }
+            return bigrams;
+        }
+        for (int i = 0; i + 1 < words.length; i++) {
+            bigrams.add(words[i] + " " + words[i + 1]);
+        }
+        return bigrams;
+    }
+
+    /**
+     * Clusters sets by the estimated Jaccard similarity of their MinHash
+     * signatures.
+     *
+     * @param sets      the sets, of which empty sets are never clustered
+     * @param threshold the minimum estimated Jaccard similarity of near
+     *                  duplicates
+     * @return the cluster of every set, numbered from 1 in the order of the
+     *         first set of a cluster, or 0 for sets without near duplicates
+     */
+    public static int[] findClusters(List<Set<String>> sets, double threshold) {
+        List<long[]> signatures = new ArrayList<>();
+        for (Set<String> set : sets) {
+            signatures.add(set.isEmpty() ? null : MIN_HASH.getSignature(set));
+        }
+        int bands = getBandCount(threshold);
+        int rows = HASH_COUNT / bands;
+
+        int[] parents = new int[sets.size()];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+        }
+        for (int band = 0; band < bands; band++) {
+            Map<BandKey, List<Integer>> buckets = new HashMap<>();
+            for (int i = 0; i < signatures.size(); i++) {
+                long[] signature = signatures.get(i);
+                if (signature == null) {
+                    continue;
+                }
+                List<Integer> bucket = buckets.computeIfAbsent(
+                        new BandKey(Arrays.copyOfRange(signature, band * rows, (band + 1) * rows)),
+                        key -> new ArrayList<>());
+                // a bucket keeps one representative per cluster, as a set in
+                // the cluster of a representative is represented by it, so
+                // clusters of identical sets take constant time per set
+                boolean represented = false;
+                for (int representative : bucket) {
+                    if (find(parents, representative) == find(parents, i)) {
+                        represented = true;
+                    } else if (MinHash.estimateSimilarity(signatures.get(representative), signature) >= threshold) {
+                        parents[find(parents, i)] = find(parents, representative);
+                        represented = true;
+                    }
+                }
+                if (!represented) {
+                    bucket.add(i);
+                }
+            }
+        }
+
+        int[] sizes = new int[sets.size()];
+        for (int i = 0; i < parents.length; i++) {
+            sizes[find(parents, i)]++;
+        }
+        int[] clusters = new int[sets.size()];
+        Map<Integer, Integer> clusterByRoot = new HashMap<>();
+        for (int i = 0; i < parents.length; i++) {
+            int root = find(parents, i);
+            if (sizes[root] > 1) {
+                clusters[i] = clusterByRoot.computeIfAbsent(root, key -> clusterByRoot.size() + 1);
+            }
+        }
+        return clusters;
+    }
+
+    /**
+     * Returns the number of bands whose S-curve, the probability that two sets
+     * of a Jaccard similarity share a band, has its steepest point
+     * {@code (1 / b)^(1 / r)} the closest below the threshold, so near
+     * duplicates rarely miss a common band.
+     */
+    static int getBandCount(double threshold) {
+        int bands = 1;
+        for (int candidate = 1; candidate <= HASH_COUNT; candidate *= 2) {
+            bands = candidate;
+            if (Math.pow(1.0 / candidate, (double) candidate / HASH_COUNT) < threshold - 0.05) {
+                break;
+            }
+        }
+        return bands;
+    }
+
+    private static int find(int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    /**
+     * The hash values of a band of a signature as a key of a bucket.
+     */
+    private static class BandKey {
+        private final long[] values;
+        private final int hashCode;
+
+        BandKey(long[] values) {
+            this.values = values;
+            this.hashCode = Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof BandKey && Arrays.equals(values, ((BandKey) other).values);
+        }
+    }
+}
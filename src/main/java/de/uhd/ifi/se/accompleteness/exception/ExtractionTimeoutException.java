@@ -0,0 +1,21 @@
+package de.uhd.ifi.se.accompleteness.exception;
+
+/**
+ * An exception that is thrown when the extraction of topics from a text does
+ * not finish within the time available for it. Unlike the other exceptions,
+ * it is unchecked because it can occur within any extractor.
+ * 
+ * @see RuntimeException
+ */
+public class ExtractionTimeoutException extends RuntimeException {
+
+    /**
+     * The constructor of the {@link ExtractionTimeoutException} which calls
+     * the super constructor of the {@link java.lang.RuntimeException} class.
+     * 
+     * @param errorMessage an error message describing the error
+     */
+    public ExtractionTimeoutException(String errorMessage) {
+        super(errorMessage);
+    }
+}
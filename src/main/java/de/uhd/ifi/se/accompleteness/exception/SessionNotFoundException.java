@@ -0,0 +1,22 @@
+package de.uhd.ifi.se.accompleteness.exception;
+
+/**
+ * An exception that is thrown when the intermediate results of a user story
+ * are requested that have not been calculated or were already removed from
+ * the session store.
+ * 
+ * @see de.uhd.ifi.se.accompleteness.session.SessionStore
+ * @see Exception
+ */
+public class SessionNotFoundException extends Exception {
+
+    /**
+     * The constructor of the {@link SessionNotFoundException} which calls the
+     * super constructor of the {@link java.lang.Exception} class.
+     * 
+     * @param errorMessage an error message describing the error
+     */
+    public SessionNotFoundException(String errorMessage) {
+        super(errorMessage);
+    }
+}
@@ -1,6 +1,9 @@
 package de.uhd.ifi.se.accompleteness.extractor;
 
+import java.util.List;
+
 import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.SentenceExtractionResult;
 import de.uhd.ifi.se.accompleteness.exception.TokenNotFoundException;
 
 /**
@@ -20,4 +23,16 @@ public interface ACExtractor {
      */
     public ExtractionResult extract(String acceptanceCriterion);
 
+    /**
+     * Extracts topics and relationships from every sentence of the acceptance
+     * criteria separately, so that the results of single acceptance criteria
+     * can be reused when other acceptance criteria change.
+     * 
+     * @param acceptanceCriteria the acceptance criteria of a user story
+     * @return the results of the sentences in the order of the sentences,
+     *         merging them with {@link ExtractionResult#merge(List)} yields the
+     *         result of {@link #extract(String)}
+     */
+    public List<SentenceExtractionResult> extractSentences(String acceptanceCriteria);
+
 }
@@ -4,4 +4,11 @@ import com.google.gson.JsonObject;
 
 public interface ExtractionParams {
     public void setExtractionParamsFromJson(JsonObject params);
+
+    /**
+     * Returns the extractor selected by the params.
+     * 
+     * @return the type of the extractors
+     */
+    public ExtractorType getExtractorType();
 }
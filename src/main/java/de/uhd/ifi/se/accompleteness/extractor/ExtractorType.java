@@ -0,0 +1,32 @@
+package de.uhd.ifi.se.accompleteness.extractor;
+
+import de.uhd.ifi.se.accompleteness.extractor.chunk.ChunkACExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.chunk.ChunkUSExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEACExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEUSExtractor;
+
+/**
+ * The extractors that can be selected with the param {@code extractor}.
+ */
+public enum ExtractorType {
+
+    /**
+     * Extracts the topics from the triples of the full OpenIE pipeline.
+     */
+    OPENIE,
+
+    /**
+     * Extracts the topics with a rule-based chunker from tokens, POS tags and
+     * lemmas only, which is much faster than OpenIE, e.g., for checks while
+     * typing.
+     */
+    CHUNK;
+
+    public USExtractor createUSExtractor() {
+        return this == CHUNK ? new ChunkUSExtractor() : new OpenIEUSExtractor();
+    }
+
+    public ACExtractor createACExtractor() {
+        return this == CHUNK ? new ChunkACExtractor() : new OpenIEACExtractor();
+    }
+}
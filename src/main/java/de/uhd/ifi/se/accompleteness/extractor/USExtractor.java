@@ -21,4 +21,16 @@ public interface USExtractor {
      */
     public ExtractionResult extract(UserStory userStory, ExtractionParams params);
 
+    /**
+     * Extracts the topics and relationships of the goal of a user story
+     * independently of any params, so that the result can be filtered for
+     * several params with
+     * {@link de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEUSExtractor#filterTopics}.
+     * 
+     * @param goal the goal of a user story
+     * @return the unfiltered result with positions relative to the start of
+     *         the goal
+     */
+    public ExtractionResult extractRaw(String goal);
+
 }
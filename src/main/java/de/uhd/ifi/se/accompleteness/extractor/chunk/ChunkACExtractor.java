@@ -0,0 +1,32 @@
+package de.uhd.ifi.se.accompleteness.extractor.chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import de.uhd.ifi.se.accompleteness.extractor.ACExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.openie.util.SentenceSplitter;
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.Sentence;
+import de.uhd.ifi.se.accompleteness.model.SentenceExtractionResult;
+
+/**
+ * Extracts the topics of acceptance criteria with the {@link PhraseChunker}
+ * instead of OpenIE. The positions of the topics follow the conventions of the
+ * {@link de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEACExtractor}.
+ */
+public class ChunkACExtractor implements ACExtractor {
+
+    @Override
+    public ExtractionResult extract(String acceptanceCriterion) {
+        return ExtractionResult.merge(extractSentences(acceptanceCriterion));
+    }
+
+    @Override
+    public List<SentenceExtractionResult> extractSentences(String acceptanceCriteria) {
+        List<SentenceExtractionResult> results = new ArrayList<>();
+        for (Sentence sentence : SentenceSplitter.split(acceptanceCriteria)) {
+            results.add(new SentenceExtractionResult(sentence, PhraseChunker.extract(sentence.getText(), false)));
+        }
+        return results;
+    }
+}
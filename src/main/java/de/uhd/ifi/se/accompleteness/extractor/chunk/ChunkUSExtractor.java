@@ -0,0 +1,27 @@
+package de.uhd.ifi.se.accompleteness.extractor.chunk;
+
+import de.uhd.ifi.se.accompleteness.extractor.ExtractionParams;
+import de.uhd.ifi.se.accompleteness.extractor.USExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEExtractionParams;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEUSExtractor;
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.UserStory;
+
+/**
+ * Extracts the topics of the goal of a user story with the
+ * {@link PhraseChunker} instead of OpenIE. The topics are filtered according
+ * to the same params as those of the {@link OpenIEUSExtractor}.
+ */
+public class ChunkUSExtractor implements USExtractor {
+
+    @Override
+    public ExtractionResult extract(UserStory userStory, ExtractionParams params) {
+        return OpenIEUSExtractor.filterTopics(extractRaw(userStory.getGoal()), userStory.getGoalStartPosition(),
+                (OpenIEExtractionParams) params);
+    }
+
+    @Override
+    public ExtractionResult extractRaw(String goal) {
+        return PhraseChunker.extract(goal, true);
+    }
+}
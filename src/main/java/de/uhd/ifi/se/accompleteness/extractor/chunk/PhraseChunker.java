@@ -0,0 +1,197 @@
+package de.uhd.ifi.se.accompleteness.extractor.chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.Relationship;
+import de.uhd.ifi.se.accompleteness.model.Topic;
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.ling.CoreLabel;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import edu.stanford.nlp.util.CoreMap;
+
+/**
+ * A rule-based chunker that finds noun phrases and verb phrases in a text
+ * using only the tokenizer, the POS tagger and the lemmatizer of CoreNLP.
+ *
+ * Noun phrases are runs of possessive pronouns, adjectives, numbers and nouns
+ * ending in a noun (without determiners, like the arguments of OpenIE), single
+ * personal pronouns, or adjectives directly following a verb. Verb phrases are
+ * runs of modals, verbs, adverbs and particles containing a verb. Every noun
+ * phrase is a topic, and a verb phrase connects the noun phrase before it with
+ * every noun phrase after it up to the next verb phrase, so "The user receives
+ * an email with a link." yields the relationships (user; receive; email) and
+ * (user; receive with; link).
+ */
+public class PhraseChunker {
+
+    private static StanfordCoreNLP pipeline;
+
+    private enum Type {
+        NOUN, VERB, PREPOSITION
+    }
+
+    private static class Chunk {
+        final Type type;
+        final List<CoreLabel> tokens;
+
+        Chunk(Type type, List<CoreLabel> tokens) {
+            this.type = type;
+            this.tokens = tokens;
+        }
+
+        String getLemmas() {
+            StringBuilder builder = new StringBuilder();
+            for (CoreLabel token : tokens) {
+                if (builder.length() > 0) {
+                    builder.append(' ');
+                }
+                builder.append(token.lemma());
+            }
+            return builder.toString();
+        }
+    }
+
+    private PhraseChunker() {
+    }
+
+    /**
+     * Returns the pipeline of the chunker, loading the POS tagger on first use.
+     *
+     * @return the pipeline with the annotators tokenize, ssplit, pos and lemma
+     */
+    public static synchronized StanfordCoreNLP getPipeline() {
+        if (pipeline == null) {
+            Properties props = new Properties();
+            props.setProperty("annotators", "tokenize,ssplit,pos,lemma");
+            pipeline = new StanfordCoreNLP(props);
+        }
+        return pipeline;
+    }
+
+    /**
+     * Extracts the topics and relationships of a text.
+     *
+     * @param text        the text
+     * @param wholePhrase whether a topic ends at the end of its last token, as
+     *                    in user stories, or at the end of its first token, as
+     *                    in acceptance criteria
+     * @return the topics and relationships with positions relative to the start
+     *         of the text
+     */
+    public static ExtractionResult extract(String text, boolean wholePhrase) {
+        Annotation document = new Annotation(text);
+        getPipeline().annotate(document);
+
+        List<Topic> topics = new ArrayList<>();
+        List<Relationship> relationships = new ArrayList<>();
+        for (CoreMap sentence : document.get(CoreAnnotations.SentencesAnnotation.class)) {
+            Topic subject = null;
+            Topic lastNoun = null;
+            String verb = null;
+            String preposition = null;
+            for (Chunk chunk : chunk(sentence.get(CoreAnnotations.TokensAnnotation.class))) {
+                switch (chunk.type) {
+                case NOUN:
+                    Topic topic = toTopic(chunk, wholePhrase);
+                    if (!(topics.contains(topic))) {
+                        topics.add(topic);
+                    }
+                    if (subject != null && verb != null) {
+                        Relationship relationship = new Relationship(subject, topic,
+                                preposition == null ? verb : verb + " " + preposition);
+                        if (!(relationships.contains(relationship))) {
+                            relationships.add(relationship);
+                        }
+                    }
+                    lastNoun = topic;
+                    preposition = null;
+                    break;
+                case VERB:
+                    subject = lastNoun;
+                    verb = chunk.getLemmas();
+                    preposition = null;
+                    break;
+                case PREPOSITION:
+                    preposition = chunk.getLemmas();
+                    break;
+                }
+            }
+        }
+        return new ExtractionResult(relationships, topics);
+    }
+
+    private static Topic toTopic(Chunk chunk, boolean wholePhrase) {
+        CoreLabel first = chunk.tokens.get(0);
+        CoreLabel last = wholePhrase ? chunk.tokens.get(chunk.tokens.size() - 1) : first;
+        return new Topic(chunk.getLemmas(), first.tag(), first.beginPosition(), last.endPosition());
+    }
+
+    /**
+     * Groups the tokens of a sentence into noun phrases, verb phrases and
+     * prepositions. Other tokens, e.g., determiners and punctuation, are not
+     * part of any chunk.
+     */
+    private static List<Chunk> chunk(List<CoreLabel> tokens) {
+        List<Chunk> chunks = new ArrayList<>();
+        int i = 0;
+        while (i < tokens.size()) {
+            String tag = tokens.get(i).tag();
+            int end = i + 1;
+            if (tag.equals("PRP")) {
+                chunks.add(new Chunk(Type.NOUN, tokens.subList(i, end)));
+            } else if (isNounPhraseTag(tag)) {
+                while (end < tokens.size() && isNounPhraseTag(tokens.get(end).tag())) {
+                    end++;
+                }
+                // the phrase ends at its last noun
+                int nounEnd = end;
+                while (nounEnd > i && !isNounTag(tokens.get(nounEnd - 1).tag())) {
+                    nounEnd--;
+                }
+                boolean afterVerb = !chunks.isEmpty() && chunks.get(chunks.size() - 1).type == Type.VERB;
+                if (nounEnd > i) {
+                    chunks.add(new Chunk(Type.NOUN, tokens.subList(i, nounEnd)));
+                } else if (afterVerb && tag.startsWith("JJ")) {
+                    // a predicative adjective such as "complete" in "is
+                    // complete"
+                    chunks.add(new Chunk(Type.NOUN, tokens.subList(i, end)));
+                }
+            } else if (isVerbPhraseTag(tag)) {
+                boolean containsVerb = false;
+                end = i;
+                while (end < tokens.size() && isVerbPhraseTag(tokens.get(end).tag())) {
+                    String verbTag = tokens.get(end).tag();
+                    containsVerb |= verbTag.startsWith("VB") || verbTag.equals("MD");
+                    end++;
+                }
+                if (containsVerb) {
+                    chunks.add(new Chunk(Type.VERB, tokens.subList(i, end)));
+                } else if (tag.equals("TO")) {
+                    chunks.add(new Chunk(Type.PREPOSITION, tokens.subList(i, i + 1)));
+                    end = i + 1;
+                }
+            } else if (tag.equals("IN")) {
+                chunks.add(new Chunk(Type.PREPOSITION, tokens.subList(i, end)));
+            }
+            i = end;
+        }
+        return chunks;
+    }
+
+    private static boolean isNounTag(String tag) {
+        return tag.startsWith("NN") || tag.equals("CD");
+    }
+
+    private static boolean isNounPhraseTag(String tag) {
+        return isNounTag(tag) || tag.startsWith("JJ") || tag.equals("PRP$");
+    }
+
+    private static boolean isVerbPhraseTag(String tag) {
+        return tag.startsWith("VB") || tag.equals("MD") || tag.startsWith("RB") || tag.equals("RP")
+                || tag.equals("TO");
+    }
+}
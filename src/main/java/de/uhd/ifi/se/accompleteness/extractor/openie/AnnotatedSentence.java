@@ -0,0 +1,61 @@
+package de.uhd.ifi.se.accompleteness.extractor.openie;
+
+import de.uhd.ifi.se.accompleteness.model.Sentence;
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.util.CoreMap;
+
+/**
+ * A sentence annotated by the {@link OpenIEPipeline}. The sentence may have
+ * been annotated on its own, so the character offsets of its tokens are
+ * relative to the annotated part of the text, which starts at an offset in
+ * the whole text.
+ */
+public class AnnotatedSentence {
+
+    private final CoreMap annotation;
+    private final int offset;
+
+    public AnnotatedSentence(CoreMap annotation, int offset) {
+        this.annotation = annotation;
+        this.offset = offset;
+    }
+
+    public CoreMap getAnnotation() {
+        return annotation;
+    }
+
+    /**
+     * Returns the sentence with its position in the whole text.
+     * 
+     * @return the sentence
+     */
+    public Sentence getSentence() {
+        return new Sentence(annotation.get(CoreAnnotations.TextAnnotation.class), toTextPosition(getBegin()));
+    }
+
+    /**
+     * Converts a character offset of a token of the sentence to a position
+     * in the whole text.
+     * 
+     * @param position the character offset of the token
+     * @return the position in the whole text
+     */
+    public int toTextPosition(int position) {
+        return offset + position;
+    }
+
+    /**
+     * Converts a character offset of a token of the sentence to a position
+     * relative to the start of the sentence.
+     * 
+     * @param position the character offset of the token
+     * @return the position in the sentence
+     */
+    public int toSentencePosition(int position) {
+        return position - getBegin();
+    }
+
+    private int getBegin() {
+        return annotation.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class);
+    }
+}
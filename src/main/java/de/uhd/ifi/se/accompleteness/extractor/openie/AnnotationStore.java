@@ -0,0 +1,115 @@
+package de.uhd.ifi.se.accompleteness.extractor.openie;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonPrimitive;
+
+import de.uhd.ifi.se.accompleteness.cache.RequestDigest;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.ProtobufAnnotationSerializer;
+
+/**
+ * Persists annotated texts in a directory using the protobuf serialization of
+ * CoreNLP, so that texts are annotated only once, even across restarts of the
+ * service. The annotations do not depend on any params of the requests. Every
+ * annotation is stored in a file named by the digest of the annotators and the
+ * text.
+ */
+public class AnnotationStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AnnotationStore.class);
+
+    private final Path directory;
+    private final String annotators;
+    private final AtomicLong loaded = new AtomicLong();
+
+    /**
+     * Creates a store.
+     * 
+     * @param directory  the directory of the stored annotations or
+     *                   {@code null} to disable the store
+     * @param annotators the annotators of the pipeline, since annotations of
+     *                   other pipelines must not be loaded
+     */
+    public AnnotationStore(Path directory, String annotators) {
+        this.directory = directory;
+        this.annotators = annotators;
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                LOG.warn("Could not create the annotation store in %s: ".formatted(directory), e);
+            }
+        }
+    }
+
+    /**
+     * Loads the stored annotation of a text.
+     * 
+     * @param text the annotated text
+     * @return the annotation or {@code null} if it is not stored
+     */
+    public Annotation load(String text) {
+        if (directory == null) {
+            return null;
+        }
+        Path file = getFile(text);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try (InputStream input = Files.newInputStream(file)) {
+            Annotation annotation = new ProtobufAnnotationSerializer().read(input).first;
+            loaded.incrementAndGet();
+            return annotation;
+        } catch (IOException | ClassNotFoundException | RuntimeException e) {
+            LOG.warn("Could not load the stored annotation %s: ".formatted(file), e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the annotation of a text. Errors are logged only, since the text
+     * can be annotated again.
+     * 
+     * @param text       the annotated text
+     * @param annotation the annotation
+     */
+    public void store(String text, Annotation annotation) {
+        if (directory == null) {
+            return;
+        }
+        Path file = getFile(text);
+        try {
+            // concurrent readers must not see a partially written file
+            Path temporaryFile = Files.createTempFile(directory, "annotation", ".tmp");
+            try (OutputStream output = Files.newOutputStream(temporaryFile)) {
+                new ProtobufAnnotationSerializer().write(annotation, output);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not store the annotation %s: ".formatted(file), e);
+        }
+    }
+
+    private Path getFile(String text) {
+        return directory.resolve(RequestDigest.digest(new JsonPrimitive(annotators), new JsonPrimitive(text)) + ".pb");
+    }
+
+    /**
+     * Returns the number of annotations loaded from the store since startup.
+     * 
+     * @return the number of loaded annotations
+     */
+    public long getLoaded() {
+        return loaded.get();
+    }
+}
@@ -2,40 +2,104 @@ package de.uhd.ifi.se.accompleteness.extractor.openie;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Properties;
 
+import de.uhd.ifi.se.accompleteness.ServiceConfig;
+import de.uhd.ifi.se.accompleteness.cache.SentenceCache;
+import de.uhd.ifi.se.accompleteness.concurrent.SingleFlight;
 import de.uhd.ifi.se.accompleteness.extractor.ACExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.openie.util.SentenceSplitter;
 import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
 import de.uhd.ifi.se.accompleteness.model.Relationship;
+import de.uhd.ifi.se.accompleteness.model.Sentence;
+import de.uhd.ifi.se.accompleteness.model.SentenceExtractionResult;
 import de.uhd.ifi.se.accompleteness.model.Topic;
 import edu.stanford.nlp.ie.util.RelationTriple;
 import edu.stanford.nlp.ling.CoreAnnotations;
 import edu.stanford.nlp.naturalli.NaturalLogicAnnotations;
 import edu.stanford.nlp.pipeline.Annotation;
-import edu.stanford.nlp.pipeline.StanfordCoreNLP;
 import edu.stanford.nlp.util.CoreMap;
 
 public class OpenIEACExtractor implements ACExtractor {
 
+    /**
+     * Deduplicates concurrent extractions of the same acceptance criteria,
+     * e.g., from overlapping datasets sent at the same time.
+     */
+    private static final SingleFlight<String, List<SentenceExtractionResult>> IN_FLIGHT = new SingleFlight<>(
+            ServiceConfig.getLong("singleFlight.timeoutMillis", 600000));
+
+    /**
+     * The results of single acceptance criteria, which often recur word for
+     * word in different user stories.
+     */
+    private static final SentenceCache SENTENCE_CACHE = new SentenceCache(
+            ServiceConfig.getInt("sentenceCache.capacity", 10000));
+
     @Override
     public ExtractionResult extract(String acceptanceCriterion) {
+        return ExtractionResult.merge(extractSentences(acceptanceCriterion));
+    }
+
+    @Override
+    public List<SentenceExtractionResult> extractSentences(String acceptanceCriteria) {
+        return IN_FLIGHT.execute(acceptanceCriteria, () -> annotateSentences(acceptanceCriteria));
+    }
+
+    /**
+     * Returns the cache of the results of single acceptance criteria.
+     * 
+     * @return the sentence cache
+     */
+    public static SentenceCache getSentenceCache() {
+        return SENTENCE_CACHE;
+    }
+
+    private List<SentenceExtractionResult> annotateSentences(String acceptanceCriteria) {
+
+        // Look up every sentence in the cache and annotate only the others
+        List<Sentence> sentences = SentenceSplitter.split(acceptanceCriteria);
+        List<ExtractionResult> sentenceResults = new ArrayList<>();
+        List<String> missingSentences = new ArrayList<>();
+        for (Sentence sentence : sentences) {
+            ExtractionResult cachedResult = SENTENCE_CACHE.get(sentence.getText());
+            sentenceResults.add(cachedResult);
+            if (cachedResult == null) {
+                missingSentences.add(sentence.getText());
+            }
+        }
+
+        // Annotate the missing sentences with the shared NLP pipeline, in
+        // parallel as separate texts of the batches
+        Iterator<Annotation> annotations = OpenIEPipeline.getInstance().annotateAll(missingSentences).iterator();
+
+        List<SentenceExtractionResult> results = new ArrayList<>();
+        for (int i = 0; i < sentences.size(); i++) {
+            Sentence sentence = sentences.get(i);
+            ExtractionResult result = sentenceResults.get(i);
+            if (result == null) {
+                result = toExtractionResult(annotations.next());
+                SENTENCE_CACHE.put(sentence.getText(), result);
+            }
+            results.add(new SentenceExtractionResult(sentence, result));
+        }
+
+        return results;
+    }
 
+    /**
+     * Creates the topics and relationships of an annotated sentence.
+     * 
+     * @param annotation the annotation of a single sentence
+     * @return the result with positions relative to the start of the sentence
+     */
+    private ExtractionResult toExtractionResult(Annotation annotation) {
         List<Topic> topics = new ArrayList<Topic>();
         List<Relationship> relationships = new ArrayList<>();
-
-        // Set up the NLP pipeline and annotate the preprocessed user story
-        // string
-        Properties props = new Properties();
-        props.setProperty("annotators", "tokenize,ssplit,pos,lemma,depparse,natlog,openie");
-        
-        StanfordCoreNLP pipeline = new StanfordCoreNLP(props);
-        Annotation document = new Annotation(acceptanceCriterion);
-        pipeline.annotate(document);
-        for (CoreMap sentence : document.get(CoreAnnotations.SentencesAnnotation.class)) {
+        for (CoreMap sentence : annotation.get(CoreAnnotations.SentencesAnnotation.class)) {
             // Get the OpenIE triples for the sentence
             Collection<RelationTriple> triples = sentence.get(NaturalLogicAnnotations.RelationTriplesAnnotation.class);
-            // Print the triples
             for (RelationTriple triple : triples) {
                 Topic subjectTopic = new Topic(triple.subjectLemmaGloss(), triple.subject.get(0).tag(), triple.subject.get(0).beginPosition(), triple.subject.get(0).endPosition());
                 Topic objectTopic = new Topic(triple.objectLemmaGloss(), triple.object.get(0).tag(), triple.object.get(0).beginPosition(), triple.object.get(0).endPosition());
@@ -52,7 +116,6 @@ public class OpenIEACExtractor implements ACExtractor {
                 }
             }
         }
-
         return new ExtractionResult(relationships, topics);
     }
 
@@ -1,8 +1,12 @@
 package de.uhd.ifi.se.accompleteness.extractor.openie;
 
+import java.util.Objects;
+
 import com.google.gson.JsonObject;
 
+import de.uhd.ifi.se.accompleteness.ParamValues;
 import de.uhd.ifi.se.accompleteness.extractor.ExtractionParams;
+import de.uhd.ifi.se.accompleteness.extractor.ExtractorType;
 
 public class OpenIEExtractionParams implements ExtractionParams {
     private boolean debug;
@@ -15,6 +19,8 @@ public class OpenIEExtractionParams implements ExtractionParams {
     private boolean filterUSTopicsCompositions;
     private int filterUSTopicsCompositionsMinLength;
 
+    private ExtractorType extractorType = ExtractorType.OPENIE;
+
     @Override
     public void setExtractionParamsFromJson(JsonObject params) {
         this.debug = params.get("debug").getAsBoolean();
@@ -26,6 +32,12 @@ public class OpenIEExtractionParams implements ExtractionParams {
 
         this.filterUSTopicsCompositions = params.get("filterUSTopicsCompositions").getAsBoolean();
         this.filterUSTopicsCompositionsMinLength = params.get("filterUSTopicsCompositionsMinLength").getAsInt();
+
+        // the filters are applied to the topics of every extractor
+        if (params.has("extractor")) {
+            this.extractorType = ParamValues.parseEnum(ExtractorType.class, "extractor",
+                    params.get("extractor").getAsString());
+        }
     }
 
     public boolean isDebug() {
@@ -52,4 +64,30 @@ public class OpenIEExtractionParams implements ExtractionParams {
         return filterUSTopicsCompositionsMinLength;
     }
 
+    @Override
+    public ExtractorType getExtractorType() {
+        return extractorType;
+    }
+
+    @Override
+    public boolean equals(Object arg0) {
+        if (!(arg0 instanceof OpenIEExtractionParams)) {
+            return false;
+        }
+        OpenIEExtractionParams p = (OpenIEExtractionParams) arg0;
+        return p.debug == debug && p.filterUSTopicsExcludeList == filterUSTopicsExcludeList
+                && p.filterUSTopicsSimilarity == filterUSTopicsSimilarity
+                && p.filterUSTopicsSimilarityThreshold == filterUSTopicsSimilarityThreshold
+                && p.filterUSTopicsCompositions == filterUSTopicsCompositions
+                && p.filterUSTopicsCompositionsMinLength == filterUSTopicsCompositionsMinLength
+                && p.extractorType == extractorType;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(debug, filterUSTopicsExcludeList, filterUSTopicsSimilarity,
+                filterUSTopicsSimilarityThreshold, filterUSTopicsCompositions, filterUSTopicsCompositionsMinLength,
+                extractorType);
+    }
+
 }
@@ -0,0 +1,204 @@
+package de.uhd.ifi.se.accompleteness.extractor.openie;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.ServiceConfig;
+import de.uhd.ifi.se.accompleteness.concurrent.MicroBatcher;
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler;
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler.Priority;
+import de.uhd.ifi.se.accompleteness.extractor.openie.util.SentenceSplitter;
+import de.uhd.ifi.se.accompleteness.model.Sentence;
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import edu.stanford.nlp.util.CoreMap;
+
+/**
+ * The OpenIE pipeline shared by the extractors. Texts annotated by concurrent
+ * requests are gathered into micro-batches, and every batch is annotated in a
+ * single multi-threaded pass of the pipeline.
+ * 
+ * The batches are configured by {@code nlp.batchSize} (default 16 texts),
+ * {@code nlp.lingerMillis} (default 5) and {@code nlp.threads} (default the
+ * number of available processors). The texts of interactive tasks are put into
+ * the batches before those of bulk tasks, unless a bulk text has waited longer
+ * than {@code nlp.maxBulkWaitMillis} (default 1000). Texts of at least
+ * {@code nlp.parallelSentenceMinLength} characters (default 200) are split into
+ * sentences first, so that their sentences are annotated in parallel. If
+ * {@code annotationStore.directory} is set, annotated texts are persisted
+ * there and loaded instead of being annotated again.
+ */
+public class OpenIEPipeline {
+
+    private static final String ANNOTATORS = "tokenize,ssplit,pos,lemma,depparse,natlog,openie";
+
+    private static OpenIEPipeline instance;
+
+    private final StanfordCoreNLP pipeline;
+    private final MicroBatcher<Annotation, Annotation> batcher;
+    private final int threads;
+    private final int parallelSentenceMinLength;
+    private final AnnotationStore store;
+
+    private OpenIEPipeline() {
+        Properties props = new Properties();
+        props.setProperty("annotators", ANNOTATORS);
+        pipeline = new StanfordCoreNLP(props);
+        String storeDirectory = ServiceConfig.getString("annotationStore.directory", null);
+        store = new AnnotationStore(storeDirectory == null ? null : Path.of(storeDirectory), ANNOTATORS);
+        threads = ServiceConfig.getInt("nlp.threads", Runtime.getRuntime().availableProcessors());
+        parallelSentenceMinLength = ServiceConfig.getInt("nlp.parallelSentenceMinLength", 200);
+        batcher = new MicroBatcher<>("openie-batcher", this::annotateBatch, ServiceConfig.getInt("nlp.batchSize", 16),
+                ServiceConfig.getLong("nlp.lingerMillis", 5), ServiceConfig.getLong("nlp.maxBulkWaitMillis", 1000));
+    }
+
+    /**
+     * Returns the shared pipeline, loading the models on first use.
+     * 
+     * @return the shared pipeline
+     */
+    public static synchronized OpenIEPipeline getInstance() {
+        if (instance == null) {
+            instance = new OpenIEPipeline();
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the shared pipeline without loading the models.
+     * 
+     * @return the shared pipeline or {@code null} if it has not been used yet
+     */
+    public static synchronized OpenIEPipeline getLoadedInstance() {
+        return instance;
+    }
+
+    private List<Annotation> annotateBatch(List<Annotation> annotations) {
+        if (annotations.size() == 1) {
+            pipeline.annotate(annotations.get(0));
+        } else {
+            pipeline.annotate(annotations, Math.min(threads, annotations.size()));
+        }
+        return new ArrayList<>(annotations);
+    }
+
+    /**
+     * Annotates a text within the next batch.
+     * 
+     * @param text the text to be annotated
+     * @return the annotated text
+     */
+    public Annotation annotate(String text) {
+        return annotateAll(List.of(text)).get(0);
+    }
+
+    /**
+     * Annotates a text sentence by sentence. Long texts are split into
+     * sentences, which are annotated as separate texts of the batches and
+     * therefore in parallel. Since all annotators of the pipeline work on
+     * single sentences, the result does not depend on the splitting.
+     * 
+     * @param text the text to be annotated
+     * @return the annotated sentences in their order of occurrence
+     */
+    public List<AnnotatedSentence> annotateSentences(String text) {
+        List<Sentence> parts = text.length() < parallelSentenceMinLength ? List.of(new Sentence(text, 0))
+                : SentenceSplitter.split(text);
+        List<String> texts = new ArrayList<>(parts.size());
+        for (Sentence part : parts) {
+            texts.add(part.getText());
+        }
+        List<Annotation> annotations = annotateAll(texts);
+        List<AnnotatedSentence> sentences = new ArrayList<>();
+        for (int i = 0; i < parts.size(); i++) {
+            for (CoreMap sentence : annotations.get(i).get(CoreAnnotations.SentencesAnnotation.class)) {
+                sentences.add(new AnnotatedSentence(sentence, parts.get(i).getStartPosition()));
+            }
+        }
+        return sentences;
+    }
+
+    /**
+     * Annotates texts within the next batches and waits until all of them are
+     * annotated. The texts have the priority of the task of the scheduler that
+     * is running on the current thread.
+     * 
+     * @param texts the texts to be annotated
+     * @return the annotated texts in the same order
+     */
+    public List<Annotation> annotateAll(List<String> texts) {
+        return annotateAll(texts, PriorityScheduler.getCurrentPriority());
+    }
+
+    /**
+     * Annotates texts within the next batches and waits until all of them are
+     * annotated.
+     * 
+     * @param texts    the texts to be annotated
+     * @param priority the priority class of the texts in the batches
+     * @return the annotated texts in the same order
+     */
+    public List<Annotation> annotateAll(List<String> texts, Priority priority) {
+        List<CompletableFuture<Annotation>> futures = new ArrayList<>(texts.size());
+        boolean[] stored = new boolean[texts.size()];
+        for (int i = 0; i < texts.size(); i++) {
+            Annotation storedAnnotation = store.load(texts.get(i));
+            stored[i] = storedAnnotation != null;
+            futures.add(stored[i] ? CompletableFuture.completedFuture(storedAnnotation)
+                    : batcher.submit(priority, new Annotation(texts.get(i))));
+        }
+        List<Annotation> annotations = new ArrayList<>(texts.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                Annotation annotation = futures.get(i).get();
+                if (!stored[i]) {
+                    store.store(texts.get(i), annotation);
+                }
+                annotations.add(annotation);
+            }
+            return annotations;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException e) {
+            // the texts are not annotated if their batches have not started
+            // yet
+            for (CompletableFuture<Annotation> future : futures) {
+                future.cancel(false);
+            }
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for the annotation.");
+        }
+    }
+
+    /**
+     * Adds the batch configuration and statistics to the metrics of the
+     * service.
+     * 
+     * @param metrics the metrics of the /status response
+     */
+    public void addMetrics(JsonObject metrics) {
+        metrics.addProperty("nlp_batch_size", batcher.getMaxBatchSize());
+        metrics.addProperty("nlp_linger_millis", batcher.getLingerMillis());
+        metrics.addProperty("nlp_max_bulk_wait_millis", batcher.getMaxBulkWaitMillis());
+        metrics.addProperty("nlp_interactive_queue_size", batcher.getQueueSize(Priority.INTERACTIVE));
+        metrics.addProperty("nlp_bulk_queue_size", batcher.getQueueSize(Priority.BULK));
+        metrics.addProperty("nlp_batches", batcher.getBatches());
+        metrics.addProperty("nlp_avg_batch_size", batcher.getAverageBatchSize());
+        metrics.addProperty("nlp_stored_annotations_loaded", store.getLoaded());
+    }
+}
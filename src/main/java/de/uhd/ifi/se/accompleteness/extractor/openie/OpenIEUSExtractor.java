@@ -1,21 +1,19 @@
 package de.uhd.ifi.se.accompleteness.extractor.openie;
 
+import de.uhd.ifi.se.accompleteness.ServiceConfig;
+import de.uhd.ifi.se.accompleteness.cache.SentenceCache;
+import de.uhd.ifi.se.accompleteness.concurrent.SingleFlight;
 import de.uhd.ifi.se.accompleteness.extractor.ExtractionParams;
 import de.uhd.ifi.se.accompleteness.extractor.USExtractor;
 import de.uhd.ifi.se.accompleteness.extractor.openie.util.StringSimilarity;
 import de.uhd.ifi.se.accompleteness.model.UserStory;
 import edu.stanford.nlp.ie.util.RelationTriple;
-import edu.stanford.nlp.ling.CoreAnnotations;
 import edu.stanford.nlp.naturalli.NaturalLogicAnnotations;
-import edu.stanford.nlp.pipeline.Annotation;
-import edu.stanford.nlp.pipeline.StanfordCoreNLP;
 import edu.stanford.nlp.util.CoreMap;
 
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.List;
-import java.util.Properties;
 
 import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
 import de.uhd.ifi.se.accompleteness.model.Relationship;
@@ -25,64 +23,134 @@ public class OpenIEUSExtractor implements USExtractor {
 
     private static final List<String> exclude_tokens = Arrays.asList("I");
 
-    StanfordCoreNLP pipeline;
+    /**
+     * Deduplicates concurrent extractions of the same goal, e.g., from
+     * overlapping datasets sent at the same time.
+     */
+    private static final SingleFlight<String, ExtractionResult> IN_FLIGHT = new SingleFlight<>(
+            ServiceConfig.getLong("singleFlight.timeoutMillis", 600000));
+
+    /**
+     * The triples of goals, which do not depend on the params, so that
+     * requests with other params only repeat the filtering.
+     */
+    private static final SentenceCache RAW_TRIPLES = new SentenceCache(
+            ServiceConfig.getInt("sentenceCache.capacity", 10000));
+
+    OpenIEPipeline pipeline;
 
     public OpenIEUSExtractor() {
-        Properties props = new Properties();
-        props.setProperty("annotators", "tokenize,ssplit,pos,lemma,depparse,natlog,openie");
-        pipeline = new StanfordCoreNLP(props);
+        pipeline = OpenIEPipeline.getInstance();
     }
 
     public ExtractionResult extract(UserStory userStory, ExtractionParams params) {
-        OpenIEExtractionParams paramsOpenIE = (OpenIEExtractionParams) params;
-        String userStoryString = userStory.getGoal();
+        // only the filtering of the triples depends on the params
+        ExtractionResult rawResult = extractRaw(userStory.getGoal());
+        return filterTopics(rawResult, userStory.getGoalStartPosition(), (OpenIEExtractionParams) params);
+    }
 
-        List<Topic> topics = new ArrayList<Topic>();
-        List<Relationship> relationships = new ArrayList<>();
+    /**
+     * Extracts the triples of a goal independently of any params. The triples
+     * are cached by the goal text.
+     * 
+     * @param goal the goal of a user story
+     * @return a result whose relationships are all triples of the goal in
+     *         their order of occurrence, including repeated ones, and whose
+     *         topics are the distinct topics of the triples; all positions are
+     *         relative to the start of the goal
+     */
+    @Override
+    public ExtractionResult extractRaw(String goal) {
+        ExtractionResult cachedResult = RAW_TRIPLES.get(goal);
+        if (cachedResult != null) {
+            return cachedResult;
+        }
+        return IN_FLIGHT.execute(goal, () -> {
+            ExtractionResult rawResult = annotateTriples(goal);
+            RAW_TRIPLES.put(goal, rawResult);
+            return rawResult;
+        });
+    }
 
-        // Set up the NLP pipeline and annotate the preprocessed user story
-        // string
-        Annotation document = new Annotation(userStoryString);
-        pipeline.annotate(document);
+    private ExtractionResult annotateTriples(String goal) {
+        List<Topic> topics = new ArrayList<Topic>();
+        List<Relationship> triples = new ArrayList<>();
 
-        for (CoreMap sentence : document.get(CoreAnnotations.SentencesAnnotation.class)) {
+        // Annotate the preprocessed user story string with the shared NLP
+        // pipeline, long goals sentence by sentence in parallel
+        for (AnnotatedSentence annotatedSentence : pipeline.annotateSentences(goal)) {
+            CoreMap sentence = annotatedSentence.getAnnotation();
+            int offset = annotatedSentence.toTextPosition(0);
             // Get the OpenIE triples for the sentence
-            Collection<RelationTriple> triples = sentence.get(NaturalLogicAnnotations.RelationTriplesAnnotation.class);
-            
-            for (RelationTriple triple : triples) {
+            for (RelationTriple triple : sentence.get(NaturalLogicAnnotations.RelationTriplesAnnotation.class)) {
                 System.out.println(triple.confidence);
                 if (triple.confidence > 0.5) { // confidence will always be 1.0
                     Topic subjectTopic = new Topic(triple.subjectLemmaGloss(), triple.subject.get(0).tag(),
-                            userStory.getGoalStartPosition() + triple.subject.get(0).beginPosition(),
-                            userStory.getGoalStartPosition() + triple.subject.get(triple.subject.size() - 1).endPosition());
+                            offset + triple.subject.get(0).beginPosition(),
+                            offset + triple.subject.get(triple.subject.size() - 1).endPosition());
                     Topic objectTopic = new Topic(triple.objectLemmaGloss(), triple.object.get(0).tag(),
-                            userStory.getGoalStartPosition() + triple.object.get(0).beginPosition(),
-                            userStory.getGoalStartPosition() + triple.object.get(triple.object.size() - 1).endPosition());
-                    Relationship relationship = new Relationship(subjectTopic, objectTopic,
-                            triple.relationLemmaGloss());
+                            offset + triple.object.get(0).beginPosition(),
+                            offset + triple.object.get(triple.object.size() - 1).endPosition());
+                    triples.add(new Relationship(subjectTopic, objectTopic, triple.relationLemmaGloss()));
                     if (!(topics.contains(subjectTopic))) {
-                        if (paramsOpenIE.isFilterUSTopicsSimilarity()) {
-                            if (check_sim_threshold(topics, subjectTopic, paramsOpenIE)) {
-                                topics.add(subjectTopic);
-                            }
-                        } else {
-                            topics.add(subjectTopic);
-                        }
+                        topics.add(subjectTopic);
                     }
                     if (!(topics.contains(objectTopic))) {
-                        if (paramsOpenIE.isFilterUSTopicsSimilarity()) {
-                            if (check_sim_threshold(topics, objectTopic, paramsOpenIE)) {
-                                topics.add(objectTopic);
-                            }
-                        } else {
-                            topics.add(objectTopic);
-                        }
+                        topics.add(objectTopic);
+                    }
+                }
+            }
+        }
+        return new ExtractionResult(triples, topics);
+    }
+
+    /**
+     * Creates the topics and relationships of a user story from the triples of
+     * its goal according to the params. Topics of the goal that are not part of
+     * any triple are filtered in the same way.
+     * 
+     * @param rawResult         the triples and topics of the goal
+     * @param goalStartPosition the position of the goal in the user story
+     * @param paramsOpenIE      the params of the filters
+     * @return the topics and relationships of the user story
+     */
+    public static ExtractionResult filterTopics(ExtractionResult rawResult, int goalStartPosition,
+            OpenIEExtractionParams paramsOpenIE) {
+        List<Topic> topics = new ArrayList<Topic>();
+        List<Relationship> relationships = new ArrayList<>();
+
+        for (Relationship triple : rawResult.getRelationships()) {
+            Topic subjectTopic = triple.getLeftTopic().shift(goalStartPosition);
+            Topic objectTopic = triple.getRightTopic().shift(goalStartPosition);
+            Relationship relationship = new Relationship(subjectTopic, objectTopic, triple.getRelationship());
+            if (!(topics.contains(subjectTopic))) {
+                if (paramsOpenIE.isFilterUSTopicsSimilarity()) {
+                    if (check_sim_threshold(topics, subjectTopic, paramsOpenIE)) {
+                        topics.add(subjectTopic);
                     }
-                    if (!(relationships.contains(relationship))) {
-                        relationships.add(relationship);
+                } else {
+                    topics.add(subjectTopic);
+                }
+            }
+            if (!(topics.contains(objectTopic))) {
+                if (paramsOpenIE.isFilterUSTopicsSimilarity()) {
+                    if (check_sim_threshold(topics, objectTopic, paramsOpenIE)) {
+                        topics.add(objectTopic);
                     }
+                } else {
+                    topics.add(objectTopic);
                 }
             }
+            if (!(relationships.contains(relationship))) {
+                relationships.add(relationship);
+            }
+        }
+        for (Topic rawTopic : rawResult.getTopics()) {
+            Topic topic = rawTopic.shift(goalStartPosition);
+            if (!(topics.contains(topic))
+                    && (!paramsOpenIE.isFilterUSTopicsSimilarity() || check_sim_threshold(topics, topic, paramsOpenIE))) {
+                topics.add(topic);
+            }
         }
         if (paramsOpenIE.isFilterUSTopicsExcludeList()) {
             topics = filter_topics(topics);
@@ -93,7 +161,7 @@ public class OpenIEUSExtractor implements USExtractor {
         return new ExtractionResult(relationships, topics);
     }
 
-    private boolean check_sim_threshold(List<Topic> topics, Topic topic, OpenIEExtractionParams params) {
+    private static boolean check_sim_threshold(List<Topic> topics, Topic topic, OpenIEExtractionParams params) {
 
         for (Topic topic1Topic : topics) {
             double similarity = StringSimilarity.similarity(topic1Topic.toString(), topic.toString());
@@ -104,7 +172,7 @@ public class OpenIEUSExtractor implements USExtractor {
         return true;
     }
 
-    private List<Topic> filterCompositeTopics(List<Topic> topics, OpenIEExtractionParams params) {
+    private static List<Topic> filterCompositeTopics(List<Topic> topics, OpenIEExtractionParams params) {
         List<Topic> resultTopics = new ArrayList<>();
         for (Topic topic : topics) {
             String topicString = topic.toString();
@@ -124,7 +192,7 @@ public class OpenIEUSExtractor implements USExtractor {
         return resultTopics;
     }
 
-    private List<Topic> filter_topics(List<Topic> topics) {
+    private static List<Topic> filter_topics(List<Topic> topics) {
         List<Topic> resultTopics = new ArrayList<>();
         for (Topic topic : topics) {
             if (!exclude_tokens.contains(topic.toString())) {
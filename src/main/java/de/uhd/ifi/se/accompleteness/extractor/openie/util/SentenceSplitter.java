@@ -0,0 +1,46 @@
+package de.uhd.ifi.se.accompleteness.extractor.openie.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import de.uhd.ifi.se.accompleteness.model.Sentence;
+import edu.stanford.nlp.ling.CoreAnnotations;
+import edu.stanford.nlp.pipeline.Annotation;
+import edu.stanford.nlp.pipeline.StanfordCoreNLP;
+import edu.stanford.nlp.util.CoreMap;
+
+/**
+ * Splits a text into sentences the same way as the OpenIE pipeline does, but
+ * without running the expensive annotators.
+ */
+public class SentenceSplitter {
+
+    private static StanfordCoreNLP pipeline;
+
+    private static synchronized StanfordCoreNLP getPipeline() {
+        if (pipeline == null) {
+            Properties props = new Properties();
+            props.setProperty("annotators", "tokenize,ssplit");
+            pipeline = new StanfordCoreNLP(props);
+        }
+        return pipeline;
+    }
+
+    /**
+     * Splits a text into sentences.
+     * 
+     * @param text the text to be split
+     * @return the sentences of the text in their order of occurrence
+     */
+    public static List<Sentence> split(String text) {
+        Annotation document = new Annotation(text);
+        getPipeline().annotate(document);
+        List<Sentence> sentences = new ArrayList<>();
+        for (CoreMap sentence : document.get(CoreAnnotations.SentencesAnnotation.class)) {
+            sentences.add(new Sentence(sentence.get(CoreAnnotations.TextAnnotation.class),
+                    sentence.get(CoreAnnotations.CharacterOffsetBeginAnnotation.class)));
+        }
+        return sentences;
+    }
+}
@@ -1,22 +1,125 @@
 package de.uhd.ifi.se.accompleteness.model;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
 public class CompletenessCalcResult {
 
+    /**
+     * Whether the completeness of a user story could be calculated.
+     */
+    public enum Status {
+        COMPLETED, TIMEOUT
+    }
+
+    Status status = Status.COMPLETED;
+    String userStoryId;
     double completeness;
     List<Topic> usTopics;
     List<Topic> acTopics;
     Map<Topic, Topic> matchedTopics;
     UserStory userStory;
 
+    /**
+     * The completeness of the user story by the name of every calculator
+     * selected by the params, or {@code null} if the result was not calculated
+     * by the {@link de.uhd.ifi.se.accompleteness.calculation.CalculatorRegistry}.
+     */
+    Map<String, Double> completenessByCalculator;
+
+    /**
+     * The user story topics matched by topics of the shared acceptance
+     * criteria instead of the own acceptance criteria of the user story, or
+     * {@code null} if the params have no shared acceptance criteria.
+     */
+    Map<Topic, Topic> poolMatchedTopics;
+
     public CompletenessCalcResult(double completeness, List<Topic> usTopics, List<Topic> acTopics, Map<Topic, Topic> matchedTopics, UserStory userStory) {
         this.matchedTopics = matchedTopics;
         this.completeness = completeness;
         this.usTopics = usTopics;
         this.acTopics = acTopics;
         this.userStory = userStory;
+        this.userStoryId = userStory.getId();
+    }
+
+    private CompletenessCalcResult() {
+        this.usTopics = List.of();
+        this.acTopics = List.of();
+        this.matchedTopics = Map.of();
+    }
+
+    /**
+     * Creates the result of a user story that exceeded its time budget and has
+     * no completeness.
+     * 
+     * @param userStoryId the ID of the user story
+     * @return the result with the status {@link Status#TIMEOUT}
+     */
+    public static CompletenessCalcResult timedOut(String userStoryId) {
+        CompletenessCalcResult result = new CompletenessCalcResult();
+        result.status = Status.TIMEOUT;
+        result.userStoryId = userStoryId;
+        return result;
+    }
+
+    /**
+     * Creates a copy of the result for another user story with the same
+     * content.
+     * 
+     * @param userStory the other user story
+     * @return the result of the other user story
+     */
+    public CompletenessCalcResult withUserStory(UserStory userStory) {
+        CompletenessCalcResult result = new CompletenessCalcResult(completeness, usTopics, acTopics, matchedTopics,
+                userStory);
+        result.completenessByCalculator = completenessByCalculator;
+        result.poolMatchedTopics = poolMatchedTopics;
+        return result;
+    }
+
+    /**
+     * Creates a copy of the result for another user story whose texts differ
+     * only in whitespace, with the positions of the topics in its texts.
+     * 
+     * @param userStory   the other user story
+     * @param usAlignment the alignment of the user story texts
+     * @param acAlignment the alignment of the acceptance criteria texts
+     * @return the result of the other user story
+     */
+    public CompletenessCalcResult withUserStory(UserStory userStory, TextAlignment usAlignment,
+            TextAlignment acAlignment) {
+        Map<Topic, Topic> alignedMatchedTopics = new LinkedHashMap<>();
+        matchedTopics.forEach((usTopic, acTopic) -> alignedMatchedTopics.put(usAlignment.map(usTopic),
+                acAlignment.map(acTopic)));
+        CompletenessCalcResult result = new CompletenessCalcResult(completeness, align(usTopics, usAlignment),
+                align(acTopics, acAlignment), alignedMatchedTopics, userStory);
+        result.completenessByCalculator = completenessByCalculator;
+        if (poolMatchedTopics != null) {
+            // the pool topics have positions in the shared acceptance criteria
+            result.poolMatchedTopics = new LinkedHashMap<>();
+            poolMatchedTopics.forEach(
+                    (usTopic, poolTopic) -> result.poolMatchedTopics.put(usAlignment.map(usTopic), poolTopic));
+        }
+        return result;
+    }
+
+    private static List<Topic> align(List<Topic> topics, TextAlignment alignment) {
+        List<Topic> alignedTopics = new ArrayList<>();
+        for (Topic topic : topics) {
+            alignedTopics.add(alignment.map(topic));
+        }
+        return alignedTopics;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getUserStoryId() {
+        return userStoryId;
     }
 
     public double getCompleteness() {
@@ -51,6 +154,14 @@ public class CompletenessCalcResult {
         this.userStory = userStory;
     }
 
+    public Map<String, Double> getCompletenessByCalculator() {
+        return completenessByCalculator;
+    }
+
+    public void setCompletenessByCalculator(Map<String, Double> completenessByCalculator) {
+        this.completenessByCalculator = completenessByCalculator;
+    }
+
     public Map<Topic, Topic> getMatchedTopics() {
         return matchedTopics;
     }
@@ -58,4 +169,12 @@ public class CompletenessCalcResult {
     public void setMatchedTopics(Map<Topic, Topic> matchedTopics) {
         this.matchedTopics = matchedTopics;
     }
+
+    public Map<Topic, Topic> getPoolMatchedTopics() {
+        return poolMatchedTopics;
+    }
+
+    public void setPoolMatchedTopics(Map<Topic, Topic> poolMatchedTopics) {
+        this.poolMatchedTopics = poolMatchedTopics;
+    }
 }
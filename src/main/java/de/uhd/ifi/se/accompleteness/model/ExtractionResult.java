@@ -1,5 +1,6 @@
 package de.uhd.ifi.se.accompleteness.model;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class ExtractionResult {
@@ -18,4 +19,34 @@ public class ExtractionResult {
     public List<Topic> getTopics() {
         return topics;
     }
+
+    /**
+     * Merges the results of single sentences into the result of the whole
+     * text. Topics and relationships found in more than one sentence are only
+     * kept at their first occurrence, and the positions of the topics are
+     * moved to be relative to the start of the text.
+     * 
+     * @param sentenceResults the results of the sentences in the order of the
+     *                        sentences
+     * @return the result of the whole text
+     */
+    public static ExtractionResult merge(List<? extends SentenceExtractionResult> sentenceResults) {
+        List<Topic> topics = new ArrayList<>();
+        List<Relationship> relationships = new ArrayList<>();
+        for (SentenceExtractionResult sentenceResult : sentenceResults) {
+            int offset = sentenceResult.getSentence().getStartPosition();
+            for (Topic topic : sentenceResult.getTopics()) {
+                if (!(topics.contains(topic))) {
+                    topics.add(topic.shift(offset));
+                }
+            }
+            for (Relationship relationship : sentenceResult.getRelationships()) {
+                if (!(relationships.contains(relationship))) {
+                    relationships.add(new Relationship(relationship.left_topic.shift(offset),
+                            relationship.right_topic.shift(offset), relationship.relationship));
+                }
+            }
+        }
+        return new ExtractionResult(relationships, topics);
+    }
 }
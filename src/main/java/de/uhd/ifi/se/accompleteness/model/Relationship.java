@@ -11,6 +11,18 @@ public class Relationship {
         this.relationship = relationship;
     }
 
+    public Topic getLeftTopic() {
+        return left_topic;
+    }
+
+    public Topic getRightTopic() {
+        return right_topic;
+    }
+
+    public String getRelationship() {
+        return relationship;
+    }
+
     @Override
     public boolean equals(Object arg0) {
         if (!(arg0 instanceof Relationship)) {
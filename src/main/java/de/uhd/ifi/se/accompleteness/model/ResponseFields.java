@@ -0,0 +1,107 @@
+package de.uhd.ifi.se.accompleteness.model;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * The fields of the results of the user stories that are contained in a
+ * response, selected by the optional param {@code fields}. Fields that are not
+ * selected are not computed at all, which saves most of the time and size of
+ * responses without {@code mapping} and {@code acMapping}. The fields
+ * {@code id} and {@code status} are always contained, and without the param
+ * all fields are.
+ */
+public class ResponseFields {
+
+    /**
+     * The fields that can be selected, in the order of the results.
+     */
+    public static final List<String> NAMES = List.of("user_story_text", "user_story_goal",
+            "acceptance_criteria_text", "mapping", "acMapping", "completeness", "completeness_by_calculator",
+            "pool_matches", "user_story_topics", "acceptance_criteria_topics", "near_duplicate_cluster");
+
+    /**
+     * All fields, as in responses without the param {@code fields}.
+     */
+    public static final ResponseFields ALL = new ResponseFields(NAMES);
+
+    private final Set<String> selected;
+
+    /**
+     * Creates a selection of fields.
+     *
+     * @param fields the names of the selected fields
+     * @throws IllegalArgumentException if a name is not in {@link #NAMES}
+     */
+    public ResponseFields(Iterable<String> fields) {
+        selected = new LinkedHashSet<>();
+        for (String field : fields) {
+            if (!NAMES.contains(field)) {
+                throw new IllegalArgumentException("Unknown field " + field + ", the fields are " + NAMES);
+            }
+            selected.add(field);
+        }
+    }
+
+    /**
+     * Reads the optional param {@code fields}, either an array of field names
+     * or a string of field names separated by commas.
+     *
+     * @param params the params of the request
+     * @return the selected fields, or {@link #ALL} without the param
+     */
+    public static ResponseFields fromJson(JsonObject params) {
+        if (!params.has("fields")) {
+            return ALL;
+        }
+        JsonElement fields = params.get("fields");
+        Set<String> names = new LinkedHashSet<>();
+        if (fields.isJsonArray()) {
+            for (JsonElement field : fields.getAsJsonArray()) {
+                names.add(field.getAsString().trim());
+            }
+        } else {
+            for (String field : fields.getAsString().split(",")) {
+                if (!field.isBlank()) {
+                    names.add(field.trim());
+                }
+            }
+        }
+        return new ResponseFields(names);
+    }
+
+    /**
+     * Determines whether a field is selected.
+     *
+     * @param field the name of the field
+     * @return {@code true} if the field is computed
+     */
+    public boolean contains(String field) {
+        return selected.contains(field);
+    }
+
+    /**
+     * Returns a selection with additional fields.
+     *
+     * @param fields the names of the additional fields
+     * @return the selection of these and the additional fields
+     */
+    public ResponseFields with(List<String> fields) {
+        Set<String> names = new LinkedHashSet<>(selected);
+        names.addAll(fields);
+        return new ResponseFields(names);
+    }
+
+    /**
+     * Returns the selected fields.
+     *
+     * @return the names of the selected fields in the order of selection
+     */
+    public Set<String> getNames() {
+        return selected;
+    }
+}
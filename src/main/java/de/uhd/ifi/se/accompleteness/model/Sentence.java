@@ -0,0 +1,32 @@
+package de.uhd.ifi.se.accompleteness.model;
+
+/**
+ * A sentence of a text, e.g., a single acceptance criterion, together with its
+ * position in the text.
+ */
+public class Sentence {
+    String text;
+    int startPosition;
+
+    public Sentence(String text, int startPosition) {
+        this.text = text;
+        this.startPosition = startPosition;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getStartPosition() {
+        return startPosition;
+    }
+
+    public int getEndPosition() {
+        return startPosition + text.length();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,24 @@
+package de.uhd.ifi.se.accompleteness.model;
+
+import java.util.List;
+
+/**
+ * The topics and relationships extracted from a single sentence. The positions
+ * of the topics are relative to the start of the sentence.
+ */
+public class SentenceExtractionResult extends ExtractionResult {
+    Sentence sentence;
+
+    public SentenceExtractionResult(Sentence sentence, List<Relationship> relationships, List<Topic> topics) {
+        super(relationships, topics);
+        this.sentence = sentence;
+    }
+
+    public SentenceExtractionResult(Sentence sentence, ExtractionResult result) {
+        this(sentence, result.getRelationships(), result.getTopics());
+    }
+
+    public Sentence getSentence() {
+        return sentence;
+    }
+}
@@ -0,0 +1,116 @@
+package de.uhd.ifi.se.accompleteness.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Maps the positions in a text to the positions in another text that differs
+ * only in whitespace, so that the topics extracted from one text can be
+ * reported for the other text.
+ */
+public class TextAlignment {
+
+    /**
+     * The number of characters that are not whitespace before every position
+     * of the source text.
+     */
+    private final int[] charactersBefore;
+
+    /**
+     * The positions of the characters of the target text that are not
+     * whitespace.
+     */
+    private final int[] targetPositions;
+
+    private final int targetLength;
+
+    /**
+     * Aligns two texts.
+     *
+     * @param source the text of the positions to map
+     * @param target the text with the same characters apart from whitespace
+     * @throws IllegalArgumentException if the texts differ in other characters
+     *                                  than whitespace
+     */
+    public TextAlignment(String source, String target) {
+        charactersBefore = new int[source.length() + 1];
+        StringBuilder sourceCharacters = new StringBuilder();
+        for (int i = 0; i < source.length(); i++) {
+            charactersBefore[i] = sourceCharacters.length();
+            if (!Character.isWhitespace(source.charAt(i))) {
+                sourceCharacters.append(source.charAt(i));
+            }
+        }
+        charactersBefore[source.length()] = sourceCharacters.length();
+
+        targetPositions = new int[sourceCharacters.length()];
+        int k = 0;
+        for (int i = 0; i < target.length(); i++) {
+            if (!Character.isWhitespace(target.charAt(i))) {
+                if (k == targetPositions.length || target.charAt(i) != sourceCharacters.charAt(k)) {
+                    throw new IllegalArgumentException("The texts differ in other characters than whitespace");
+                }
+                targetPositions[k++] = i;
+            }
+        }
+        if (k != targetPositions.length) {
+            throw new IllegalArgumentException("The texts differ in other characters than whitespace");
+        }
+        targetLength = target.length();
+    }
+
+    /**
+     * Maps the start position of a span, which is moved to the next character
+     * that is not whitespace.
+     *
+     * @param position a position in the source text
+     * @return the position in the target text
+     */
+    public int mapStart(int position) {
+        int k = charactersBefore[Math.max(0, Math.min(position, charactersBefore.length - 1))];
+        return k < targetPositions.length ? targetPositions[k] : targetLength;
+    }
+
+    /**
+     * Maps the exclusive end position of a span, which is moved to just after
+     * the previous character that is not whitespace.
+     *
+     * @param position a position in the source text
+     * @return the position in the target text
+     */
+    public int mapEnd(int position) {
+        int k = charactersBefore[Math.max(0, Math.min(position, charactersBefore.length - 1))];
+        return k == 0 ? 0 : targetPositions[k - 1] + 1;
+    }
+
+    /**
+     * Creates a copy of a topic with the positions in the target text.
+     *
+     * @param topic a topic with positions in the source text
+     * @return the topic with positions in the target text
+     */
+    public Topic map(Topic topic) {
+        return new Topic(topic.toString(), topic.getTag(), mapStart(topic.getStartPosition()),
+                mapEnd(topic.getEndPosition()));
+    }
+
+    /**
+     * Creates a copy of an extraction result with the positions of its topics
+     * in the target text.
+     *
+     * @param result an extraction result with positions in the source text
+     * @return the extraction result with positions in the target text
+     */
+    public ExtractionResult map(ExtractionResult result) {
+        List<Topic> topics = new ArrayList<>();
+        for (Topic topic : result.getTopics()) {
+            topics.add(map(topic));
+        }
+        List<Relationship> relationships = new ArrayList<>();
+        for (Relationship relationship : result.getRelationships()) {
+            relationships.add(new Relationship(map(relationship.getLeftTopic()), map(relationship.getRightTopic()),
+                    relationship.getRelationship()));
+        }
+        return new ExtractionResult(relationships, topics);
+    }
+}
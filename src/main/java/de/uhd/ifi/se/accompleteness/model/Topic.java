@@ -43,6 +43,20 @@ public class Topic  {
         return endPosition;
     }
 
+    public String getTag() {
+        return tag;
+    }
+
+    /**
+     * Creates a copy of the topic whose positions are moved by an offset.
+     * 
+     * @param offset the number of characters the positions are moved by
+     * @return the moved topic
+     */
+    public Topic shift(int offset) {
+        return new Topic(topic, tag, startPosition + offset, endPosition + offset);
+    }
+
     @Override
     public String toString() {
         return topic;
@@ -56,4 +70,9 @@ public class Topic  {
         Topic t = (Topic) arg0;
         return t.topic.equals(this.topic);
     }
+
+    @Override
+    public int hashCode() {
+        return topic.hashCode();
+    }
 }
\ No newline at end of file
@@ -51,6 +51,23 @@ public class UserStory {
     String id;
     String acceptanceCriteria;
 
+    /**
+     * Three or more dots, which are not to be interpreted as a sentence
+     * ending.
+     */
+    private static final Pattern MULTIPLE_DOTS = Pattern.compile("\\.{3,}");
+
+    /**
+     * A bullet point list or a note after a line break.
+     */
+    private static final Pattern LIST_OR_NOTE = Pattern.compile("\\R\\s*(\\*|-|\\\\\\\\)\\s");
+
+    /**
+     * Common abbreviations whose period is not a sentence period.
+     */
+    private static final List<String> ABBREVIATIONS = Arrays.asList("e.g.", "etc.", "approx.", "i.e.", "cf.",
+            "encl.", "p.a.", "Dr.", "Prof.", "no.");
+
     public String getAcceptanceCriteria() {
         return acceptanceCriteria;
     }
@@ -80,7 +97,7 @@ public class UserStory {
         this.acceptanceCriteria = acceptanceCriteria;
         // also replaces three or more dots by the character “…” so that
         // multiple dots are not interpreted as a sentence ending.
-        identifyParts(userStoryString.replaceAll("\\.{3,}", "…"));
+        identifyParts(MULTIPLE_DOTS.matcher(userStoryString).replaceAll("…"));
         this.id = id;
     };
 
@@ -94,20 +111,17 @@ public class UserStory {
      * @see UserStory
      */
     private void identifyParts(String userStoryString) throws NoUserStoryException {
-        int indexAsA = userStoryString.toUpperCase().indexOf("AS A", 0);
+        int indexAsA = indexOfIgnoreCase(userStoryString, 0, userStoryString.length(), "AS A", 0);
         if (indexAsA == -1) {
             // if a user story does not contain a role specified using the
             // syntax “As a(n) [role]”
-            indexAsA = userStoryString.toUpperCase().indexOf("AS THE");
+            indexAsA = indexOfIgnoreCase(userStoryString, 0, userStoryString.length(), "AS THE", 0);
             if (indexAsA == -1) {
                 throw new NoUserStoryException(
                         "A role could not be found. Please make sure the role of the user story is declared using the syntax \"As a(n) [role]\".");
             }
         }
 
-        // cut the user story string to start at the beginning of the role part
-        String shortenedUserStoryString = userStoryString.substring(indexAsA);
-
         // if the user story contains at one point a bullet point list or a
         // note possibly interrupting the user story sentence, the user story
         // string is cut before that interrupting. This is done because a
@@ -115,14 +129,16 @@ public class UserStory {
         // interrupts the NLP analysis of the user story sentence and it is
         // difficult to distinguish whether lines after such interruption
         // belong to the user story sentence or not.
-        int listOrNoteAfterStartOfUserStory = indexOfListOrNote(shortenedUserStoryString);
-        shortenedUserStoryString = shortenedUserStoryString.substring(0, listOrNoteAfterStartOfUserStory);
-        if (listOrNoteAfterStartOfUserStory < userStoryString.length()) {
-            // denoting to the user that information has been removed hereafter
-            shortenedUserStoryString += " […]";
-        }
-
-        int indexIWant = shortenedUserStoryString.toUpperCase().indexOf("I WANT", 0);
+        int listOrNoteAfterStartOfUserStory = indexOfListOrNote(userStoryString, indexAsA);
+        // the user story string is not copied, but its start at the
+        // beginning of the role part and its cut are only denoted by offsets
+        ShortenedString shortenedUserStoryString = new ShortenedString(userStoryString, indexAsA,
+                indexAsA + listOrNoteAfterStartOfUserStory,
+                // denoting to the user that information has been removed
+                // hereafter
+                listOrNoteAfterStartOfUserStory < userStoryString.length() ? " […]" : "");
+
+        int indexIWant = shortenedUserStoryString.indexOfIgnoreCase("I WANT", 0);
         if (indexIWant == -1) {
             // if a user story does not contain a goal specified using the
             // syntax “I want [goal]”
@@ -135,9 +151,9 @@ public class UserStory {
         // some sanitizing happens here, i.e., remove asterisks (usually used
         // for formatting) and replace multiple whitespace characters by a
         // single space (also removing line breaks)
-        role = shortenedUserStoryString.substring(0, indexIWant).replaceAll("\\*", "").replaceAll("\\s+", " ");
+        role = shortenedUserStoryString.sanitizedSubstring(0, indexIWant);
 
-        int indexSoThat = shortenedUserStoryString.toUpperCase().indexOf("SO THAT", indexIWant);
+        int indexSoThat = shortenedUserStoryString.indexOfIgnoreCase("SO THAT", indexIWant);
         int indexSentencePeriod = findSentencePeriodOrEndOfString(shortenedUserStoryString, indexIWant);
         if (indexSoThat == -1 || indexSoThat > indexSentencePeriod) {
             // The user story does not contain a reason. That is okay, we can
@@ -145,17 +161,14 @@ public class UserStory {
             // reason was found and is asked to provide one.
 
             // some sanitizing happens here, see above.
-            goal = shortenedUserStoryString.substring(indexIWant, indexSentencePeriod).replaceAll("\\*", "")
-                    .replaceAll("\\s+", " ");
+            goal = shortenedUserStoryString.sanitizedSubstring(indexIWant, indexSentencePeriod);
             reason = "";
         } else {
             // The user story does contain a reason.
 
             // some sanitizing happens here, see above.
-            goal = shortenedUserStoryString.substring(indexIWant, indexSoThat).replaceAll("\\*", "").replaceAll("\\s+",
-                    " ");
-            reason = shortenedUserStoryString.substring(indexSoThat, indexSentencePeriod).replaceAll("\\*", "")
-                    .replaceAll("\\s+", " ");
+            goal = shortenedUserStoryString.sanitizedSubstring(indexIWant, indexSoThat);
+            reason = shortenedUserStoryString.sanitizedSubstring(indexSoThat, indexSentencePeriod);
         }
     }
 
@@ -167,32 +180,29 @@ public class UserStory {
      * @return {@code true} if the period at the index denotes the end of a
      *         sentence
      */
-    private boolean isSentenceEnding(String userStoryString, int indexOfPeriod) {
-        try {
-            List<String> abbreviations = Arrays.asList("e.g.", "etc.", "approx.", "i.e.", "cf.", "encl.", "p.a.", "Dr.",
-                    "Prof.", "no.");
-            if (Character.isWhitespace(userStoryString.charAt(indexOfPeriod + 1))) {
-                // here, the period is followed by a whitespace character
-                for (String abbreviation : abbreviations) {
-                    if (userStoryString.substring(0, indexOfPeriod + 1).endsWith(abbreviation)) {
-                        // here, the period is part of a common abbreviation,
-                        // i.e., it is not a sentence period
-                        return false;
-                    }
+    private boolean isSentenceEnding(CharSequence userStoryString, int indexOfPeriod) {
+        if (indexOfPeriod + 1 >= userStoryString.length()) {
+            // the period is not followed by any character and therefore is a
+            // sentence period
+            return true;
+        }
+        if (Character.isWhitespace(userStoryString.charAt(indexOfPeriod + 1))) {
+            // here, the period is followed by a whitespace character
+            for (String abbreviation : ABBREVIATIONS) {
+                if (endsWith(userStoryString, indexOfPeriod + 1, abbreviation)) {
+                    // here, the period is part of a common abbreviation,
+                    // i.e., it is not a sentence period
+                    return false;
                 }
-                // here, the period is followed by a whitespace character and
-                // not part of a common abbreviation, i.e., it is most likely a
-                // sentence period
-                return true;
             }
-            // here, the period is not followed by a whitespace character and
-            // thereby most likely not a sentence period
-            return false;
-        } catch (StringIndexOutOfBoundsException e) {
-            // If this exception is thrown, the period is not followed by any
-            // character and therefore is a sentence period
+            // here, the period is followed by a whitespace character and
+            // not part of a common abbreviation, i.e., it is most likely a
+            // sentence period
             return true;
         }
+        // here, the period is not followed by a whitespace character and
+        // thereby most likely not a sentence period
+        return false;
     }
 
     /**
@@ -205,12 +215,12 @@ public class UserStory {
      * @return the index of a sentence period in or the end of the string,
      *         whichever occurs first.
      */
-    private int findSentencePeriodOrEndOfString(String shortenedUserStoryString, int indexOfLastKeyword) {
+    private int findSentencePeriodOrEndOfString(ShortenedString shortenedUserStoryString, int indexOfLastKeyword) {
         int indexOfPeriod = indexOfLastKeyword;
         do {
             // find first period after the last period investigated (or the
             // index before which a sentence period shall be ignored)
-            indexOfPeriod = shortenedUserStoryString.indexOf(".", indexOfPeriod + 1);
+            indexOfPeriod = shortenedUserStoryString.indexOf('.', indexOfPeriod + 1);
 
             if (indexOfPeriod != -1 && isSentenceEnding(shortenedUserStoryString, indexOfPeriod)) {
                 // the period indeed denotes a sentence ending, so
@@ -250,21 +260,158 @@ public class UserStory {
      * with a newline character beforehand.
      * 
      * @param userStoryString the string to be searched
+     * @param start           the index at which the search starts
      * @return the index of a bullet point list, a note or the end of the
-     *         string, whichever occurs first.
+     *         string, whichever occurs first, relative to the start index.
      */
-    private int indexOfListOrNote(String userStoryString) {
-        Pattern newLineandStarOrDash = Pattern.compile("\\R\\s*(\\*|-|\\\\\\\\)\\s");
-        Matcher matcher = newLineandStarOrDash.matcher(userStoryString);
+    private int indexOfListOrNote(String userStoryString, int start) {
+        Matcher matcher = LIST_OR_NOTE.matcher(userStoryString).region(start, userStoryString.length());
         if (matcher.find()) {
             // The bullet point list or note pattern has been found
             containsListOrNote = true;
-            return matcher.start(); // the index of the first character of the
-                                    // bullet point list or note
+            return matcher.start() - start; // the index of the first character
+                                            // of the bullet point list or note
         }
         // No bullet point list or note has been found
         containsListOrNote = false;
-        return userStoryString.length(); // the end of the string
+        return userStoryString.length() - start; // the end of the string
+    }
+
+    /**
+     * Finds a keyword in a region of a string ignoring the case, without
+     * creating an upper case copy of the string.
+     * 
+     * @param string  the string to be searched
+     * @param begin   the start of the region
+     * @param end     the end of the region
+     * @param keyword the keyword to be found
+     * @param from    the index relative to the region start at which the
+     *                search starts
+     * @return the index of the keyword relative to the region start or -1 if
+     *         the keyword is not contained in the region
+     */
+    private static int indexOfIgnoreCase(String string, int begin, int end, String keyword, int from) {
+        for (int i = begin + Math.max(from, 0); i + keyword.length() <= end; i++) {
+            if (string.regionMatches(true, i, keyword, 0, keyword.length())) {
+                return i - begin;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Determines whether the characters before an index are a given suffix.
+     * 
+     * @param string the string to be checked
+     * @param end    the index after the last character of the suffix
+     * @param suffix the suffix
+     * @return {@code true} if the prefix of the string up to the index ends
+     *         with the suffix
+     */
+    private static boolean endsWith(CharSequence string, int end, String suffix) {
+        int begin = end - suffix.length();
+        if (begin < 0) {
+            return false;
+        }
+        for (int i = 0; i < suffix.length(); i++) {
+            if (string.charAt(begin + i) != suffix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A view on the user story string starting at the role and ending at a
+     * bullet point list or note, possibly followed by a suffix denoting that
+     * information has been removed. Indices are relative to the start of the
+     * role.
+     */
+    private static class ShortenedString implements CharSequence {
+        private final String string;
+        private final int begin;
+        private final int end;
+        private final String suffix;
+
+        ShortenedString(String string, int begin, int end, String suffix) {
+            this.string = string;
+            this.begin = begin;
+            this.end = end;
+            this.suffix = suffix;
+        }
+
+        @Override
+        public int length() {
+            return end - begin + suffix.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < end - begin) {
+                return string.charAt(begin + index);
+            }
+            return suffix.charAt(index - (end - begin));
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int stop) {
+            return toString().subSequence(start, stop);
+        }
+
+        @Override
+        public String toString() {
+            return string.substring(begin, end) + suffix;
+        }
+
+        /**
+         * Finds a keyword ignoring the case. The suffix is not searched as it
+         * does not contain any letters.
+         */
+        int indexOfIgnoreCase(String keyword, int from) {
+            return UserStory.indexOfIgnoreCase(string, begin, end, keyword, from);
+        }
+
+        int indexOf(char c, int from) {
+            for (int i = Math.max(from, 0); i < length(); i++) {
+                if (charAt(i) == c) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Copies a part of the string while removing asterisks and replacing
+         * multiple whitespace characters by a single space.
+         */
+        String sanitizedSubstring(int start, int stop) {
+            StringBuilder builder = new StringBuilder(stop - start);
+            boolean inWhitespace = false;
+            for (int i = start; i < stop; i++) {
+                char c = charAt(i);
+                if (c == '*') {
+                    continue;
+                }
+                if (isRegexWhitespace(c)) {
+                    if (!inWhitespace) {
+                        builder.append(' ');
+                        inWhitespace = true;
+                    }
+                } else {
+                    builder.append(c);
+                    inWhitespace = false;
+                }
+            }
+            return builder.toString();
+        }
+
+        /**
+         * Determines whether a character is matched by {@code \s} in a
+         * regular expression.
+         */
+        private static boolean isRegexWhitespace(char c) {
+            return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+        }
     }
 
     /**
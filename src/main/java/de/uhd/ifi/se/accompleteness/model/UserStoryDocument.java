@@ -0,0 +1,186 @@
+package de.uhd.ifi.se.accompleteness.model;
+
+/**
+ * Splits a document of the dataset into its user story section, enclosed in
+ * {@code ###}, and its acceptance criteria section, enclosed in {@code +++}.
+ *
+ * Line feeds are not part of the sections, i.e., the markers are searched as
+ * if all line feeds had been removed from the document beforehand. The
+ * document is scanned a single time and only the offsets of the markers are
+ * stored, so the section strings are the only copies made of the document.
+ */
+public class UserStoryDocument {
+
+    /**
+     * The length of the {@code ###} and {@code +++} markers.
+     */
+    private static final int MARKER_LENGTH = 3;
+
+    /**
+     * The document text as received in the request.
+     */
+    private final String text;
+
+    /**
+     * The first two (possibly overlapping) occurrences of the user story
+     * marker.
+     */
+    private final Marker[] userStoryMarkers = { new Marker(), new Marker() };
+
+    /**
+     * The first two (possibly overlapping) occurrences of the acceptance
+     * criteria marker.
+     */
+    private final Marker[] acceptanceCriteriaMarkers = { new Marker(), new Marker() };
+
+    /**
+     * The position of a marker both in the document without line feeds, on
+     * which the section boundaries are defined, and in the original document.
+     */
+    private static class Marker {
+        int position = -1;
+        int originalStart;
+        int originalEnd;
+
+        boolean found() {
+            return position != -1;
+        }
+    }
+
+    private UserStoryDocument(String text) {
+        this.text = text;
+        scan();
+    }
+
+    /**
+     * Parses a document of the dataset.
+     *
+     * @param text the document text containing the user story and its
+     *             acceptance criteria
+     * @return the parsed document
+     */
+    public static UserStoryDocument parse(String text) {
+        return new UserStoryDocument(text);
+    }
+
+    /**
+     * Finds the markers of both sections in a single pass over the document.
+     */
+    private void scan() {
+        // the original indices of the last two characters that are not line
+        // feeds
+        int secondLast = -1;
+        int last = -1;
+        int position = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\n') {
+                continue;
+            }
+            if (secondLast != -1 && text.charAt(secondLast) == c && text.charAt(last) == c) {
+                if (c == '#') {
+                    record(userStoryMarkers, position - 2, secondLast, i + 1);
+                } else if (c == '+') {
+                    record(acceptanceCriteriaMarkers, position - 2, secondLast, i + 1);
+                }
+            }
+            secondLast = last;
+            last = i;
+            position++;
+        }
+    }
+
+    private static void record(Marker[] markers, int position, int originalStart, int originalEnd) {
+        for (Marker marker : markers) {
+            if (!marker.found()) {
+                marker.position = position;
+                marker.originalStart = originalStart;
+                marker.originalEnd = originalEnd;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns the user story section, i.e., the text between the first two
+     * {@code ###} markers without line feeds.
+     *
+     * @return the user story section of the document
+     * @throws StringIndexOutOfBoundsException if the document does not contain
+     *                                         a user story section
+     */
+    public String getUserStoryText() {
+        return section(userStoryMarkers[0], 0, userStoryMarkers[1]);
+    }
+
+    /**
+     * Returns the acceptance criteria section, i.e., the text between the
+     * first two {@code +++} markers without line feeds. If there is only one
+     * {@code +++} marker, the section starts after the user story section and
+     * ends at that marker.
+     *
+     * @return the acceptance criteria section of the document
+     * @throws StringIndexOutOfBoundsException if the document does not contain
+     *                                         an acceptance criteria section
+     */
+    public String getAcceptanceCriteriaText() {
+        if (!acceptanceCriteriaMarkers[1].found()) {
+            // the section is assumed to start three characters after the end
+            // of the user story section
+            return section(userStoryMarkers[1], MARKER_LENGTH, acceptanceCriteriaMarkers[0]);
+        }
+        return section(acceptanceCriteriaMarkers[0], 0, acceptanceCriteriaMarkers[1]);
+    }
+
+    /**
+     * Copies a section of the document without line feeds.
+     *
+     * @param start the marker before the section
+     * @param skip  the number of characters after the start marker that do not
+     *              belong to the section
+     * @param end   the marker after the section
+     * @return the section without line feeds
+     */
+    private String section(Marker start, int skip, Marker end) {
+        int begin = start.position + MARKER_LENGTH + skip;
+        if (end.position < 0 || begin > end.position) {
+            throw new StringIndexOutOfBoundsException(
+                    "begin " + begin + ", end " + end.position + ", the document does not contain the section");
+        }
+        int originalBegin = start.found() ? advance(start.originalEnd, skip) : advance(0, begin);
+        StringBuilder builder = new StringBuilder(end.position - begin);
+        for (int i = originalBegin; i < end.originalStart; i++) {
+            char c = text.charAt(i);
+            if (c != '\n') {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Skips a number of characters that are not line feeds.
+     *
+     * @param index the index in the original document to start at
+     * @param count the number of characters to skip
+     * @return the index in the original document after the skipped characters
+     */
+    private int advance(int index, int count) {
+        while (count > 0) {
+            if (text.charAt(index) != '\n') {
+                count--;
+            }
+            index++;
+        }
+        return index;
+    }
+
+    /**
+     * Returns the document text as received in the request.
+     *
+     * @return the document text
+     */
+    public String getText() {
+        return text;
+    }
+}
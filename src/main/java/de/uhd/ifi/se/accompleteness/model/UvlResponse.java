@@ -1,6 +1,8 @@
 package de.uhd.ifi.se.accompleteness.model;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
 import java.util.Arrays;
@@ -24,77 +26,182 @@ public class UvlResponse {
     private static final Logger LOG = LoggerFactory.getLogger(UvlResponse.class);
 
     public static JsonObject getJsonFromResults(List<CompletenessCalcResult> results) {
+        return getJsonFromResults(results, ResponseFields.ALL);
+    }
+
+    /**
+     * Creates the payload of a response with the selected fields of the
+     * results of the user stories. The metrics do not depend on the selection.
+     * 
+     * @param results the results of the user stories
+     * @param fields  the fields of the results to compute
+     * @return the payload of the response
+     */
+    public static JsonObject getJsonFromResults(List<CompletenessCalcResult> results, ResponseFields fields) {
         LOG.debug("Entering getJsonFromResults with" + results);
         JsonObject mainObject = new JsonObject();
         mainObject.add("doc_topic", null);
         mainObject.add("codes", null);
         JsonArray resultsArr = new JsonArray();
         double sum_completeness = 0;
+        int timed_out = 0;
+        Map<String, Double> sumCompletenessByCalculator = new LinkedHashMap<>();
         for (CompletenessCalcResult calcResult : results) {
-            JsonObject singleObject = new JsonObject();
-            singleObject.addProperty("id", calcResult.getUserStory().getId());
-            singleObject.addProperty("user_story_text", calcResult.getUserStory().getUserStoryString());
-            singleObject.addProperty("user_story_goal", calcResult.getUserStory().getGoal());
-            singleObject.addProperty("acceptance_criteria_text", calcResult.getUserStory().getAcceptanceCriteria());
-
-            String[] tokensInUserStory = calcResult.getUserStory().getUserStoryString().split(" ");
-            JsonArray matchedTopics = new JsonArray();
-            int pos = 0;
-            for (int i = 0; i < tokensInUserStory.length; i++) {
-                UvlResponse.MappingReturnObject mapReturn = getMapping(tokensInUserStory[i], pos,
-                        calcResult.getMatchedTopics().entrySet(),
-                        calcResult.getUsTopics(),
-                        Arrays.asList(Arrays.copyOfRange(tokensInUserStory, i + 1, tokensInUserStory.length)));
-                matchedTopics.add(mapReturn.getMapping());
-                pos += tokensInUserStory[i].length() + 1;
-                pos += mapReturn.getNextTopicIncluded();
-                i += mapReturn.getNextWordsCount();
+            resultsArr.add(getJsonFromResult(calcResult, fields));
+            if (calcResult.getStatus() == CompletenessCalcResult.Status.TIMEOUT) {
+                timed_out++;
+            } else {
+                sum_completeness += calcResult.getCompleteness();
+                if (calcResult.getCompletenessByCalculator() != null) {
+                    calcResult.getCompletenessByCalculator().forEach(
+                            (name, completeness) -> sumCompletenessByCalculator.merge(name, completeness, Double::sum));
+                }
             }
+        }
+        int completed = results.size() - timed_out;
+        // without completed user stories, there is no average
+        Double avg_completeness = completed == 0 ? null : sum_completeness / completed;
 
-            String[] tokensInAcceptanceCriteria = calcResult.getUserStory().getAcceptanceCriteria().split(" ");
-            JsonArray matchedACTopics = new JsonArray();
-            pos = 0;
-            for (int i = 0; i < tokensInAcceptanceCriteria.length; i++) {
-                UvlResponse.MappingReturnObject mapReturn = getMappingAC(tokensInAcceptanceCriteria[i], pos,
-                        calcResult.getMatchedTopics().entrySet(),
-                        calcResult.getAcTopics(), Arrays.asList(Arrays.copyOfRange(tokensInAcceptanceCriteria, i + 1,
-                                tokensInAcceptanceCriteria.length)));
-                matchedACTopics.add(mapReturn.getMapping());
-                pos += tokensInAcceptanceCriteria[i].length() + 1;
-                pos += mapReturn.getNextTopicIncluded();
-                i += mapReturn.getNextWordsCount();
-            }
+        JsonObject completenessResults = new JsonObject();
+        completenessResults.add("completeness_results", resultsArr);
+        mainObject.add("topics", completenessResults);
 
-            singleObject.add("mapping", matchedTopics);
-            singleObject.add("acMapping", matchedACTopics);
+        JsonObject metrics = new JsonObject();
+        metrics.addProperty("avg_completeness", avg_completeness);
+        metrics.addProperty("timed_out_documents", timed_out);
+        if (!sumCompletenessByCalculator.isEmpty()) {
+            JsonObject avgCompletenessByCalculator = new JsonObject();
+            sumCompletenessByCalculator
+                    .forEach((name, sum) -> avgCompletenessByCalculator.addProperty(name, sum / completed));
+            metrics.add("avg_completeness_by_calculator", avgCompletenessByCalculator);
+        }
+        mainObject.add("metrics", metrics);
+
+        return mainObject;
+    }
+
+    /**
+     * Creates the JSON object of a single user story as contained in the
+     * {@code completeness_results} of a response.
+     * 
+     * @param calcResult the result of the user story
+     * @return the JSON object of the user story
+     */
+    public static JsonObject getJsonFromResult(CompletenessCalcResult calcResult) {
+        return getJsonFromResult(calcResult, ResponseFields.ALL);
+    }
+
+    /**
+     * Creates the JSON object of a single user story with the selected fields.
+     * Fields that are not selected are not computed.
+     * 
+     * @param calcResult the result of the user story
+     * @param fields     the fields to compute
+     * @return the JSON object of the user story
+     */
+    public static JsonObject getJsonFromResult(CompletenessCalcResult calcResult, ResponseFields fields) {
+        JsonObject singleObject = new JsonObject();
+        if (calcResult.getStatus() == CompletenessCalcResult.Status.TIMEOUT) {
+            // user stories exceeding their time budget have no score
+            singleObject.addProperty("id", calcResult.getUserStoryId());
+            singleObject.addProperty("status", "timeout");
+            return singleObject;
+        }
+        singleObject.addProperty("id", calcResult.getUserStory().getId());
+        singleObject.addProperty("status", "completed");
+        if (fields.contains("user_story_text")) {
+            singleObject.addProperty("user_story_text", calcResult.getUserStory().getUserStoryString());
+        }
+        if (fields.contains("user_story_goal")) {
+            singleObject.addProperty("user_story_goal", calcResult.getUserStory().getGoal());
+        }
+        if (fields.contains("acceptance_criteria_text")) {
+            singleObject.addProperty("acceptance_criteria_text", calcResult.getUserStory().getAcceptanceCriteria());
+        }
+        if (fields.contains("mapping")) {
+            singleObject.add("mapping", getUserStoryMapping(calcResult));
+        }
+        if (fields.contains("acMapping")) {
+            singleObject.add("acMapping", getAcceptanceCriteriaMapping(calcResult));
+        }
+        if (fields.contains("completeness")) {
             singleObject.addProperty("completeness", calcResult.getCompleteness());
+        }
+        if (fields.contains("completeness_by_calculator") && calcResult.getCompletenessByCalculator() != null) {
+            JsonObject completenessByCalculator = new JsonObject();
+            calcResult.getCompletenessByCalculator().forEach(completenessByCalculator::addProperty);
+            singleObject.add("completeness_by_calculator", completenessByCalculator);
+        }
+        if (fields.contains("pool_matches") && calcResult.getPoolMatchedTopics() != null) {
+            JsonArray poolMatches = new JsonArray();
+            for (var entry : calcResult.getPoolMatchedTopics().entrySet()) {
+                JsonObject poolMatch = new JsonObject();
+                poolMatch.addProperty("token", entry.getKey().toString());
+                poolMatch.addProperty("mapping", entry.getValue().toString());
+                poolMatch.addProperty("usTopicStart", entry.getKey().getStartPosition());
+                poolMatch.addProperty("usTopicEnd", entry.getKey().getEndPosition());
+                poolMatches.add(poolMatch);
+            }
+            singleObject.add("pool_matches", poolMatches);
+        }
 
+        if (fields.contains("user_story_topics")) {
             JsonArray usTopics = new JsonArray();
             for (Topic usTopic : calcResult.getUsTopics()) {
                 usTopics.add(usTopic.toString());
             }
             singleObject.add("user_story_topics", usTopics);
+        }
 
+        if (fields.contains("acceptance_criteria_topics")) {
             JsonArray acTopics = new JsonArray();
             for (Topic acTopic : calcResult.getAcTopics()) {
                 acTopics.add(acTopic.toString());
             }
             singleObject.add("acceptance_criteria_topics", acTopics);
-
-            resultsArr.add(singleObject);
-            sum_completeness += calcResult.getCompleteness();
         }
-        double avg_completeness = sum_completeness / results.size();
 
-        JsonObject completenessResults = new JsonObject();
-        completenessResults.add("completeness_results", resultsArr);
-        mainObject.add("topics", completenessResults);
+        return singleObject;
+    }
 
-        JsonObject metrics = new JsonObject();
-        metrics.addProperty("avg_completeness", avg_completeness);
-        mainObject.add("metrics", metrics);
+    /**
+     * Annotates every token of the user story with its matched topic.
+     */
+    private static JsonArray getUserStoryMapping(CompletenessCalcResult calcResult) {
+        String[] tokensInUserStory = calcResult.getUserStory().getUserStoryString().split(" ");
+        JsonArray matchedTopics = new JsonArray();
+        int pos = 0;
+        for (int i = 0; i < tokensInUserStory.length; i++) {
+            UvlResponse.MappingReturnObject mapReturn = getMapping(tokensInUserStory[i], pos,
+                    calcResult.getMatchedTopics().entrySet(),
+                    calcResult.getUsTopics(),
+                    Arrays.asList(Arrays.copyOfRange(tokensInUserStory, i + 1, tokensInUserStory.length)));
+            matchedTopics.add(mapReturn.getMapping());
+            pos += tokensInUserStory[i].length() + 1;
+            pos += mapReturn.getNextTopicIncluded();
+            i += mapReturn.getNextWordsCount();
+        }
+        return matchedTopics;
+    }
 
-        return mainObject;
+    /**
+     * Annotates every token of the acceptance criteria with its matched topic.
+     */
+    private static JsonArray getAcceptanceCriteriaMapping(CompletenessCalcResult calcResult) {
+        String[] tokensInAcceptanceCriteria = calcResult.getUserStory().getAcceptanceCriteria().split(" ");
+        JsonArray matchedACTopics = new JsonArray();
+        int pos = 0;
+        for (int i = 0; i < tokensInAcceptanceCriteria.length; i++) {
+            UvlResponse.MappingReturnObject mapReturn = getMappingAC(tokensInAcceptanceCriteria[i], pos,
+                    calcResult.getMatchedTopics().entrySet(),
+                    calcResult.getAcTopics(), Arrays.asList(Arrays.copyOfRange(tokensInAcceptanceCriteria, i + 1,
+                            tokensInAcceptanceCriteria.length)));
+            matchedACTopics.add(mapReturn.getMapping());
+            pos += tokensInAcceptanceCriteria[i].length() + 1;
+            pos += mapReturn.getNextTopicIncluded();
+            i += mapReturn.getNextWordsCount();
+        }
+        return matchedACTopics;
     }
 
     private static class MappingReturnObject {
@@ -0,0 +1,168 @@
+package de.uhd.ifi.se.accompleteness.rest;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.CalculatorRegistry;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.AcceptanceCriteriaPool;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCalculationParams;
+import de.uhd.ifi.se.accompleteness.exception.SessionNotFoundException;
+import de.uhd.ifi.se.accompleteness.extractor.ACExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.openie.util.SentenceSplitter;
+import de.uhd.ifi.se.accompleteness.model.CompletenessCalcResult;
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.Sentence;
+import de.uhd.ifi.se.accompleteness.model.SentenceExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.UserStory;
+import de.uhd.ifi.se.accompleteness.model.UvlResponse;
+import de.uhd.ifi.se.accompleteness.session.SessionStore;
+import de.uhd.ifi.se.accompleteness.session.StorySession;
+import spark.Request;
+import spark.Response;
+
+/**
+ * The /reevaluate API endpoint class which recalculates the completeness of a
+ * single user story whose acceptance criteria have changed since it was sent
+ * to the /run endpoint. Only the changed acceptance criteria are extracted
+ * again, the user story and the unchanged acceptance criteria are taken from
+ * the {@link SessionStore}.
+ */
+public class ReevaluateRest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ReevaluateRest.class);
+
+    private final SessionStore sessionStore;
+
+    /**
+     * The constructor of the {@link ReevaluateRest} class.
+     * 
+     * @param sessionStore the store of the intermediate results of the user
+     *                     stories
+     */
+    public ReevaluateRest(SessionStore sessionStore) {
+        this.sessionStore = sessionStore;
+    }
+
+    /**
+     * Creates a response for requests to the /reevaluate API.
+     * 
+     * @param req the HTTP request sent to the /reevaluate endpoint whose
+     *            payload contains the ID of the user story, its changed
+     *            acceptance criteria and optionally new parameters for the
+     *            completeness calculation
+     * @param res the HTTP response containing header and HTTP status code
+     *            information
+     * @return an object used as payload for the HTTP response which contains
+     *         the completeness in the same form as the /run endpoint, or an
+     *         error message in the form of a string if an exception is thrown
+     *         and catched
+     */
+    public Object createResponse(Request req, Response res) {
+        try {
+
+            LOG.info("Received event: %s".formatted(req.body()));
+
+            JsonObject jsonRequest = new Gson().fromJson(req.body(), JsonObject.class);
+            String userStoryId = jsonRequest.get("id").getAsString();
+            String acceptanceText = jsonRequest.get("acceptance_criteria").getAsString().replace("\n", "");
+            JsonObject paramsJson = jsonRequest.has("params") ? jsonRequest.get("params").getAsJsonObject() : null;
+
+            JsonObject response = reevaluate(userStoryId, acceptanceText, paramsJson);
+
+            res.header("Content-Type", "application/json");
+
+            LOG.info("Returning response: %s".formatted(response.toString()));
+
+            return response;
+
+        } catch (SessionNotFoundException e) {
+            res.status(404);
+            LOG.warn(e.getMessage());
+            return "<h1>404 Not Found</h1><code>" + e.getMessage() + "</code>";
+        } catch (IllegalArgumentException e) {
+            res.status(400);
+            LOG.warn(e.getMessage());
+            return "<h1>400 Bad Request</h1><code>" + e.getMessage() + "</code>";
+        } catch (Exception e) {
+            res.status(500);
+            LOG.error("Error during request handling: ", e);
+
+            StringWriter sw = new StringWriter();
+            PrintWriter pw = new PrintWriter(sw);
+            e.printStackTrace(pw);
+            String sStackTrace = sw.toString();
+
+            return "<h1>500 Internal Server Error</h1><code>" + sStackTrace.replaceAll("\\n", "<br>") + "</code>";
+        }
+    }
+
+    /**
+     * Recalculates the completeness of a user story with changed acceptance
+     * criteria. The acceptance criteria are split into single sentences, and
+     * only the sentences that were not part of the latest calculation are
+     * extracted again.
+     * 
+     * @param userStoryId    the ID of the user story
+     * @param acceptanceText the changed acceptance criteria
+     * @param paramsJson     params for completeness calculation, or
+     *                       {@code null} to use the params of the latest
+     *                       calculation
+     * @return a object containing results in a Json format
+     * @throws SessionNotFoundException if the user story has not been
+     *                                  calculated before
+     */
+    public JsonObject reevaluate(String userStoryId, String acceptanceText, JsonObject paramsJson)
+            throws Exception {
+        StorySession session = sessionStore.get(userStoryId);
+        if (session == null) {
+            throw new SessionNotFoundException("The user story " + userStoryId
+                    + " is unknown. Please calculate its completeness with the /run endpoint first.");
+        }
+
+        ACExtractor acExtractor = session.getAcExtractor();
+        CompletenessCalcResult calcResult;
+        int recomputed = 0;
+        int sentences = 0;
+        synchronized (session) {
+            if (paramsJson != null) {
+                CalculationParams calcParams = new WordnetCalculationParams();
+                calcParams.setCalculationParamsFromJson(paramsJson);
+                session.setCalcParams(calcParams, AcceptanceCriteriaPool.fromParams(calcParams, acExtractor));
+            }
+            UserStory userStory = session.createUserStory(userStoryId, acceptanceText);
+
+            List<SentenceExtractionResult> sentenceResults = new ArrayList<>();
+            for (Sentence sentence : SentenceSplitter.split(acceptanceText)) {
+                ExtractionResult sentenceResult = session.getAcceptanceCriterion(sentence.getText());
+                if (sentenceResult == null) {
+                    // the acceptance criterion has changed
+                    sentenceResult = ExtractionResult.merge(acExtractor.extractSentences(sentence.getText()));
+                    recomputed++;
+                }
+                sentenceResults.add(new SentenceExtractionResult(sentence, sentenceResult));
+                sentences++;
+            }
+            session.setAcceptanceCriteria(sentenceResults);
+            // the session no longer belongs to the response of its /run request
+            session.setRequestDigest(null);
+
+            calcResult = CalculatorRegistry.calculate(session.getUsResult(), ExtractionResult.merge(sentenceResults),
+                    session.getCalcParams(), userStory, session.getAcceptanceCriteriaPool());
+        }
+
+        JsonObject response = UvlResponse.getJsonFromResults(List.of(calcResult));
+        JsonObject metrics = response.get("metrics").getAsJsonObject();
+        metrics.addProperty("recomputed_acceptance_criteria", recomputed);
+        metrics.addProperty("reused_acceptance_criteria", sentences - recomputed);
+        return response;
+    }
+}
@@ -3,7 +3,16 @@ package de.uhd.ifi.se.accompleteness.rest;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,19 +22,31 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import de.uhd.ifi.se.accompleteness.ParamValues;
+import de.uhd.ifi.se.accompleteness.cache.RequestDigest;
+import de.uhd.ifi.se.accompleteness.cache.ResponseCache;
 import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.CalculatorRegistry;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.AcceptanceCriteriaPool;
 import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCalculationParams;
-import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler;
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler.Priority;
+import de.uhd.ifi.se.accompleteness.concurrent.TimeBudget;
+import de.uhd.ifi.se.accompleteness.duplicates.NearDuplicateDetector;
 import de.uhd.ifi.se.accompleteness.extractor.ACExtractor;
 import de.uhd.ifi.se.accompleteness.extractor.ExtractionParams;
 import de.uhd.ifi.se.accompleteness.extractor.USExtractor;
-import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEACExtractor;
 import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEExtractionParams;
-import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEUSExtractor;
 import de.uhd.ifi.se.accompleteness.model.CompletenessCalcResult;
 import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.ResponseFields;
+import de.uhd.ifi.se.accompleteness.model.SentenceExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.TextAlignment;
 import de.uhd.ifi.se.accompleteness.model.UserStory;
+import de.uhd.ifi.se.accompleteness.model.UserStoryDocument;
 import de.uhd.ifi.se.accompleteness.model.UvlResponse;
+import de.uhd.ifi.se.accompleteness.session.SessionStore;
+import de.uhd.ifi.se.accompleteness.session.StorySession;
 import spark.Request;
 import spark.Response;
 
@@ -33,6 +54,51 @@ public class RunRest {
 
     private static final Logger LOG = LoggerFactory.getLogger(RunRest.class);
 
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * The store in which the intermediate results of every user story are
+     * kept for later re-evaluations.
+     */
+    private final SessionStore sessionStore;
+
+    /**
+     * The cache of serialized responses by the digest of the dataset and the
+     * params, which is also used as ETag.
+     */
+    private final ResponseCache responseCache;
+
+    /**
+     * The scheduler processing the user stories, preferring those of
+     * interactive requests.
+     */
+    private final PriorityScheduler scheduler;
+
+    /**
+     * The maximum number of user stories of a request that is interactive
+     * unless specified otherwise in its params.
+     */
+    private final int interactiveMaxDocuments;
+
+    /**
+     * The constructor of the {@link RunRest} class.
+     * 
+     * @param sessionStore            the store of the intermediate results of
+     *                                the user stories
+     * @param responseCache           the cache of responses to identical
+     *                                requests
+     * @param scheduler               the scheduler processing the user stories
+     * @param interactiveMaxDocuments the maximum number of user stories of an
+     *                                interactive request
+     */
+    public RunRest(SessionStore sessionStore, ResponseCache responseCache, PriorityScheduler scheduler,
+            int interactiveMaxDocuments) {
+        this.sessionStore = sessionStore;
+        this.responseCache = responseCache;
+        this.scheduler = scheduler;
+        this.interactiveMaxDocuments = interactiveMaxDocuments;
+    }
+
     /**
      * Creates a response for requests to the /run API and starts the
      * acceptance criteria generation process
@@ -58,6 +124,27 @@ public class RunRest {
             JsonArray documents = jsonRequest.get("dataset").getAsJsonObject().get("documents").getAsJsonArray();
             JsonObject paramsJson = jsonRequest.get("params").getAsJsonObject();
 
+            // Identical requests get identical responses, so the response is
+            // identified by the digest of the dataset and the params
+            String etag = "\"" + RequestDigest.digest(jsonRequest.get("dataset"), paramsJson) + "\"";
+            // The sessions for /reevaluate are only created by a calculation,
+            // so the response is calculated again unless every session still
+            // belongs to this response
+            boolean sessionsExist = hasSessions(documents, etag);
+            if (sessionsExist && matchesETag(req.headers("If-None-Match"), etag)) {
+                res.header("ETag", etag);
+                res.status(304);
+                LOG.info("Returning 304 Not Modified for %s".formatted(etag));
+                return "";
+            }
+            String cachedResponse = sessionsExist ? responseCache.get(etag) : null;
+            if (cachedResponse != null) {
+                res.header("ETag", etag);
+                res.header("Content-Type", "application/json");
+                LOG.info("Returning cached response: %s".formatted(cachedResponse));
+                return cachedResponse;
+            }
+
             // Read the params for the user story information extraction
             ExtractionParams extractionParams = new OpenIEExtractionParams();
             extractionParams.setExtractionParamsFromJson(paramsJson);
@@ -66,15 +153,46 @@ public class RunRest {
             CalculationParams calcParams = new WordnetCalculationParams();
             calcParams.setCalculationParamsFromJson(paramsJson);
 
+            // Read the optional time budget of the request
+            TimeBudget timeBudget = new TimeBudget();
+            timeBudget.setTimeBudgetFromJson(paramsJson);
+
+            // Read the optional fields of the results and the near-duplicate
+            // detection, which needs the fields of its shingles
+            ResponseFields fields = ResponseFields.fromJson(paramsJson);
+            NearDuplicateDetector nearDuplicateDetector = new NearDuplicateDetector();
+            nearDuplicateDetector.setNearDuplicateParamsFromJson(paramsJson);
+            ResponseFields computedFields = nearDuplicateDetector.isEnabled()
+                    ? fields.with(nearDuplicateDetector.getShingleFields())
+                    : fields;
+
             // Calculate the completeness
-            JsonObject response = calculateCompleteness(documents, extractionParams, calcParams);
+            JsonObject response = calculateCompleteness(documents, extractionParams, calcParams,
+                    getPriority(paramsJson, documents.size()), timeBudget, computedFields, etag);
+
+            // Find the optional clusters of near-duplicate user stories
+            if (nearDuplicateDetector.isEnabled()) {
+                nearDuplicateDetector.annotate(response, fields);
+            }
+            String serializedResponse = response.toString();
+
+            // Responses with timed out user stories are incomplete and must
+            // not be reused
+            if (response.get("metrics").getAsJsonObject().get("timed_out_documents").getAsInt() == 0) {
+                res.header("ETag", etag);
+                responseCache.put(etag, serializedResponse);
+            }
 
             res.header("Content-Type", "application/json");
 
-            LOG.info("Returning response: %s".formatted(response.toString()));
+            LOG.info("Returning response: %s".formatted(serializedResponse));
 
-            return response;
+            return serializedResponse;
             
+        } catch (IllegalArgumentException e) {
+            res.status(400);
+            LOG.warn(e.getMessage());
+            return "<h1>400 Bad Request</h1><code>" + e.getMessage() + "</code>";
         } catch (Exception e) {
             res.status(500);
             LOG.error("Error during request handling: ", e);
@@ -88,10 +206,72 @@ public class RunRest {
         }
     }
 
+    /**
+     * Determines whether the If-None-Match header of a request contains the
+     * ETag of its response.
+     * 
+     * @param ifNoneMatch the value of the If-None-Match header or {@code null}
+     * @param etag        the ETag of the response
+     * @return {@code true} if the client already has the response
+     */
+    private static boolean matchesETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            // "*" is not matched, as it would also match responses that have
+            // never been calculated
+            if (candidate.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines whether every document of a request still has the session
+     * created by the calculation of the same request, which may have been
+     * evicted, re-evaluated or replaced by another request for the same ID.
+     * 
+     * @param documents the documents of the request
+     * @param etag      the ETag of the response to the request
+     * @return {@code true} if every document can be re-evaluated from the
+     *         response to the request
+     */
+    private boolean hasSessions(JsonArray documents, String etag) {
+        for (JsonElement document : documents) {
+            StorySession session = sessionStore.get(document.getAsJsonObject().get("id").getAsString());
+            if (session == null || !etag.equals(session.getRequestDigest())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Determines the priority class of a request. A request is interactive if
+     * its params say so or if it contains only a few user stories.
+     * 
+     * @param paramsJson    the params of the request
+     * @param documentCount the number of user stories in the request
+     * @return the priority class of the request
+     */
+    private Priority getPriority(JsonObject paramsJson, int documentCount) {
+        if (paramsJson.has("priority")) {
+            return ParamValues.parseEnum(Priority.class, "priority", paramsJson.get("priority").getAsString());
+        }
+        return documentCount <= interactiveMaxDocuments ? Priority.INTERACTIVE : Priority.BULK;
+    }
+
     /**
      * Starts the acceptance criteria generation and creates a
      * {@link UvlResponse} which contains completeness, log messages and
-     * metrics in the format required by the FeedUVL API.
+     * metrics in the format required by the FeedUVL API. The priority class
+     * depends on the number of user stories.
      * 
      * @param documents  a part of the HTTP request payload containing the user
      *                   stories
@@ -99,53 +279,230 @@ public class RunRest {
      * @param calcParams params for completeness calculation.
      * @return a object containing results in a Json format
      */
-    public static JsonObject calculateCompleteness(JsonArray documents, ExtractionParams extrParams,
+    public JsonObject calculateCompleteness(JsonArray documents, ExtractionParams extrParams,
             CalculationParams calcParams) throws Exception {
-        List<CompletenessCalcResult> results = new ArrayList<>();
-        ACExtractor acExtractor = new OpenIEACExtractor();
-        USExtractor usExtractor = new OpenIEUSExtractor();
+        return calculateCompleteness(documents, extrParams, calcParams, getPriority(new JsonObject(), documents.size()),
+                new TimeBudget());
+    }
 
-        for (JsonElement document : documents) { // for every user story
-            String inputText = document.getAsJsonObject().get("text").getAsString();
-            String userStoryId = document.getAsJsonObject().get("id").getAsString();
-            String userStoryText = extractUserStoryString(inputText);
-            String acceptanceText = extractAcceptanceCriteriaString(inputText);
+    /**
+     * Starts the acceptance criteria generation and creates a
+     * {@link UvlResponse} which contains completeness, log messages and
+     * metrics in the format required by the FeedUVL API. Documents with the
+     * same user story and acceptance criteria (apart from whitespace) are
+     * processed only once and their result is reported for all of their IDs.
+     * Every unique document is processed as a separate task of the
+     * {@link PriorityScheduler}. User stories exceeding the time budget are
+     * abandoned and reported as timed out, while the other user stories are
+     * completed.
+     * 
+     * @param documents  a part of the HTTP request payload containing the user
+     *                   stories
+     * @param extrParams params for user story extraction.
+     * @param calcParams params for completeness calculation.
+     * @param priority   the priority class of the user stories
+     * @param timeBudget the time budget of the user stories and the request
+     * @return a object containing results in a Json format
+     */
+    public JsonObject calculateCompleteness(JsonArray documents, ExtractionParams extrParams,
+            CalculationParams calcParams, Priority priority, TimeBudget timeBudget) throws Exception {
+        return calculateCompleteness(documents, extrParams, calcParams, priority, timeBudget, ResponseFields.ALL);
+    }
 
-            // Extract the user story from the string
-            UserStory userStory = new UserStory(userStoryText, userStoryId, acceptanceText);
+    /**
+     * Calculates the completeness as
+     * {@link #calculateCompleteness(JsonArray, ExtractionParams, CalculationParams, Priority, TimeBudget)}
+     * and creates a response with the selected fields of the results only.
+     * 
+     * @param documents  a part of the HTTP request payload containing the user
+     *                   stories
+     * @param extrParams params for user story extraction.
+     * @param calcParams params for completeness calculation.
+     * @param priority   the priority class of the user stories
+     * @param timeBudget the time budget of the user stories and the request
+     * @param fields     the fields of the results to compute
+     * @return a object containing results in a Json format
+     */
+    public JsonObject calculateCompleteness(JsonArray documents, ExtractionParams extrParams,
+            CalculationParams calcParams, Priority priority, TimeBudget timeBudget, ResponseFields fields)
+            throws Exception {
+        return calculateCompleteness(documents, extrParams, calcParams, priority, timeBudget, fields, null);
+    }
 
-            // Do User Story extraction
-            ExtractionResult usNlpResult = usExtractor.extract(userStory, extrParams);
+    /**
+     * Calculates the completeness and creates the sessions of the user stories
+     * for the response with the given ETag.
+     */
+    private JsonObject calculateCompleteness(JsonArray documents, ExtractionParams extrParams,
+            CalculationParams calcParams, Priority priority, TimeBudget timeBudget, ResponseFields fields,
+            String requestDigest) throws Exception {
+        ACExtractor acExtractor = extrParams.getExtractorType().createACExtractor();
+        USExtractor usExtractor = extrParams.getExtractorType().createUSExtractor();
+        // the shared acceptance criteria are extracted once for all user stories
+        AcceptanceCriteriaPool pool = AcceptanceCriteriaPool.fromParams(calcParams, acExtractor);
+        long requestDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeBudget.getRequestTimeoutMillis());
 
-            // Do Acceptance Criteria extraction
-            ExtractionResult acNlpResult = acExtractor.extract(acceptanceText);
+        // Group the documents by their normalized content, keeping the order
+        // of the first occurrences
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < documents.size(); i++) {
+            String text = documents.get(i).getAsJsonObject().get("text").getAsString();
+            groups.computeIfAbsent(getContentKey(text), key -> new ArrayList<>()).add(i);
+        }
+
+        List<List<Integer>> uniqueDocuments = new ArrayList<>(groups.values());
+        List<Future<List<CompletenessCalcResult>>> futures = new ArrayList<>();
+        for (List<Integer> group : uniqueDocuments) {
+            List<JsonObject> groupDocuments = new ArrayList<>();
+            for (int i : group) {
+                groupDocuments.add(documents.get(i).getAsJsonObject());
+            }
+            futures.add(scheduler.submit(priority, () -> processDocument(groupDocuments, usExtractor, acExtractor,
+                    extrParams, calcParams, pool, requestDigest), timeBudget.getDocumentTimeoutMillis()));
+        }
 
-            // Calculate completeness, generate mappings
-            CompletenessCalcResult calcResult = new WordnetCompletenessCalculator()
-                    .calculate_completeness(usNlpResult, acNlpResult, calcParams, userStory);
-            results.add(calcResult);
+        CompletenessCalcResult[] results = new CompletenessCalcResult[documents.size()];
+        try {
+            for (int g = 0; g < futures.size(); g++) {
+                Future<List<CompletenessCalcResult>> future = futures.get(g);
+                List<Integer> group = uniqueDocuments.get(g);
+                try {
+                    List<CompletenessCalcResult> groupResults;
+                    if (timeBudget.getRequestTimeoutMillis() > 0) {
+                        groupResults = future.get(Math.max(0, requestDeadline - System.nanoTime()),
+                                TimeUnit.NANOSECONDS);
+                    } else {
+                        groupResults = future.get();
+                    }
+                    for (int j = 0; j < group.size(); j++) {
+                        results[group.get(j)] = groupResults.get(j);
+                    }
+                } catch (CancellationException | TimeoutException e) {
+                    // cancelled by the scheduler after the document budget or
+                    // not finished within the request budget
+                    future.cancel(true);
+                    for (int i : group) {
+                        String userStoryId = documents.get(i).getAsJsonObject().get("id").getAsString();
+                        LOG.warn("User story %s exceeded its time budget".formatted(userStoryId));
+                        results[i] = CompletenessCalcResult.timedOut(userStoryId);
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        } finally {
+            // the remaining user stories are not needed if one fails
+            for (Future<List<CompletenessCalcResult>> future : futures) {
+                future.cancel(true);
+            }
         }
 
-        return UvlResponse.getJsonFromResults(results);
+        JsonObject response = UvlResponse.getJsonFromResults(Arrays.asList(results), fields);
+        JsonObject metrics = response.get("metrics").getAsJsonObject();
+        // only metrics of the request, so that identical requests get
+        // identical responses
+        metrics.addProperty("deduplicated_documents", documents.size() - uniqueDocuments.size());
+        return response;
+    }
+
+    /**
+     * Identifies the content of a document by its user story and acceptance
+     * criteria sections with collapsed whitespace. Documents without these
+     * sections are identified by their whole text.
+     * 
+     * @param text the document text
+     * @return the key of the content of the document
+     */
+    private static String getContentKey(String text) {
+        try {
+            UserStoryDocument document = UserStoryDocument.parse(text);
+            return normalize(document.getUserStoryText()) + "\n" + normalize(document.getAcceptanceCriteriaText());
+        } catch (StringIndexOutOfBoundsException e) {
+            // the error is reported when the document is processed
+            return text;
+        }
     }
 
-    private static String extractUserStoryString(String inputString) {
-        inputString = inputString.replace("\n", "");
-        int start = inputString.indexOf("###");
-        int end = inputString.indexOf("###", start + 1);
-        return inputString.substring(start + 3, end);
+    private static String normalize(String text) {
+        return WHITESPACE.matcher(text).replaceAll(" ").trim();
     }
 
-    private static String extractAcceptanceCriteriaString(String inputString) {
-        inputString = inputString.replace("\n", "");
-        int start = inputString.indexOf("+++");
-        int end = inputString.indexOf("+++", start + 1);
-        if (end == -1) {
-            end = start;
-            int startUS = inputString.indexOf("###");
-            int endUS = inputString.indexOf("###", startUS + 1);
-            start = endUS + 3;
+    /**
+     * Calculates the completeness of a single user story and reports it for
+     * all documents with the same content. Every document keeps its own texts,
+     * and the positions of the topics are moved to them if they differ in
+     * whitespace.
+     * 
+     * @param documents     the documents with the same user story and
+     *                      acceptance criteria, starting with the document that
+     *                      is processed
+     * @param usExtractor   the extractor for the user story
+     * @param acExtractor   the extractor for the acceptance criteria
+     * @param extrParams    params for user story extraction.
+     * @param calcParams    params for completeness calculation.
+     * @param pool          the pool of the shared acceptance criteria, or
+     *                      {@code null}
+     * @param requestDigest the ETag of the response the sessions belong to, or
+     *                      {@code null}
+     * @return the completeness of the user story for every document
+     */
+    private List<CompletenessCalcResult> processDocument(List<JsonObject> documents, USExtractor usExtractor,
+            ACExtractor acExtractor, ExtractionParams extrParams, CalculationParams calcParams,
+            AcceptanceCriteriaPool pool, String requestDigest) throws Exception {
+        JsonObject document = documents.get(0);
+        String inputText = document.get("text").getAsString();
+        String userStoryId = document.get("id").getAsString();
+        UserStoryDocument userStoryDocument = UserStoryDocument.parse(inputText);
+        String userStoryText = userStoryDocument.getUserStoryText();
+        String acceptanceText = userStoryDocument.getAcceptanceCriteriaText();
+
+        // Extract the user story from the string
+        UserStory userStory = new UserStory(userStoryText, userStoryId, acceptanceText);
+
+        // Do User Story extraction
+        ExtractionResult usNlpResult = usExtractor.extract(userStory, extrParams);
+
+        // Do Acceptance Criteria extraction
+        List<SentenceExtractionResult> acSentenceResults = acExtractor.extractSentences(acceptanceText);
+        ExtractionResult acNlpResult = ExtractionResult.merge(acSentenceResults);
+
+        // Calculate completeness, generate mappings
+        CompletenessCalcResult result = CalculatorRegistry.calculate(usNlpResult, acNlpResult, calcParams, userStory,
+                pool);
+
+        List<CompletenessCalcResult> results = new ArrayList<>();
+        for (JsonObject duplicate : documents) {
+            String id = duplicate.get("id").getAsString();
+            UserStoryDocument duplicateDocument = UserStoryDocument.parse(duplicate.get("text").getAsString());
+            String duplicateUserStoryText = duplicateDocument.getUserStoryText();
+            String duplicateAcceptanceText = duplicateDocument.getAcceptanceCriteriaText();
+            UserStory duplicateUserStory = new UserStory(duplicateUserStoryText, id, duplicateAcceptanceText);
+
+            // Keep the intermediate results for later re-evaluations, with a
+            // separate session per ID as the acceptance criteria of the
+            // duplicates may be changed independently
+            StorySession session;
+            if (duplicateUserStory.getUserStoryString().equals(userStory.getUserStoryString())
+                    && duplicateAcceptanceText.equals(acceptanceText)) {
+                session = new StorySession(duplicateUserStoryText, usNlpResult, calcParams, pool, acExtractor);
+                results.add(id.equals(userStoryId) ? result : result.withUserStory(duplicateUserStory));
+            } else {
+                TextAlignment usAlignment = new TextAlignment(userStory.getUserStoryString(),
+                        duplicateUserStory.getUserStoryString());
+                TextAlignment acAlignment = new TextAlignment(acceptanceText, duplicateAcceptanceText);
+                session = new StorySession(duplicateUserStoryText, usAlignment.map(usNlpResult), calcParams,
+                        pool, acExtractor);
+                results.add(result.withUserStory(duplicateUserStory, usAlignment, acAlignment));
+            }
+            // acceptance criteria with other whitespace are extracted again
+            // when they are re-evaluated
+            session.setAcceptanceCriteria(acSentenceResults);
+            session.setRequestDigest(requestDigest);
+            sessionStore.put(id, session);
         }
-        return inputString.substring(start + 3, end);
+        return results;
     }
 }
@@ -2,18 +2,41 @@ package de.uhd.ifi.se.accompleteness.rest;
 
 import com.google.gson.JsonObject;
 
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEACExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEPipeline;
+import de.uhd.ifi.se.accompleteness.startup.Warmup;
+
 import spark.Request;
 import spark.Response;
 
 /**
- * The /status API endpoint class which handles requests to the /status
- * endpoint.
+ * The /status API endpoint class which handles requests to the /status,
+ * /live and /ready endpoints.
  */
 public class StatusRest {
-    
+
+    private final PriorityScheduler scheduler;
+
+    private final Warmup warmup;
+
+    /**
+     * The constructor of the {@link StatusRest} class.
+     * 
+     * @param scheduler the scheduler whose queue depths are reported
+     * @param warmup    the warm-up determining whether the service is ready
+     */
+    public StatusRest(PriorityScheduler scheduler, Warmup warmup) {
+        this.scheduler = scheduler;
+        this.warmup = warmup;
+    }
+
     /** 
      * Creates a response for requests to the /status API and confirms that the
-     * API is operational.
+     * API is operational. Also reports the queue depths of the scheduler, the
+     * state of the warm-up and the statistics of the NLP batches and the
+     * sentence cache since startup, which are not part of the /run responses
+     * as they change independently of a request.
      * 
      * @param req the HTTP request sent to the /status endpoint
      * @param res the HTTP response containing header and HTTP status code
@@ -23,8 +46,55 @@ public class StatusRest {
     public Object createResponse(Request req, Response res) {
         res.header("Content-Type", "application/json");
         JsonObject jsonResponse = new JsonObject();
-        jsonResponse.addProperty("status", "operational");
+        jsonResponse.addProperty("status", warmup.isReady() ? "operational" : "warming_up");
+        jsonResponse.addProperty("live", true);
+        jsonResponse.addProperty("ready", warmup.isReady());
+        jsonResponse.add("startup", warmup.toJson());
+        jsonResponse.add("scheduler", scheduler.getMetrics());
+        JsonObject metrics = new JsonObject();
+        OpenIEPipeline pipeline = OpenIEPipeline.getLoadedInstance();
+        if (pipeline != null) {
+            pipeline.addMetrics(metrics);
+        }
+        OpenIEACExtractor.getSentenceCache().addMetrics(metrics);
+        jsonResponse.add("metrics", metrics);
+        return jsonResponse;
+    }
+
+    /**
+     * Creates a response for requests to the /live API, which succeeds as long
+     * as the server answers requests.
+     * 
+     * @param req the HTTP request sent to the /live endpoint
+     * @param res the HTTP response containing header and HTTP status code
+     *            information
+     * @return a JSON object used as payload for the HTTP response
+     */
+    public Object createLivenessResponse(Request req, Response res) {
+        res.header("Content-Type", "application/json");
+        JsonObject jsonResponse = new JsonObject();
+        jsonResponse.addProperty("live", true);
+        return jsonResponse;
+    }
+
+    /**
+     * Creates a response for requests to the /ready API, which fails with
+     * status 503 until the warm-up is finished.
+     * 
+     * @param req the HTTP request sent to the /ready endpoint
+     * @param res the HTTP response containing header and HTTP status code
+     *            information
+     * @return a JSON object used as payload for the HTTP response
+     */
+    public Object createReadinessResponse(Request req, Response res) {
+        res.header("Content-Type", "application/json");
+        if (!warmup.isReady()) {
+            res.status(503);
+        }
+        JsonObject jsonResponse = new JsonObject();
+        jsonResponse.addProperty("ready", warmup.isReady());
+        jsonResponse.add("startup", warmup.toJson());
         return jsonResponse;
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,308 @@
+package de.uhd.ifi.se.accompleteness.rest;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.calculation.Agreement;
+import de.uhd.ifi.se.accompleteness.calculation.CalculatorRegistry;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.AcceptanceCriteriaPool;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCalculationParams;
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler;
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler.Priority;
+import de.uhd.ifi.se.accompleteness.extractor.ACExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.ExtractionParams;
+import de.uhd.ifi.se.accompleteness.extractor.USExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEExtractionParams;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEUSExtractor;
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.Topic;
+import de.uhd.ifi.se.accompleteness.model.UserStory;
+import de.uhd.ifi.se.accompleteness.model.UserStoryDocument;
+import spark.Request;
+import spark.Response;
+
+/**
+ * The /sweep API endpoint class which calculates the completeness of a dataset
+ * for every combination of a grid of params. Every user story is annotated
+ * only once, and the combinations are evaluated in parallel on the shared
+ * annotations. If labeled completeness values are given, the agreement of
+ * every combination with the labels is reported as well.
+ */
+public class SweepRest {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SweepRest.class);
+
+    private final PriorityScheduler scheduler;
+
+    private final int maxCombinations;
+
+    /**
+     * A user story with the parameter-independent results of its goal and its
+     * acceptance criteria.
+     */
+    private static class AnnotatedStory {
+        final UserStory userStory;
+        final ExtractionResult usRawResult;
+        final ExtractionResult acResult;
+
+        AnnotatedStory(UserStory userStory, ExtractionResult usRawResult, ExtractionResult acResult) {
+            this.userStory = userStory;
+            this.usRawResult = usRawResult;
+            this.acResult = acResult;
+        }
+    }
+
+    /**
+     * The constructor of the {@link SweepRest} class.
+     * 
+     * @param scheduler       the scheduler annotating the user stories and
+     *                        evaluating the combinations as bulk tasks
+     * @param maxCombinations the maximum number of combinations of a request
+     */
+    public SweepRest(PriorityScheduler scheduler, int maxCombinations) {
+        this.scheduler = scheduler;
+        this.maxCombinations = maxCombinations;
+    }
+
+    /**
+     * Creates a response for requests to the /sweep API.
+     * 
+     * @param req the HTTP request sent to the /sweep endpoint whose payload
+     *            contains a dataset of user stories, the base params, the grid
+     *            of param values and optionally labeled completeness values
+     * @param res the HTTP response containing header and HTTP status code
+     *            information
+     * @return an object used as payload for the HTTP response which contains
+     *         the completeness of every combination, or an error message in
+     *         the form of a string if an exception is thrown and catched
+     */
+    public Object createResponse(Request req, Response res) {
+        try {
+
+            LOG.info("Received sweep request of %d bytes".formatted(req.body().length()));
+
+            JsonObject jsonRequest = new Gson().fromJson(req.body(), JsonObject.class);
+            JsonArray documents = jsonRequest.get("dataset").getAsJsonObject().get("documents").getAsJsonArray();
+            JsonObject paramsJson = jsonRequest.get("params").getAsJsonObject();
+            JsonObject grid = jsonRequest.get("grid").getAsJsonObject();
+            JsonObject labels = jsonRequest.has("labels") ? jsonRequest.get("labels").getAsJsonObject()
+                    : new JsonObject();
+
+            JsonObject response = sweep(documents, paramsJson, grid, labels);
+
+            res.header("Content-Type", "application/json");
+
+            LOG.info("Returning sweep response: %s".formatted(response.get("metrics")));
+
+            return response;
+
+        } catch (IllegalArgumentException e) {
+            res.status(400);
+            LOG.warn(e.getMessage());
+            return "<h1>400 Bad Request</h1><code>" + e.getMessage() + "</code>";
+        } catch (Exception e) {
+            res.status(500);
+            LOG.error("Error during request handling: ", e);
+
+            StringWriter sw = new StringWriter();
+            PrintWriter pw = new PrintWriter(sw);
+            e.printStackTrace(pw);
+            String sStackTrace = sw.toString();
+
+            return "<h1>500 Internal Server Error</h1><code>" + sStackTrace.replaceAll("\\n", "<br>") + "</code>";
+        }
+    }
+
+    /**
+     * Calculates the completeness of a dataset for every combination of the
+     * param values of a grid.
+     * 
+     * @param documents  the user stories
+     * @param paramsJson the base params, which are overridden by the grid
+     * @param grid       the values of every varied param by its name
+     * @param labels     the labeled completeness values by user story ID, may
+     *                   be empty
+     * @return a object containing the results of all combinations in a Json
+     *         format
+     */
+    public JsonObject sweep(JsonArray documents, JsonObject paramsJson, JsonObject grid, JsonObject labels)
+            throws Exception {
+        long start = System.currentTimeMillis();
+        List<JsonObject> combinations = getCombinations(paramsJson, grid);
+
+        // Annotate every user story once with the extractor of the base params
+        if (grid.has("extractor")) {
+            throw new IllegalArgumentException(
+                    "The extractor cannot be varied, as every user story is annotated once.");
+        }
+        ExtractionParams baseExtractionParams = new OpenIEExtractionParams();
+        baseExtractionParams.setExtractionParamsFromJson(paramsJson);
+        ACExtractor acExtractor = baseExtractionParams.getExtractorType().createACExtractor();
+        USExtractor usExtractor = baseExtractionParams.getExtractorType().createUSExtractor();
+        List<Future<AnnotatedStory>> annotationFutures = new ArrayList<>();
+        for (JsonElement document : documents) {
+            annotationFutures.add(scheduler.submit(Priority.BULK,
+                    () -> annotate(document.getAsJsonObject(), usExtractor, acExtractor)));
+        }
+        List<AnnotatedStory> stories = getAll(annotationFutures);
+
+        // Extract the shared acceptance criteria once, which are indexed for
+        // the measure of every combination
+        if (grid.has("sharedAcceptanceCriteria")) {
+            throw new IllegalArgumentException(
+                    "The shared acceptance criteria cannot be varied, as they are extracted once.");
+        }
+        WordnetCalculationParams firstCalcParams = new WordnetCalculationParams();
+        firstCalcParams.setCalculationParamsFromJson(combinations.get(0));
+        List<Topic> sharedTopics = AcceptanceCriteriaPool
+                .extractTopics(firstCalcParams.getSharedAcceptanceCriteria(), acExtractor);
+        long annotationMillis = System.currentTimeMillis() - start;
+
+        // Evaluate the combinations in parallel on the shared annotations
+        List<Future<JsonObject>> combinationFutures = new ArrayList<>();
+        for (JsonObject combination : combinations) {
+            combinationFutures.add(
+                    scheduler.submit(Priority.BULK, () -> evaluate(stories, sharedTopics, combination, labels)));
+        }
+        JsonArray results = new JsonArray();
+        for (JsonObject result : getAll(combinationFutures)) {
+            results.add(result);
+        }
+
+        JsonObject response = new JsonObject();
+        response.add("combinations", results);
+        JsonObject metrics = new JsonObject();
+        metrics.addProperty("documents", stories.size());
+        metrics.addProperty("combinations", combinations.size());
+        metrics.addProperty("annotation_millis", annotationMillis);
+        metrics.addProperty("evaluation_millis", System.currentTimeMillis() - start - annotationMillis);
+        response.add("metrics", metrics);
+        return response;
+    }
+
+    /**
+     * Creates the params of every combination of the grid values.
+     */
+    private List<JsonObject> getCombinations(JsonObject paramsJson, JsonObject grid) {
+        List<JsonObject> combinations = new ArrayList<>();
+        combinations.add(paramsJson.deepCopy());
+        for (Map.Entry<String, JsonElement> param : grid.entrySet()) {
+            if (!param.getValue().isJsonArray() || param.getValue().getAsJsonArray().isEmpty()) {
+                throw new IllegalArgumentException("The grid values of " + param.getKey() + " must be a non-empty array.");
+            }
+            List<JsonObject> extended = new ArrayList<>();
+            for (JsonObject combination : combinations) {
+                for (JsonElement value : param.getValue().getAsJsonArray()) {
+                    JsonObject extendedCombination = combination.deepCopy();
+                    extendedCombination.add(param.getKey(), value);
+                    extended.add(extendedCombination);
+                }
+            }
+            if (extended.size() > maxCombinations) {
+                throw new IllegalArgumentException("The grid has more than " + maxCombinations + " combinations.");
+            }
+            combinations = extended;
+        }
+        return combinations;
+    }
+
+    private AnnotatedStory annotate(JsonObject document, USExtractor usExtractor, ACExtractor acExtractor)
+            throws Exception {
+        UserStoryDocument userStoryDocument = UserStoryDocument.parse(document.get("text").getAsString());
+        String acceptanceText = userStoryDocument.getAcceptanceCriteriaText();
+        UserStory userStory = new UserStory(userStoryDocument.getUserStoryText(), document.get("id").getAsString(),
+                acceptanceText);
+        return new AnnotatedStory(userStory, usExtractor.extractRaw(userStory.getGoal()),
+                acExtractor.extract(acceptanceText));
+    }
+
+    /**
+     * Calculates the completeness of all user stories for a combination of
+     * params.
+     */
+    private JsonObject evaluate(List<AnnotatedStory> stories, List<Topic> sharedTopics, JsonObject combination,
+            JsonObject labels) throws Exception {
+        OpenIEExtractionParams extractionParams = new OpenIEExtractionParams();
+        extractionParams.setExtractionParamsFromJson(combination);
+        WordnetCalculationParams calcParams = new WordnetCalculationParams();
+        calcParams.setCalculationParamsFromJson(combination);
+        // a grid over calculators compares the first calculator of each
+        // combination
+        String calculatorName = calcParams.getCalculatorNames().get(0);
+        AcceptanceCriteriaPool pool = sharedTopics.isEmpty() ? null
+                : new AcceptanceCriteriaPool(sharedTopics, calcParams);
+
+        JsonObject scores = new JsonObject();
+        double sumCompleteness = 0;
+        List<double[]> labeledPairs = new ArrayList<>();
+        for (AnnotatedStory story : stories) {
+            // only the filters of the annotated goal depend on the params
+            ExtractionResult usResult = OpenIEUSExtractor.filterTopics(story.usRawResult,
+                    story.userStory.getGoalStartPosition(), extractionParams);
+            double completeness = CalculatorRegistry
+                    .calculate(calculatorName, usResult, story.acResult, calcParams, story.userStory, pool)
+                    .getCompleteness();
+            String id = story.userStory.getId();
+            scores.addProperty(id, completeness);
+            sumCompleteness += completeness;
+            if (labels.has(id)) {
+                labeledPairs.add(new double[] { completeness, labels.get(id).getAsDouble() });
+            }
+        }
+
+        JsonObject result = new JsonObject();
+        result.add("params", combination);
+        // without user stories, there is no average
+        result.addProperty("avg_completeness", stories.isEmpty() ? null : sumCompleteness / stories.size());
+        result.add("scores", scores);
+        if (!labeledPairs.isEmpty()) {
+            double[] calculated = new double[labeledPairs.size()];
+            double[] labeled = new double[labeledPairs.size()];
+            for (int i = 0; i < labeledPairs.size(); i++) {
+                calculated[i] = labeledPairs.get(i)[0];
+                labeled[i] = labeledPairs.get(i)[1];
+            }
+            double correlation = Agreement.pearsonCorrelation(calculated, labeled);
+            result.addProperty("labeled_documents", labeledPairs.size());
+            result.addProperty("mean_absolute_error", Agreement.meanAbsoluteError(calculated, labeled));
+            result.addProperty("pearson_correlation", Double.isNaN(correlation) ? null : correlation);
+        }
+        return result;
+    }
+
+    /**
+     * Waits for the results of tasks, cancelling the remaining tasks if one of
+     * them fails.
+     */
+    private static <T> List<T> getAll(List<Future<T>> futures) throws Exception {
+        List<T> results = new ArrayList<>();
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        } finally {
+            for (Future<T> future : futures) {
+                future.cancel(true);
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,40 @@
+package de.uhd.ifi.se.accompleteness.session;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Stores the {@link StorySession}s of the most recently calculated user
+ * stories by their ID. The number of sessions is bounded, the least recently
+ * used session is removed first.
+ */
+public class SessionStore {
+
+    private final Map<String, StorySession> sessions;
+
+    /**
+     * Creates a session store.
+     * 
+     * @param capacity the maximum number of stored sessions
+     */
+    public SessionStore(int capacity) {
+        this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StorySession> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    public synchronized StorySession get(String userStoryId) {
+        return sessions.get(userStoryId);
+    }
+
+    public synchronized void put(String userStoryId, StorySession session) {
+        sessions.put(userStoryId, session);
+    }
+
+    public synchronized int size() {
+        return sessions.size();
+    }
+}
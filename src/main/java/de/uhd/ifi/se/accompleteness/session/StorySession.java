@@ -0,0 +1,144 @@
+package de.uhd.ifi.se.accompleteness.session;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.AcceptanceCriteriaPool;
+import de.uhd.ifi.se.accompleteness.extractor.ACExtractor;
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.SentenceExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.UserStory;
+
+/**
+ * Stores the intermediate results of the latest completeness calculation of a
+ * user story, so that the calculation can be repeated for changed acceptance
+ * criteria without extracting the user story and the unchanged acceptance
+ * criteria again.
+ */
+public class StorySession {
+
+    /**
+     * The user story section of the document.
+     */
+    private final String userStoryText;
+
+    private final ExtractionResult usResult;
+
+    private CalculationParams calcParams;
+
+    /**
+     * The pool of the shared acceptance criteria of the params, or
+     * {@code null}.
+     */
+    private AcceptanceCriteriaPool acceptanceCriteriaPool;
+
+    /**
+     * The digest of the /run request whose response the session belongs to,
+     * or {@code null} once the session has been re-evaluated.
+     */
+    private volatile String requestDigest;
+
+    /**
+     * The extractor of the acceptance criteria, which is also used for the
+     * changed acceptance criteria.
+     */
+    private final ACExtractor acExtractor;
+
+    /**
+     * The extraction results of the single acceptance criteria by their text.
+     * The positions of the topics are relative to the start of the acceptance
+     * criterion.
+     */
+    private Map<String, ExtractionResult> acceptanceCriteria;
+
+    public StorySession(String userStoryText, ExtractionResult usResult, CalculationParams calcParams,
+            AcceptanceCriteriaPool acceptanceCriteriaPool, ACExtractor acExtractor) {
+        this.userStoryText = userStoryText;
+        this.usResult = usResult;
+        this.calcParams = calcParams;
+        this.acceptanceCriteriaPool = acceptanceCriteriaPool;
+        this.acExtractor = acExtractor;
+        this.acceptanceCriteria = new HashMap<>();
+    }
+
+    public String getUserStoryText() {
+        return userStoryText;
+    }
+
+    /**
+     * Parses the user story again with other acceptance criteria.
+     * 
+     * @param id                 the ID of the user story
+     * @param acceptanceCriteria the acceptance criteria of the user story
+     * @return the user story
+     */
+    public UserStory createUserStory(String id, String acceptanceCriteria) throws Exception {
+        return new UserStory(userStoryText, id, acceptanceCriteria);
+    }
+
+    public ACExtractor getAcExtractor() {
+        return acExtractor;
+    }
+
+    public ExtractionResult getUsResult() {
+        return usResult;
+    }
+
+    public CalculationParams getCalcParams() {
+        return calcParams;
+    }
+
+    public String getRequestDigest() {
+        return requestDigest;
+    }
+
+    public void setRequestDigest(String requestDigest) {
+        this.requestDigest = requestDigest;
+    }
+
+    public AcceptanceCriteriaPool getAcceptanceCriteriaPool() {
+        return acceptanceCriteriaPool;
+    }
+
+    /**
+     * Replaces the params of the calculation together with the pool of their
+     * shared acceptance criteria.
+     * 
+     * @param calcParams             the params of the calculation
+     * @param acceptanceCriteriaPool the pool of the shared acceptance criteria
+     *                               of the params, or {@code null}
+     */
+    public void setCalcParams(CalculationParams calcParams, AcceptanceCriteriaPool acceptanceCriteriaPool) {
+        this.calcParams = calcParams;
+        this.acceptanceCriteriaPool = acceptanceCriteriaPool;
+    }
+
+    /**
+     * Returns the extraction result of a single acceptance criterion from the
+     * latest calculation.
+     * 
+     * @param acceptanceCriterion the text of the acceptance criterion
+     * @return the extraction result with positions relative to the start of the
+     *         acceptance criterion or {@code null} if the acceptance criterion
+     *         was not part of the latest calculation
+     */
+    public ExtractionResult getAcceptanceCriterion(String acceptanceCriterion) {
+        return acceptanceCriteria.get(acceptanceCriterion);
+    }
+
+    /**
+     * Replaces the stored acceptance criteria by the acceptance criteria of
+     * the latest calculation.
+     * 
+     * @param sentenceResults the extraction results of the acceptance criteria
+     */
+    public void setAcceptanceCriteria(List<SentenceExtractionResult> sentenceResults) {
+        Map<String, ExtractionResult> acceptanceCriteria = new HashMap<>();
+        for (SentenceExtractionResult sentenceResult : sentenceResults) {
+            acceptanceCriteria.putIfAbsent(sentenceResult.getSentence().getText(), sentenceResult);
+        }
+        this.acceptanceCriteria = acceptanceCriteria;
+    }
+}
@@ -0,0 +1,211 @@
+package de.uhd.ifi.se.accompleteness.startup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.cache.ResponseCache;
+import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.HypernymHierarchy;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetDictionary;
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler;
+import de.uhd.ifi.se.accompleteness.extractor.ExtractionParams;
+import de.uhd.ifi.se.accompleteness.extractor.chunk.PhraseChunker;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEExtractionParams;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEPipeline;
+import de.uhd.ifi.se.accompleteness.rest.RunRest;
+import de.uhd.ifi.se.accompleteness.session.SessionStore;
+import net.sf.extjwnl.data.POS;
+
+/**
+ * Loads the OpenIE pipeline, the pipeline of the chunker and the WordNet
+ * dictionary with the hypernym hierarchy of nouns in parallel and then runs a
+ * small built-in corpus through the whole calculation, so that the first
+ * request does not pay for loading the models and for the warm-up of the JIT
+ * compiler. The service is ready once
+ * all components are loaded.
+ */
+public class Warmup {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Warmup.class);
+
+    /**
+     * The user stories run through the calculation after the components are
+     * loaded.
+     */
+    private static final List<String> CORPUS = List.of(
+            "###As a customer I want to pay my order by credit card so that I receive my goods.###"
+                    + "+++The customer enters the credit card number. The customer receives a confirmation.+++",
+            "###As an administrator I want to delete inactive user accounts so that the database stays small.###"
+                    + "+++The administrator selects an account. The account is deleted from the database.+++",
+            "###As a user I want to reset my password so that I can log in again.###"
+                    + "+++The user receives an email with a link. The user enters a new password.+++");
+
+    /**
+     * The loading state of a component.
+     */
+    public enum State {
+        PENDING, LOADING, READY, FAILED
+    }
+
+    private static class Component {
+        volatile State state = State.PENDING;
+        volatile long loadMillis = -1;
+    }
+
+    private final PriorityScheduler scheduler;
+    private final Map<String, Component> components = new LinkedHashMap<>();
+    private volatile State state = State.PENDING;
+
+    /**
+     * The constructor of the {@link Warmup} class.
+     *
+     * @param scheduler the scheduler processing the user stories of the corpus
+     */
+    public Warmup(PriorityScheduler scheduler) {
+        this.scheduler = scheduler;
+        components.put("openie_pipeline", new Component());
+        components.put("chunk_pipeline", new Component());
+        components.put("wordnet_dictionary", new Component());
+        components.put("wordnet_hierarchy", new Component());
+        components.put("warm_up_corpus", new Component());
+    }
+
+    /**
+     * Starts the warm-up in a background thread, so that the service is live
+     * while it is not ready yet.
+     */
+    public void start() {
+        Thread thread = new Thread(this::run, "warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Marks the service as ready without loading the components, which are
+     * then loaded by the first request.
+     */
+    public void skip() {
+        state = State.READY;
+    }
+
+    /**
+     * Loads all components and runs the corpus. Failures are logged and leave
+     * the service not ready.
+     */
+    public void run() {
+        state = State.LOADING;
+        long start = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            CompletableFuture<Void> pipeline = CompletableFuture
+                    .runAsync(() -> load("openie_pipeline", OpenIEPipeline::getInstance), executor);
+            CompletableFuture<Void> chunkPipeline = CompletableFuture
+                    .runAsync(() -> load("chunk_pipeline", PhraseChunker::getPipeline), executor);
+            CompletableFuture<Void> dictionary = CompletableFuture
+                    .runAsync(() -> load("wordnet_dictionary", WordnetDictionary::getInstance), executor)
+                    .thenRunAsync(() -> load("wordnet_hierarchy", () -> HypernymHierarchy.getInstance(POS.NOUN)),
+                            executor);
+            CompletableFuture.allOf(pipeline, chunkPipeline, dictionary).get();
+            load("warm_up_corpus", this::runCorpus);
+            state = State.READY;
+            LOG.info("Warm-up finished after %d ms".formatted(System.currentTimeMillis() - start));
+        } catch (ExecutionException | RuntimeException e) {
+            state = State.FAILED;
+            LOG.error("Warm-up failed: ", e);
+        } catch (InterruptedException e) {
+            state = State.FAILED;
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @FunctionalInterface
+    private interface Loader {
+        Object load() throws Exception;
+    }
+
+    private void load(String name, Loader loader) {
+        Component component = components.get(name);
+        component.state = State.LOADING;
+        long start = System.currentTimeMillis();
+        try {
+            loader.load();
+        } catch (Exception e) {
+            component.state = State.FAILED;
+            throw new IllegalStateException("Loading " + name + " failed", e);
+        }
+        component.loadMillis = System.currentTimeMillis() - start;
+        component.state = State.READY;
+        LOG.info("Loaded %s in %d ms".formatted(name, component.loadMillis));
+    }
+
+    private Object runCorpus() throws Exception {
+        JsonArray documents = new JsonArray();
+        for (int i = 0; i < CORPUS.size(); i++) {
+            JsonObject document = new JsonObject();
+            document.addProperty("id", "warm-up-" + (i + 1));
+            document.addProperty("text", CORPUS.get(i));
+            documents.add(document);
+        }
+        JsonObject paramsJson = new JsonObject();
+        paramsJson.addProperty("debug", false);
+        paramsJson.addProperty("filterUSTopicsExcludeList", true);
+        paramsJson.addProperty("filterUSTopicsSimilarity", true);
+        paramsJson.addProperty("filterUSTopicsSimilarityThreshold", .5);
+        paramsJson.addProperty("filterUSTopicsCompositions", true);
+        paramsJson.addProperty("filterUSTopicsCompositionsMinLength", 3);
+        paramsJson.addProperty("wordnetDistanceThreshold", 3);
+        ExtractionParams extractionParams = new OpenIEExtractionParams();
+        extractionParams.setExtractionParamsFromJson(paramsJson);
+        CalculationParams calcParams = new WordnetCalculationParams();
+        calcParams.setCalculationParamsFromJson(paramsJson);
+
+        // the sessions and responses of the corpus are not kept
+        RunRest runRest = new RunRest(new SessionStore(0), new ResponseCache(0, 0), scheduler, CORPUS.size());
+        return runRest.calculateCompleteness(documents, extractionParams, calcParams);
+    }
+
+    /**
+     * Returns whether all components are loaded and requests are processed
+     * without delay.
+     *
+     * @return {@code true} if the service is ready
+     */
+    public boolean isReady() {
+        return state == State.READY;
+    }
+
+    /**
+     * Creates a JSON object containing the state of the warm-up and the state
+     * and load time of every component.
+     *
+     * @return the state of the warm-up
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("state", state.name().toLowerCase());
+        JsonObject componentsJson = new JsonObject();
+        for (Map.Entry<String, Component> entry : components.entrySet()) {
+            JsonObject componentJson = new JsonObject();
+            componentJson.addProperty("state", entry.getValue().state.name().toLowerCase());
+            long loadMillis = entry.getValue().loadMillis;
+            componentJson.addProperty("load_millis", loadMillis < 0 ? null : loadMillis);
+            componentsJson.add(entry.getKey(), componentJson);
+        }
+        json.add("components", componentsJson);
+        return json;
+    }
+}
@@ -0,0 +1,23 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.uhd.ifi.se.accompleteness.calculation.Agreement;
+
+public class AgreementTest {
+
+    @Test
+    public void testMeanAbsoluteError() {
+        assertEquals(.2, Agreement.meanAbsoluteError(new double[] { .5, 1, 0 }, new double[] { .7, .6, 0 }), .001);
+    }
+
+    @Test
+    public void testPearsonCorrelation() {
+        assertEquals(1, Agreement.pearsonCorrelation(new double[] { .1, .2, .3 }, new double[] { .2, .4, .6 }), .001);
+        assertEquals(-1, Agreement.pearsonCorrelation(new double[] { .1, .2, .3 }, new double[] { .6, .4, .2 }), .001);
+        assertTrue(Double.isNaN(Agreement.pearsonCorrelation(new double[] { .5, .5 }, new double[] { .2, .4 })));
+    }
+}
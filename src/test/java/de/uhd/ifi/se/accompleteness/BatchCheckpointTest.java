@@ -0,0 +1,41 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.uhd.ifi.se.accompleteness.cli.BatchCli;
+
+public class BatchCheckpointTest {
+
+    @Test
+    public void testPartialLastLineIsRemoved() throws Exception {
+        Path file = Files.createTempFile("results", ".jsonl");
+        Files.writeString(file, "{\"id\": \"US-1\"}\n{\"id\": \"US-2\"}\n{\"id\": \"U");
+
+        try {
+            assertEquals(Set.of("US-1", "US-2"), BatchCli.readCheckpoint(file));
+            assertEquals("{\"id\": \"US-1\"}\n{\"id\": \"US-2\"}\n", Files.readString(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testMissingLineBreakOfLastResultIsAppended() throws Exception {
+        Path file = Files.createTempFile("results", ".jsonl");
+        Files.writeString(file, "{\"id\": \"US-1\"}\n{\"id\": \"US-2\"}");
+
+        try {
+            assertEquals(Set.of("US-1", "US-2"), BatchCli.readCheckpoint(file));
+            // the results of the resumed run start on a new line
+            assertEquals("{\"id\": \"US-1\"}\n{\"id\": \"US-2\"}\n", Files.readString(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -2,22 +2,44 @@ package de.uhd.ifi.se.accompleteness;
 
 import org.junit.Test;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.CalculatorRegistry;
 import de.uhd.ifi.se.accompleteness.calculation.CompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.calculation.vectors.VectorCompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.calculation.vectors.WordVectors;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.AcceptanceCriteriaPool;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.HypernymHierarchy;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.HypernymHierarchy.Subsumption;
 import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCalculationParams;
 import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCompletenessCalculator;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetDictionary;
 import de.uhd.ifi.se.accompleteness.model.CompletenessCalcResult;
 import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
 import de.uhd.ifi.se.accompleteness.model.Relationship;
+import de.uhd.ifi.se.accompleteness.model.ResponseFields;
 import de.uhd.ifi.se.accompleteness.model.Topic;
 import de.uhd.ifi.se.accompleteness.model.UserStory;
+import de.uhd.ifi.se.accompleteness.model.UvlResponse;
+import net.sf.extjwnl.data.POS;
+import net.sf.extjwnl.data.Synset;
+import net.sf.extjwnl.dictionary.Dictionary;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class CompletenessCalculatorTest {
     
@@ -112,4 +134,300 @@ public class CompletenessCalculatorTest {
         // Assert that the actual result is not null
         assertEquals(.5, actualResult.getCompleteness(), .01);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testCalculateCompletenessWithSeveralCalculators() throws Exception {
+        List<Topic> usTopics = new ArrayList<>();
+        usTopics.add(new Topic("mouse", "NOUN", 4, 9));
+        usTopics.add(new Topic("dog", "NOUN", 14, 17));
+
+        List<Topic> acTopics = new ArrayList<>();
+        acTopics.add(new Topic("mouse", "NOUN", 4, 9));
+        acTopics.add(new Topic("puppy", "NOUN", 14, 19));
+
+        ExtractionResult usResult = new ExtractionResult(new ArrayList<>(), usTopics);
+        ExtractionResult acResult = new ExtractionResult(new ArrayList<>(), acTopics);
+        CalculationParams params = new WordnetCalculationParams();
+        JsonObject paramsJson = new JsonObject();
+        paramsJson.addProperty("wordnetDistanceThreshold", 3);
+        JsonArray calculators = new JsonArray();
+        calculators.add("wordnet");
+        calculators.add("naive");
+        paramsJson.add("calculators", calculators);
+        params.setCalculationParamsFromJson(paramsJson);
+        UserStory userStory = new UserStory("As a person I want to have a mouse and a dog.", "TEST-1", "The mouse and the puppy");
+
+        // both calculators use the same extraction results
+        CompletenessCalcResult actualResult = CalculatorRegistry.calculate(usResult, acResult, params, userStory);
+
+        assertEquals(1, actualResult.getCompleteness(), .01);
+        assertEquals(1, actualResult.getCompletenessByCalculator().get("wordnet"), .01);
+        assertEquals(.5, actualResult.getCompletenessByCalculator().get("naive"), .01);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCalculator() {
+        JsonObject paramsJson = new JsonObject();
+        paramsJson.addProperty("wordnetDistanceThreshold", 3);
+        paramsJson.addProperty("calculators", "unknown");
+        new WordnetCalculationParams().setCalculationParamsFromJson(paramsJson);
+    }
+
+    @Test
+    public void testNaiveCalculatorIgnoringCaseAndPlural() throws Exception {
+        List<Topic> usTopics = new ArrayList<>();
+        usTopics.add(new Topic("Orders", "NNS", 4, 10));
+        List<Topic> acTopics = new ArrayList<>();
+        acTopics.add(new Topic("order", "NN", 4, 9));
+        ExtractionResult usResult = new ExtractionResult(new ArrayList<>(), usTopics);
+        ExtractionResult acResult = new ExtractionResult(new ArrayList<>(), acTopics);
+        UserStory userStory = new UserStory("As a person I want to see my Orders.", "TEST-1", "The order");
+        CompletenessCalculator calculator = CalculatorRegistry.get("naive");
+
+        JsonObject paramsJson = new JsonObject();
+        paramsJson.addProperty("wordnetDistanceThreshold", 3);
+        CalculationParams params = new WordnetCalculationParams();
+        params.setCalculationParamsFromJson(paramsJson);
+        assertEquals(0, calculator.calculate_completeness(usResult, acResult, params, userStory).getCompleteness(), .01);
+
+        paramsJson.addProperty("matchIgnoreCase", true);
+        paramsJson.addProperty("matchIgnorePlural", true);
+        params.setCalculationParamsFromJson(paramsJson);
+        CompletenessCalcResult actualResult = calculator.calculate_completeness(usResult, acResult, params, userStory);
+        assertEquals(1, actualResult.getCompleteness(), .01);
+        assertEquals(acTopics.get(0), actualResult.getMatchedTopics().get(usTopics.get(0)));
+    }
+
+    @Test
+    public void testCalculateCompletenessWithSimilarityMeasures() throws Exception {
+        List<Topic> usTopics = new ArrayList<>();
+        usTopics.add(new Topic("dog", "NOUN", 4, 7));
+        List<Topic> acTopics = new ArrayList<>();
+        acTopics.add(new Topic("cat", "NOUN", 4, 7));
+        ExtractionResult usResult = new ExtractionResult(new ArrayList<>(), usTopics);
+        ExtractionResult acResult = new ExtractionResult(new ArrayList<>(), acTopics);
+        UserStory userStory = new UserStory("As a person I want to have a dog.", "TEST-1", "The cat");
+        CompletenessCalculator calculator = new WordnetCompletenessCalculator();
+
+        // dog and cat are related by a hypernym relationship of depth 4
+        JsonObject paramsJson = new JsonObject();
+        paramsJson.addProperty("wordnetDistanceThreshold", 3);
+        CalculationParams params = new WordnetCalculationParams();
+        params.setCalculationParamsFromJson(paramsJson);
+        assertEquals(0, calculator.calculate_completeness(usResult, acResult, params, userStory).getCompleteness(), .01);
+
+        // their lowest common subsumer carnivore is deep in the hierarchy
+        paramsJson.addProperty("wordnetMeasure", "wupalmer");
+        paramsJson.addProperty("wordnetSimilarityThreshold", .8);
+        params.setCalculationParamsFromJson(paramsJson);
+        assertEquals(1, calculator.calculate_completeness(usResult, acResult, params, userStory).getCompleteness(), .01);
+
+        paramsJson.addProperty("wordnetMeasure", "leacock-chodorow");
+        paramsJson.addProperty("wordnetSimilarityThreshold", 2.5);
+        params.setCalculationParamsFromJson(paramsJson);
+        assertEquals(0, calculator.calculate_completeness(usResult, acResult, params, userStory).getCompleteness(), .01);
+
+        // an unknown measure is rejected with the known measures
+        paramsJson.addProperty("wordnetMeasure", "cosine");
+        try {
+            params.setCalculationParamsFromJson(paramsJson);
+            fail("The measure cosine must be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unknown value cosine of the param wordnetMeasure, the values are "
+                    + "[distance, wupalmer, leacockchodorow]", e.getMessage());
+        }
+    }
+
+    @Test
+    public void testHypernymHierarchy() throws Exception {
+        Dictionary dictionary = WordnetDictionary.getInstance();
+        Synset dog = dictionary.lookupIndexWord(POS.NOUN, "dog").getSenses().get(0);
+        Synset puppy = dictionary.lookupIndexWord(POS.NOUN, "puppy").getSenses().get(0);
+        Synset car = dictionary.lookupIndexWord(POS.NOUN, "car").getSenses().get(0);
+        HypernymHierarchy hierarchy = HypernymHierarchy.getInstance(POS.NOUN);
+
+        // a puppy is a young dog
+        Subsumption subsumption = hierarchy.getSubsumption(puppy, dog);
+        assertEquals(1, subsumption.getPathLength());
+        assertEquals(subsumption.getSecondDepth(), subsumption.getSubsumerDepth());
+        assertEquals(1, hierarchy.getWuPalmerSimilarity(car, car), .001);
+        assertEquals(-Math.log(1.0 / (2 * hierarchy.getMaxDepth())),
+                hierarchy.getLeacockChodorowSimilarity(car, car), .001);
+        assertTrue(hierarchy.getWuPalmerSimilarity(dog, puppy) > hierarchy.getWuPalmerSimilarity(dog, car));
+    }
+
+    @Test
+    public void testCalculateCompletenessWithSeveralSenses() throws Exception {
+        List<Topic> usTopics = new ArrayList<>();
+        usTopics.add(new Topic("mouse", "NOUN", 4, 9));
+        List<Topic> acTopics = new ArrayList<>();
+        acTopics.add(new Topic("trackball", "NOUN", 4, 13));
+        ExtractionResult usResult = new ExtractionResult(new ArrayList<>(), usTopics);
+        ExtractionResult acResult = new ExtractionResult(new ArrayList<>(), acTopics);
+        UserStory userStory = new UserStory("As a person I want to use a mouse.", "TEST-1", "The trackball");
+        CompletenessCalculator calculator = new WordnetCompletenessCalculator();
+
+        // the first sense of mouse is the animal
+        JsonObject paramsJson = new JsonObject();
+        paramsJson.addProperty("wordnetDistanceThreshold", 3);
+        CalculationParams params = new WordnetCalculationParams();
+        params.setCalculationParamsFromJson(paramsJson);
+        assertEquals(0, calculator.calculate_completeness(usResult, acResult, params, userStory).getCompleteness(), .01);
+
+        // the fourth sense is the computer device
+        paramsJson.addProperty("wordnetSenses", 4);
+        params.setCalculationParamsFromJson(paramsJson);
+        assertEquals(1, calculator.calculate_completeness(usResult, acResult, params, userStory).getCompleteness(), .01);
+
+        // without budget, only the first senses are compared
+        paramsJson.addProperty("wordnetComparisonBudget", 0);
+        params.setCalculationParamsFromJson(paramsJson);
+        assertEquals(0, calculator.calculate_completeness(usResult, acResult, params, userStory).getCompleteness(), .01);
+    }
+
+    @Test
+    public void testVectorCalculator() throws Exception {
+        Path text = Files.createTempFile("vectors", ".txt");
+        Path binary = text.resolveSibling(text.getFileName() + WordVectors.BINARY_EXTENSION);
+        Files.writeString(text, "password 1 0.1 0\nsecret 0.9 0.2 0\nemail 0 1 0\nmail 0.1 0.9 0.1\nbutton 0 0 1\n");
+        try {
+            try {
+                WordVectors.open(text);
+                fail("A text file must be converted before it is mapped");
+            } catch (IOException e) {
+                assertTrue(e.getMessage().contains("VectorConverter"));
+            }
+            WordVectors.convert(text, binary);
+            WordVectors vectors = WordVectors.open(binary);
+            assertEquals(5, vectors.size());
+            assertEquals(3, vectors.getDimensions());
+            assertEquals(-1, vectors.indexOf("dog"));
+
+            List<Topic> usTopics = new ArrayList<>();
+            usTopics.add(new Topic("password", "NN", 4, 12));
+            usTopics.add(new Topic("email", "NN", 17, 22));
+            usTopics.add(new Topic("Button", "NN", 27, 33));
+            List<Topic> acTopics = new ArrayList<>();
+            acTopics.add(new Topic("secret", "NN", 4, 10));
+            acTopics.add(new Topic("mail", "NN", 15, 19));
+            ExtractionResult usResult = new ExtractionResult(new ArrayList<>(), usTopics);
+            ExtractionResult acResult = new ExtractionResult(new ArrayList<>(), acTopics);
+            UserStory userStory = new UserStory("As a user I want a password and email and Button.", "TEST-1", "The secret and mail");
+            JsonObject paramsJson = new JsonObject();
+            paramsJson.addProperty("wordnetDistanceThreshold", 3);
+            CalculationParams params = new WordnetCalculationParams();
+            params.setCalculationParamsFromJson(paramsJson);
+
+            CompletenessCalcResult actualResult = new VectorCompletenessCalculator(vectors)
+                    .calculate_completeness(usResult, acResult, params, userStory);
+            assertEquals(2. / 3, actualResult.getCompleteness(), .01);
+            assertEquals(acTopics.get(0), actualResult.getMatchedTopics().get(usTopics.get(0)));
+            assertEquals(acTopics.get(1), actualResult.getMatchedTopics().get(usTopics.get(1)));
+        } finally {
+            Files.delete(text);
+            Files.deleteIfExists(binary);
+        }
+    }
+
+    @Test
+    public void testRelationshipCalculator() throws Exception {
+        Topic usSubject = new Topic("I", "PRP", 14, 15);
+        Topic usOrder = new Topic("my order by credit card", "PRP$", 30, 53);
+        Topic usGoods = new Topic("my goods", "PRP$", 76, 84);
+        List<Relationship> usRelationships = new ArrayList<>();
+        usRelationships.add(new Relationship(usSubject, usOrder, "pay"));
+        usRelationships.add(new Relationship(usSubject, usGoods, "receive"));
+        Topic acBuyer = new Topic("buyer", "NN", 4, 9);
+        Topic acOrder = new Topic("order", "NN", 22, 27);
+        List<Relationship> acRelationships = new ArrayList<>();
+        acRelationships.add(new Relationship(acBuyer, acOrder, "can pay"));
+        ExtractionResult usResult = new ExtractionResult(usRelationships, List.of(usSubject, usOrder, usGoods));
+        ExtractionResult acResult = new ExtractionResult(acRelationships, List.of(acBuyer, acOrder));
+        UserStory userStory = new UserStory(
+                "As a customer I want to pay my order by credit card so that I receive my goods.", "TEST-1",
+                "The buyer can pay the order.");
+        CompletenessCalculator calculator = CalculatorRegistry.get("relationships");
+
+        // "I" stands for the customer, who is a buyer in WordNet
+        JsonObject paramsJson = new JsonObject();
+        paramsJson.addProperty("wordnetDistanceThreshold", 3);
+        CalculationParams params = new WordnetCalculationParams();
+        params.setCalculationParamsFromJson(paramsJson);
+        CompletenessCalcResult actualResult = calculator.calculate_completeness(usResult, acResult, params, userStory);
+        assertEquals(.5, actualResult.getCompleteness(), .01);
+        assertEquals(acBuyer, actualResult.getMatchedTopics().get(usSubject));
+        assertEquals(acOrder, actualResult.getMatchedTopics().get(usOrder));
+
+        paramsJson.addProperty("relationshipTopicMatch", "exact");
+        params.setCalculationParamsFromJson(paramsJson);
+        assertEquals(0, calculator.calculate_completeness(usResult, acResult, params, userStory).getCompleteness(), .01);
+    }
+
+    @Test
+    public void testCalculateCompletenessWithAcceptanceCriteriaPool() throws Exception {
+        List<Topic> usTopics = new ArrayList<>();
+        usTopics.add(new Topic("mouse", "NOUN", 4, 9));
+        usTopics.add(new Topic("dog", "NOUN", 14, 17));
+        usTopics.add(new Topic("xyzzy", "NOUN", 22, 27));
+        List<Topic> acTopics = new ArrayList<>();
+        acTopics.add(new Topic("mouse", "NOUN", 4, 9));
+        ExtractionResult usResult = new ExtractionResult(new ArrayList<>(), usTopics);
+        ExtractionResult acResult = new ExtractionResult(new ArrayList<>(), acTopics);
+        UserStory userStory = new UserStory("As a person I want to have a mouse and a dog and a xyzzy.", "TEST-1",
+                "The mouse");
+        WordnetCompletenessCalculator calculator = new WordnetCompletenessCalculator();
+
+        JsonObject paramsJson = new JsonObject();
+        paramsJson.addProperty("wordnetDistanceThreshold", 3);
+        WordnetCalculationParams params = new WordnetCalculationParams();
+        params.setCalculationParamsFromJson(paramsJson);
+        CompletenessCalcResult actualResult = calculator.calculate_completeness(usResult, acResult, params, userStory);
+        assertEquals(1. / 3, actualResult.getCompleteness(), .01);
+        assertNull(actualResult.getPoolMatchedTopics());
+
+        // the shared criteria cover the dog by the puppy and the xyzzy by its lemma
+        Topic puppy = new Topic("puppy", "NOUN", 4, 9);
+        Topic xyzzy = new Topic("xyzzy", "NOUN", 14, 19);
+        List<Topic> poolTopics = List.of(new Topic("database", "NOUN", 24, 32), puppy, xyzzy);
+        AcceptanceCriteriaPool pool = new AcceptanceCriteriaPool(poolTopics, params);
+        actualResult = calculator.calculate_completeness(usResult, acResult, params, userStory, pool);
+        assertEquals(1, actualResult.getCompleteness(), .01);
+        assertEquals(acTopics.get(0), actualResult.getMatchedTopics().get(usTopics.get(0)));
+        assertEquals(puppy, actualResult.getPoolMatchedTopics().get(usTopics.get(1)));
+        assertEquals(xyzzy, actualResult.getPoolMatchedTopics().get(usTopics.get(2)));
+
+        // the other calculators do not support shared acceptance criteria
+        paramsJson.addProperty("sharedAcceptanceCriteria", "The puppy");
+        paramsJson.addProperty("calculators", "naive");
+        try {
+            params.setCalculationParamsFromJson(paramsJson);
+            fail("The naive calculator must reject shared acceptance criteria");
+        } catch (IllegalArgumentException e) {
+            assertTrue(e.getMessage().contains("sharedAcceptanceCriteria"));
+        }
+    }
+
+    @Test
+    public void testResponseFields() throws Exception {
+        List<Topic> usTopics = List.of(new Topic("mouse", "NOUN", 4, 9));
+        UserStory userStory = new UserStory("As a person I want to have a mouse.", "TEST-1", "The mouse");
+        CompletenessCalcResult result = new CompletenessCalcResult(1, usTopics, usTopics,
+                Map.of(usTopics.get(0), usTopics.get(0)), userStory);
+
+        JsonObject all = UvlResponse.getJsonFromResult(result);
+        assertTrue(all.has("mapping"));
+        assertTrue(all.has("user_story_text"));
+
+        JsonObject paramsJson = new Gson().fromJson("{\"fields\": [\"completeness\"]}", JsonObject.class);
+        JsonObject response = UvlResponse.getJsonFromResults(List.of(result), ResponseFields.fromJson(paramsJson));
+        JsonObject projected = response.get("topics").getAsJsonObject().get("completeness_results").getAsJsonArray()
+                .get(0).getAsJsonObject();
+        assertEquals(Set.of("id", "status", "completeness"), projected.keySet());
+        assertEquals(1, response.get("metrics").getAsJsonObject().get("avg_completeness").getAsDouble(), .01);
+
+        paramsJson = new Gson().fromJson("{\"fields\": \"completeness, acMapping\"}", JsonObject.class);
+        projected = UvlResponse.getJsonFromResult(result, ResponseFields.fromJson(paramsJson));
+        assertEquals(Set.of("id", "status", "completeness", "acMapping"), projected.keySet());
+        assertEquals(all.get("acMapping"), projected.get("acMapping"));
+    }
+}
@@ -0,0 +1,281 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.coordinator.Coordinator;
+import de.uhd.ifi.se.accompleteness.coordinator.WorkerClient;
+
+public class CoordinatorTest {
+
+    /**
+     * Answers every shard without HTTP. The completeness of a document is its
+     * text parsed as a number, and a document with the text "timeout" times
+     * out. The completeness of the calculator "wordnet" is the same, that of
+     * the calculator "naive" is its complement. Documents with the same text
+     * are deduplicated.
+     */
+    private static class StubWorker extends WorkerClient {
+
+        private final int queued;
+        private final boolean failing;
+        private final List<JsonArray> shards = new ArrayList<>();
+        private final AtomicInteger running = new AtomicInteger();
+        private final AtomicInteger maxRunning = new AtomicInteger();
+        private volatile long runMillis;
+
+        StubWorker(String uri, int queued, boolean failing) {
+            super(URI.create(uri), null, Duration.ofSeconds(1));
+            this.queued = queued;
+            this.failing = failing;
+        }
+
+        @Override
+        public JsonObject run(JsonArray documents, JsonObject params) throws IOException {
+            synchronized (shards) {
+                shards.add(documents);
+            }
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(runMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                running.decrementAndGet();
+            }
+            if (failing) {
+                throw new IOException("Worker %s returned status 500".formatted(getBaseUri()));
+            }
+            JsonArray results = new JsonArray();
+            double sumCompleteness = 0;
+            int completed = 0;
+            for (JsonElement document : documents) {
+                JsonObject result = new JsonObject();
+                result.addProperty("id", document.getAsJsonObject().get("id").getAsString());
+                String text = document.getAsJsonObject().get("text").getAsString();
+                if ("timeout".equals(text)) {
+                    result.addProperty("status", "timeout");
+                } else {
+                    result.addProperty("status", "completed");
+                    result.addProperty("completeness", Double.parseDouble(text));
+                    sumCompleteness += Double.parseDouble(text);
+                    completed++;
+                }
+                results.add(result);
+            }
+            JsonObject topics = new JsonObject();
+            topics.add("completeness_results", results);
+            JsonObject metrics = new JsonObject();
+            metrics.addProperty("avg_completeness", completed == 0 ? null : sumCompleteness / completed);
+            if (completed > 0) {
+                JsonObject avgCompletenessByCalculator = new JsonObject();
+                avgCompletenessByCalculator.addProperty("wordnet", sumCompleteness / completed);
+                avgCompletenessByCalculator.addProperty("naive", 1 - sumCompleteness / completed);
+                metrics.add("avg_completeness_by_calculator", avgCompletenessByCalculator);
+            }
+            Set<String> uniqueTexts = new HashSet<>();
+            for (JsonElement document : documents) {
+                uniqueTexts.add(document.getAsJsonObject().get("text").getAsString());
+            }
+            metrics.addProperty("deduplicated_documents", documents.size() - uniqueTexts.size());
+            JsonObject response = new JsonObject();
+            response.add("topics", topics);
+            response.add("metrics", metrics);
+            return response;
+        }
+
+        /**
+         * Returns a status whose scheduler has the given number of queued
+         * documents.
+         */
+        @Override
+        public JsonObject getStatus() {
+            JsonObject scheduler = new JsonObject();
+            scheduler.addProperty("interactive_queue_depth", 0);
+            scheduler.addProperty("bulk_queue_depth", queued);
+            scheduler.addProperty("running", 0);
+            JsonObject status = new JsonObject();
+            status.add("scheduler", scheduler);
+            return status;
+        }
+
+        int getShardCount() {
+            synchronized (shards) {
+                return shards.size();
+            }
+        }
+    }
+
+    private static JsonArray documents(String... texts) {
+        JsonArray documents = new JsonArray();
+        for (int i = 0; i < texts.length; i++) {
+            JsonObject document = new JsonObject();
+            document.addProperty("id", "TEST-" + (i + 1));
+            document.addProperty("text", texts[i]);
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    @Test
+    public void testAverageCompletenessIsWeightedByCompletedDocuments() throws Exception {
+        StubWorker worker = new StubWorker("http://localhost:9641", 0, false);
+        Coordinator coordinator = new Coordinator(List.of(worker), 2, 0, 1);
+
+        // the first shard has one completed document, the second shard two
+        JsonObject response = coordinator.run(documents("1.0", "timeout", "0.5", "0.0", "timeout"),
+                new JsonObject());
+
+        JsonObject metrics = response.get("metrics").getAsJsonObject();
+        assertEquals(3, metrics.get("shards").getAsInt());
+        assertEquals(2, metrics.get("timed_out_documents").getAsInt());
+        // (1.0 + 0.5 + 0.0) / 3 and not the mean of the shard averages 1.0 and 0.25
+        assertEquals(0.5, metrics.get("avg_completeness").getAsDouble(), 0.0001);
+
+        JsonArray results = response.get("topics").getAsJsonObject().get("completeness_results").getAsJsonArray();
+        assertEquals(5, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals("TEST-" + (i + 1), results.get(i).getAsJsonObject().get("id").getAsString());
+        }
+    }
+
+    @Test
+    public void testAverageCompletenessByCalculatorIsWeightedByCompletedDocuments() throws Exception {
+        StubWorker worker = new StubWorker("http://localhost:9641", 0, false);
+        Coordinator coordinator = new Coordinator(List.of(worker), 2, 0, 1);
+
+        // the first shard has one completed document, the second shard two and
+        // the third shard none
+        JsonObject response = coordinator.run(documents("0.9", "timeout", "0.3", "0.0", "timeout"),
+                new JsonObject());
+
+        JsonObject averages = response.get("metrics").getAsJsonObject().get("avg_completeness_by_calculator")
+                .getAsJsonObject();
+        assertEquals(2, averages.size());
+        // (0.9 + 0.3 + 0.0) / 3 and not the mean of the shard averages 0.9 and 0.15
+        assertEquals(0.4, averages.get("wordnet").getAsDouble(), 0.0001);
+        assertEquals(0.6, averages.get("naive").getAsDouble(), 0.0001);
+    }
+
+    @Test
+    public void testDeduplicatedDocumentsOfTheShardsAreSummedUp() throws Exception {
+        StubWorker worker = new StubWorker("http://localhost:9641", 0, false);
+        Coordinator coordinator = new Coordinator(List.of(worker), 3, 0, 1);
+
+        // the duplicates of the first and the second shard, but not the
+        // duplicate across both shards
+        JsonObject response = coordinator.run(documents("0.5", "0.5", "1.0", "1.0", "1.0", "0.5"),
+                new JsonObject());
+
+        assertEquals(2, response.get("metrics").getAsJsonObject().get("deduplicated_documents").getAsInt());
+    }
+
+    @Test
+    public void testAverageCompletenessIsNullIfAllDocumentsTimedOut() throws Exception {
+        StubWorker worker = new StubWorker("http://localhost:9641", 0, false);
+        Coordinator coordinator = new Coordinator(List.of(worker), 1, 0, 1);
+
+        JsonObject response = coordinator.run(documents("timeout", "timeout"), new JsonObject());
+
+        JsonObject metrics = response.get("metrics").getAsJsonObject();
+        assertEquals(2, metrics.get("timed_out_documents").getAsInt());
+        assertEquals(true, metrics.get("avg_completeness").isJsonNull());
+    }
+
+    @Test
+    public void testConcurrentShardsAreSpreadAcrossWorkers() throws Exception {
+        // both workers report the same load, so only the shards reserved by
+        // the coordinator tell them apart
+        StubWorker worker = new StubWorker("http://localhost:9641", 0, false);
+        StubWorker otherWorker = new StubWorker("http://localhost:9642", 0, false);
+        worker.runMillis = 200;
+        otherWorker.runMillis = 200;
+        Coordinator coordinator = new Coordinator(List.of(worker, otherWorker), 1, 0, 2);
+
+        JsonObject response = coordinator.run(documents("1.0", "1.0", "1.0", "1.0"), new JsonObject());
+
+        assertEquals(4, response.get("topics").getAsJsonObject().get("completeness_results").getAsJsonArray().size());
+        assertEquals(2, worker.getShardCount());
+        assertEquals(2, otherWorker.getShardCount());
+        assertEquals(2, worker.maxRunning.get());
+        assertEquals(2, otherWorker.maxRunning.get());
+        assertEquals(0, worker.getPendingDocuments());
+        assertEquals(0, otherWorker.getPendingDocuments());
+    }
+
+    @Test
+    public void testShardsPerWorkerAreLimited() throws Exception {
+        // the other worker is busy, but a worker gets at most one shard at a time
+        StubWorker worker = new StubWorker("http://localhost:9641", 0, false);
+        StubWorker busyWorker = new StubWorker("http://localhost:9642", 100, false);
+        worker.runMillis = 50;
+        Coordinator coordinator = new Coordinator(List.of(worker, busyWorker), 1, 0, 1);
+
+        coordinator.run(documents("1.0", "1.0", "1.0", "1.0"), new JsonObject());
+
+        assertEquals(1, worker.maxRunning.get());
+        assertTrue(busyWorker.maxRunning.get() <= 1);
+        assertEquals(4, worker.getShardCount() + busyWorker.getShardCount());
+    }
+
+    @Test
+    public void testFailedShardIsRetriedOnAnotherWorker() throws Exception {
+        // the failing worker has the lowest load, so it receives the shard first
+        StubWorker failingWorker = new StubWorker("http://localhost:9641", 0, true);
+        StubWorker worker = new StubWorker("http://localhost:9642", 1, false);
+        Coordinator coordinator = new Coordinator(List.of(failingWorker, worker), 10, 1, 1);
+
+        JsonObject response = coordinator.run(documents("1.0", "0.5"), new JsonObject());
+
+        assertEquals(1, failingWorker.getShardCount());
+        assertEquals(1, worker.getShardCount());
+        assertEquals(0.75, response.get("metrics").getAsJsonObject().get("avg_completeness").getAsDouble(), 0.0001);
+        assertEquals(1, coordinator.getMetrics().get("shard_retries").getAsInt());
+    }
+
+    @Test
+    public void testRejectedParamsAreNotRetried() throws Exception {
+        StubWorker rejectingWorker = new StubWorker("http://localhost:9641", 0, false) {
+            @Override
+            public JsonObject run(JsonArray documents, JsonObject params) throws IOException {
+                super.run(documents, params);
+                throw new IllegalArgumentException("Unknown value fast of the param priority");
+            }
+        };
+        StubWorker worker = new StubWorker("http://localhost:9642", 1, false);
+        Coordinator coordinator = new Coordinator(List.of(rejectingWorker, worker), 10, 1, 1);
+
+        try {
+            coordinator.run(documents("1.0"), new JsonObject());
+            fail("The rejected params must fail the request");
+        } catch (IllegalArgumentException e) {
+            assertEquals("Unknown value fast of the param priority", e.getMessage());
+        }
+        assertEquals(0, worker.getShardCount());
+    }
+
+    @Test(expected = IOException.class)
+    public void testShardFailsAfterMaxRetries() throws Exception {
+        StubWorker failingWorker = new StubWorker("http://localhost:9641", 0, true);
+        StubWorker otherFailingWorker = new StubWorker("http://localhost:9642", 1, true);
+        Coordinator coordinator = new Coordinator(List.of(failingWorker, otherFailingWorker), 10, 2, 1);
+
+        coordinator.run(documents("1.0"), new JsonObject());
+    }
+}
@@ -0,0 +1,48 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.cli.DatasetReader;
+
+public class DatasetReaderTest {
+
+    @Test
+    public void testCsvWithUserStoryAndAcceptanceCriteriaColumns() throws Exception {
+        Path file = Files.createTempFile("dataset", ".csv");
+        Files.writeString(file, "User Story,Acceptance Criteria\n"
+                + "As a user I want to log in.,\"The user is logged in, \"\"quickly\"\".\nThe user sees a message.\"\n");
+
+        try (DatasetReader reader = new DatasetReader(file, DatasetReader.Format.of(file))) {
+            JsonObject document = reader.next();
+            assertEquals("0", document.get("id").getAsString());
+            assertEquals(
+                    "###As a user I want to log in.###+++The user is logged in, \"quickly\".\nThe user sees a message.+++",
+                    document.get("text").getAsString());
+            assertNull(reader.next());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testJsonLines() throws Exception {
+        Path file = Files.createTempFile("dataset", ".jsonl");
+        Files.writeString(file, "{\"id\": \"US-1\", \"text\": \"###As a user###+++A+++\"}\n\n{\"id\": \"US-2\", \"text\": \"\"}\n");
+
+        try (DatasetReader reader = new DatasetReader(file, DatasetReader.Format.of(file))) {
+            assertEquals("US-1", reader.next().get("id").getAsString());
+            assertEquals("US-2", reader.next().get("id").getAsString());
+            assertNull(reader.next());
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
@@ -7,11 +7,15 @@ import org.junit.Test;
 import com.google.gson.JsonObject;
 
 import de.uhd.ifi.se.accompleteness.extractor.ACExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.ExtractorType;
 import de.uhd.ifi.se.accompleteness.extractor.USExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.chunk.ChunkACExtractor;
+import de.uhd.ifi.se.accompleteness.extractor.chunk.ChunkUSExtractor;
 import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEACExtractor;
 import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEExtractionParams;
 import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEUSExtractor;
 import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.Relationship;
 import de.uhd.ifi.se.accompleteness.model.Topic;
 import de.uhd.ifi.se.accompleteness.model.UserStory;
 
@@ -69,4 +73,46 @@ public class ExtractionTest {
 
         assertEquals(true, result.getTopics().contains(new Topic("completeness")));
     }
+
+    @Test
+    public void testChunkExtractionUS() throws Exception {
+        USExtractor extractor = new ChunkUSExtractor();
+
+        String userStoryText = "As a customer I want to pay my order by credit card so that I receive my goods.";
+        UserStory userStory = new UserStory(userStoryText, "TEST-1", "The customer enters the credit card number.");
+
+        JsonObject paramsJson = new JsonObject();
+        paramsJson.addProperty("debug", false);
+        paramsJson.addProperty("filterUSTopicsExcludeList", true);
+        paramsJson.addProperty("filterUSTopicsSimilarity", false);
+        paramsJson.addProperty("filterUSTopicsSimilarityThreshold", .5);
+        paramsJson.addProperty("filterUSTopicsCompositions", false);
+        paramsJson.addProperty("filterUSTopicsCompositionsMinLength", 3);
+        paramsJson.addProperty("extractor", "chunk");
+        OpenIEExtractionParams params = new OpenIEExtractionParams();
+        params.setExtractionParamsFromJson(paramsJson);
+
+        ExtractionResult result = extractor.extract(userStory, params);
+
+        assertEquals(ExtractorType.CHUNK, params.getExtractorType());
+        assertEquals(false, result.getTopics().contains(new Topic("I")));
+        Topic creditCard = result.getTopics().get(result.getTopics().indexOf(new Topic("credit card")));
+        assertEquals("credit card",
+                userStoryText.substring(creditCard.getStartPosition(), creditCard.getEndPosition()));
+    }
+
+    @Test
+    public void testChunkExtractionAC() throws Exception {
+        ACExtractor extractor = new ChunkACExtractor();
+
+        ExtractionResult result = extractor.extract("The customer enters the credit card number. The user is notified by email.");
+
+        assertEquals(true, result.getTopics().contains(new Topic("credit card number")));
+        // the positions are those of the first token as for OpenIE
+        Topic creditCardNumber = result.getTopics().get(result.getTopics().indexOf(new Topic("credit card number")));
+        assertEquals(24, creditCardNumber.getStartPosition());
+        assertEquals(30, creditCardNumber.getEndPosition());
+        assertEquals(true, result.getRelationships().contains(
+                new Relationship(new Topic("user"), new Topic("email"), "be notify by")));
+    }
 }
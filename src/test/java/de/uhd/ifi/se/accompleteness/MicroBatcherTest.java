@@ -0,0 +1,189 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.Test;
+
+import de.uhd.ifi.se.accompleteness.concurrent.MicroBatcher;
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler.Priority;
+
+public class MicroBatcherTest {
+
+    /**
+     * Records the processed batches and returns the items in upper case. The
+     * item "block" waits until the blocker is released, and a batch with the
+     * item "fail" fails.
+     */
+    private static class RecordingProcessor {
+
+        private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+        private final CountDownLatch blocker = new CountDownLatch(1);
+
+        List<String> process(List<String> items) {
+            batches.add(List.copyOf(items));
+            if (items.contains("block")) {
+                try {
+                    blocker.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if (items.contains("fail")) {
+                throw new IllegalStateException("Batch failed");
+            }
+            List<String> results = new ArrayList<>();
+            for (String item : items) {
+                results.add(item.toUpperCase());
+            }
+            return results;
+        }
+    }
+
+    @Test
+    public void testBatchIsProcessedWhenFull() throws Exception {
+        RecordingProcessor processor = new RecordingProcessor();
+        MicroBatcher<String, String> batcher = new MicroBatcher<>("test-batcher", processor::process, 2, 0, 30000);
+
+        // occupy the dispatcher while the other items are queued
+        batcher.submit(Priority.INTERACTIVE, "block");
+        Thread.sleep(100);
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (String item : List.of("a", "b", "c", "d", "e")) {
+            futures.add(batcher.submit(Priority.INTERACTIVE, item));
+        }
+        processor.blocker.countDown();
+        for (CompletableFuture<String> future : futures) {
+            future.get();
+        }
+
+        assertEquals(List.of(List.of("block"), List.of("a", "b"), List.of("c", "d"), List.of("e")),
+                processor.batches);
+        assertEquals(4, batcher.getBatches());
+    }
+
+    @Test
+    public void testBatchIsProcessedWhenLingerTimeHasPassed() throws Exception {
+        RecordingProcessor processor = new RecordingProcessor();
+        MicroBatcher<String, String> batcher = new MicroBatcher<>("test-batcher", processor::process, 16, 300,
+                30000);
+
+        long start = System.currentTimeMillis();
+        CompletableFuture<String> first = batcher.submit(Priority.INTERACTIVE, "a");
+        Thread.sleep(50);
+        CompletableFuture<String> second = batcher.submit(Priority.INTERACTIVE, "b");
+        first.get();
+        second.get();
+
+        // the batch is not full, so it waits for further items until the
+        // linger time has passed since its first item
+        assertTrue(System.currentTimeMillis() - start >= 300);
+        assertEquals(List.of(List.of("a", "b")), processor.batches);
+    }
+
+    @Test
+    public void testCancelledItemsAreSkipped() throws Exception {
+        RecordingProcessor processor = new RecordingProcessor();
+        MicroBatcher<String, String> batcher = new MicroBatcher<>("test-batcher", processor::process, 16, 0, 30000);
+
+        batcher.submit(Priority.INTERACTIVE, "block");
+        Thread.sleep(100);
+        CompletableFuture<String> cancelled = batcher.submit(Priority.INTERACTIVE, "a");
+        CompletableFuture<String> other = batcher.submit(Priority.INTERACTIVE, "b");
+        cancelled.cancel(false);
+        processor.blocker.countDown();
+
+        assertEquals("B", other.get());
+        assertTrue(cancelled.isCancelled());
+        assertEquals(List.of("b"), processor.batches.get(1));
+    }
+
+    @Test
+    public void testFailedBatchFailsAllItsItems() throws Exception {
+        RecordingProcessor processor = new RecordingProcessor();
+        MicroBatcher<String, String> batcher = new MicroBatcher<>("test-batcher", processor::process, 16, 0, 30000);
+
+        batcher.submit(Priority.INTERACTIVE, "block");
+        Thread.sleep(100);
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (String item : List.of("a", "fail", "b")) {
+            futures.add(batcher.submit(Priority.INTERACTIVE, item));
+        }
+        processor.blocker.countDown();
+
+        for (CompletableFuture<String> future : futures) {
+            try {
+                future.get();
+                fail("Every item of the failed batch must fail");
+            } catch (ExecutionException e) {
+                assertEquals("Batch failed", e.getCause().getMessage());
+            }
+        }
+        // the dispatcher continues with the next batch
+        assertEquals("C", batcher.submit(Priority.INTERACTIVE, "c").get());
+    }
+
+    @Test
+    public void testResultsKeepTheOrderOfTheItems() throws Exception {
+        RecordingProcessor processor = new RecordingProcessor();
+        MicroBatcher<String, String> batcher = new MicroBatcher<>("test-batcher", processor::process, 16, 0, 30000);
+
+        batcher.submit(Priority.INTERACTIVE, "block");
+        Thread.sleep(100);
+        List<String> items = List.of("a", "b", "c", "d");
+        List<CompletableFuture<String>> futures = new ArrayList<>();
+        for (String item : items) {
+            futures.add(batcher.submit(Priority.INTERACTIVE, item));
+        }
+        processor.blocker.countDown();
+
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(items.get(i).toUpperCase(), futures.get(i).get());
+        }
+        assertEquals(items, processor.batches.get(1));
+    }
+
+    @Test
+    public void testInteractiveItemsAreBatchedBeforeBulkItems() throws Exception {
+        RecordingProcessor processor = new RecordingProcessor();
+        MicroBatcher<String, String> batcher = new MicroBatcher<>("test-batcher", processor::process, 2, 0, 30000);
+
+        // occupy the dispatcher while the other items are queued
+        batcher.submit(Priority.BULK, "block");
+        Thread.sleep(100);
+        CompletableFuture<String> bulk = batcher.submit(Priority.BULK, "bulk");
+        CompletableFuture<String> otherBulk = batcher.submit(Priority.BULK, "other bulk");
+        batcher.submit(Priority.INTERACTIVE, "interactive");
+        processor.blocker.countDown();
+        bulk.get();
+        otherBulk.get();
+
+        assertEquals(List.of("interactive", "bulk"), processor.batches.get(1));
+        assertEquals(List.of("other bulk"), processor.batches.get(2));
+    }
+
+    @Test
+    public void testStarvingBulkItemsAreBatchedFirst() throws Exception {
+        RecordingProcessor processor = new RecordingProcessor();
+        MicroBatcher<String, String> batcher = new MicroBatcher<>("test-batcher", processor::process, 1, 0, 50);
+
+        batcher.submit(Priority.BULK, "block");
+        Thread.sleep(100);
+        batcher.submit(Priority.BULK, "bulk");
+        Thread.sleep(100);
+        CompletableFuture<String> interactive = batcher.submit(Priority.INTERACTIVE, "interactive");
+        processor.blocker.countDown();
+        interactive.get();
+
+        assertEquals(List.of("bulk"), processor.batches.get(1));
+        assertEquals(List.of("interactive"), processor.batches.get(2));
+    }
+}
@@ -0,0 +1,76 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.duplicates.NearDuplicateDetector;
+
+public class NearDuplicateTest {
+
+    private static JsonObject result(String id, String goal) {
+        JsonObject result = new JsonObject();
+        result.addProperty("id", id);
+        result.addProperty("status", "completed");
+        result.addProperty("user_story_goal", goal);
+        result.addProperty("completeness", 1.0);
+        return result;
+    }
+
+    @Test
+    public void testNearDuplicateGoalsAreClustered() {
+        JsonArray results = new JsonArray();
+        results.add(result("1", "I want to export the monthly sales report as a PDF file so that I can share it"));
+        results.add(result("2", "I want to pay my order by credit card"));
+        results.add(result("3", "I want to export the monthly sales report as a PDF file so that I can share it."));
+        JsonObject timedOut = new JsonObject();
+        timedOut.addProperty("id", "4");
+        timedOut.addProperty("status", "timeout");
+        results.add(timedOut);
+        results.add(result("5", "I want to pay my order by credit card"));
+        results.add(result("6", "I want to reset my password"));
+        JsonObject completenessResults = new JsonObject();
+        completenessResults.add("completeness_results", results);
+        JsonObject response = new JsonObject();
+        response.add("topics", completenessResults);
+        response.add("metrics", new JsonObject());
+
+        NearDuplicateDetector detector = new NearDuplicateDetector();
+        detector.setNearDuplicateParamsFromJson(new Gson().fromJson("{\"nearDuplicates\": true}", JsonObject.class));
+        assertTrue(detector.isEnabled());
+        detector.annotate(response);
+
+        assertEquals(1, results.get(0).getAsJsonObject().get("near_duplicate_cluster").getAsInt());
+        assertEquals(2, results.get(1).getAsJsonObject().get("near_duplicate_cluster").getAsInt());
+        assertEquals(1, results.get(2).getAsJsonObject().get("near_duplicate_cluster").getAsInt());
+        assertFalse(results.get(3).getAsJsonObject().has("near_duplicate_cluster"));
+        assertEquals(2, results.get(4).getAsJsonObject().get("near_duplicate_cluster").getAsInt());
+        assertTrue(results.get(5).getAsJsonObject().get("near_duplicate_cluster").isJsonNull());
+        assertEquals(2, response.get("metrics").getAsJsonObject().get("near_duplicate_clusters").getAsInt());
+    }
+
+    @Test(timeout = 10000)
+    public void testIdenticalSetsAreClusteredInLinearTime() {
+        List<Set<String>> sets = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            sets.add(Set.of("export the", "the monthly", "monthly report", "report as", "as pdf"));
+        }
+        sets.add(Set.of("reset my", "my password"));
+
+        int[] clusters = NearDuplicateDetector.findClusters(sets, NearDuplicateDetector.DEFAULT_THRESHOLD);
+        for (int i = 0; i < 20000; i++) {
+            assertEquals(1, clusters[i]);
+        }
+        assertEquals(0, clusters[20000]);
+    }
+}
@@ -0,0 +1,66 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler;
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler.Priority;
+
+public class PrioritySchedulerTest {
+
+    @Test
+    public void testInteractiveTasksRunBeforeBulkTasks() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler(1, 8, 30000);
+        CountDownLatch blocker = new CountDownLatch(1);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        // occupy the only worker while the other tasks are queued
+        scheduler.submit(Priority.BULK, () -> {
+            blocker.await();
+            return null;
+        });
+        Thread.sleep(100);
+        scheduler.submit(Priority.BULK, () -> order.add("bulk"));
+        Future<Boolean> last = scheduler.submit(Priority.INTERACTIVE, () -> order.add("interactive"));
+        blocker.countDown();
+        last.get();
+        Thread.sleep(100);
+
+        assertEquals(List.of("interactive", "bulk"), order);
+    }
+
+    @Test
+    public void testTasksKnowTheirPriority() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler(1, 8, 30000);
+
+        assertEquals(Priority.BULK, scheduler.submit(Priority.BULK, PriorityScheduler::getCurrentPriority).get());
+        assertEquals(Priority.INTERACTIVE,
+                scheduler.submit(Priority.INTERACTIVE, PriorityScheduler::getCurrentPriority).get());
+        // threads of the requests are interactive
+        assertEquals(Priority.INTERACTIVE, PriorityScheduler.getCurrentPriority());
+    }
+
+    @Test(expected = CancellationException.class)
+    public void testTaskExceedingTimeBudgetIsCancelled() throws Exception {
+        PriorityScheduler scheduler = new PriorityScheduler(1, 8, 30000);
+        Future<Object> slow = scheduler.submit(Priority.INTERACTIVE, () -> {
+            Thread.sleep(10000);
+            return null;
+        }, 100);
+        Future<String> next = scheduler.submit(Priority.INTERACTIVE, () -> "done", 100);
+
+        // the worker is free for the next task
+        assertEquals("done", next.get());
+        assertTrue(slow.isCancelled());
+        assertEquals(1, scheduler.getMetrics().get("timed_out").getAsInt());
+        slow.get();
+    }
+}
@@ -0,0 +1,117 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.cache.ResponseCache;
+import de.uhd.ifi.se.accompleteness.calculation.CalculationParams;
+import de.uhd.ifi.se.accompleteness.calculation.wordnet.WordnetCalculationParams;
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler;
+import de.uhd.ifi.se.accompleteness.extractor.openie.OpenIEExtractionParams;
+import de.uhd.ifi.se.accompleteness.rest.ReevaluateRest;
+import de.uhd.ifi.se.accompleteness.rest.RunRest;
+import de.uhd.ifi.se.accompleteness.session.SessionStore;
+
+public class ReevaluationTest {
+
+    private static final String USER_STORY = "###As a customer I want to pay my order by credit card so that I receive my goods.###";
+
+    private static JsonObject createParams() {
+        JsonObject paramsJson = new JsonObject();
+        paramsJson.addProperty("debug", false);
+        paramsJson.addProperty("filterUSTopicsExcludeList", true);
+        paramsJson.addProperty("filterUSTopicsSimilarity", false);
+        paramsJson.addProperty("filterUSTopicsSimilarityThreshold", .5);
+        paramsJson.addProperty("filterUSTopicsCompositions", false);
+        paramsJson.addProperty("filterUSTopicsCompositionsMinLength", 3);
+        paramsJson.addProperty("wordnetDistanceThreshold", 3);
+        return paramsJson;
+    }
+
+    private static JsonObject run(RunRest runRest, String text) throws Exception {
+        return run(runRest, new String[] { text });
+    }
+
+    private static JsonObject run(RunRest runRest, String... texts) throws Exception {
+        JsonArray documents = new JsonArray();
+        for (int i = 0; i < texts.length; i++) {
+            JsonObject document = new JsonObject();
+            document.addProperty("id", "TEST-" + (i + 1));
+            document.addProperty("text", texts[i]);
+            documents.add(document);
+        }
+
+        OpenIEExtractionParams extractionParams = new OpenIEExtractionParams();
+        extractionParams.setExtractionParamsFromJson(createParams());
+        CalculationParams calcParams = new WordnetCalculationParams();
+        calcParams.setCalculationParamsFromJson(createParams());
+        return runRest.calculateCompleteness(documents, extractionParams, calcParams);
+    }
+
+    private static double getCompleteness(JsonObject response) {
+        return response.get("topics").getAsJsonObject().get("completeness_results").getAsJsonArray().get(0)
+                .getAsJsonObject().get("completeness").getAsDouble();
+    }
+
+    @Test
+    public void testReevaluationReusesUnchangedAcceptanceCriteria() throws Exception {
+        SessionStore sessionStore = new SessionStore(10);
+        RunRest runRest = new RunRest(sessionStore, new ResponseCache(0, 0), new PriorityScheduler(2, 8, 30000), 5);
+        ReevaluateRest reevaluateRest = new ReevaluateRest(sessionStore);
+        run(runRest, USER_STORY + "+++The customer enters the credit card number. The customer sees a message.+++");
+
+        String changedAcceptanceText = "The customer enters the credit card number. The customer receives the goods.";
+        JsonObject reevaluation = reevaluateRest.reevaluate("TEST-1", changedAcceptanceText, null);
+        JsonObject metrics = reevaluation.get("metrics").getAsJsonObject();
+
+        assertEquals(1, metrics.get("recomputed_acceptance_criteria").getAsInt());
+        assertEquals(1, metrics.get("reused_acceptance_criteria").getAsInt());
+
+        JsonObject fullRun = run(new RunRest(new SessionStore(10), new ResponseCache(0, 0),
+                new PriorityScheduler(2, 8, 30000), 5), USER_STORY + "+++" + changedAcceptanceText + "+++");
+
+        assertEquals(getCompleteness(fullRun), getCompleteness(reevaluation), .001);
+    }
+
+    @Test
+    public void testDuplicateDocumentsAreProcessedOnce() throws Exception {
+        SessionStore sessionStore = new SessionStore(10);
+        RunRest runRest = new RunRest(sessionStore, new ResponseCache(0, 0), new PriorityScheduler(2, 8, 30000), 5);
+        String acceptanceText = "The customer pays my order by credit card.";
+        String duplicateAcceptanceText = " The customer  pays my   order by credit card. ";
+        JsonObject response = run(runRest, USER_STORY + "+++" + acceptanceText + "+++",
+                USER_STORY + "+++" + duplicateAcceptanceText + "+++");
+
+        assertEquals(1, response.get("metrics").getAsJsonObject().get("deduplicated_documents").getAsInt());
+        JsonArray results = response.get("topics").getAsJsonObject().get("completeness_results").getAsJsonArray();
+        assertEquals("TEST-1", results.get(0).getAsJsonObject().get("id").getAsString());
+        assertEquals("TEST-2", results.get(1).getAsJsonObject().get("id").getAsString());
+        assertEquals(results.get(0).getAsJsonObject().get("completeness").getAsDouble(),
+                results.get(1).getAsJsonObject().get("completeness").getAsDouble(), .001);
+
+        // every ID reports its own texts with the positions of the topics in them
+        JsonObject duplicate = results.get(1).getAsJsonObject();
+        assertEquals(duplicateAcceptanceText, duplicate.get("acceptance_criteria_text").getAsString());
+        int matchedTopics = 0;
+        for (JsonElement mapping : duplicate.get("acMapping").getAsJsonArray()) {
+            JsonObject acMapping = mapping.getAsJsonObject();
+            if (acMapping.has("acTopicStart")) {
+                assertTrue(duplicateAcceptanceText.startsWith(acMapping.get("token").getAsString().split(" ")[0],
+                        acMapping.get("acTopicStart").getAsInt()));
+                matchedTopics++;
+            }
+        }
+        assertTrue(matchedTopics > 0);
+
+        // both IDs can be re-evaluated
+        ReevaluateRest reevaluateRest = new ReevaluateRest(sessionStore);
+        JsonObject reevaluation = reevaluateRest.reevaluate("TEST-2", acceptanceText, null);
+        assertEquals(1, reevaluation.get("metrics").getAsJsonObject().get("reused_acceptance_criteria").getAsInt());
+    }
+}
@@ -0,0 +1,55 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.cache.RequestDigest;
+import de.uhd.ifi.se.accompleteness.cache.ResponseCache;
+
+public class ResponseCacheTest {
+
+    @Test
+    public void testDigestIgnoresMemberOrder() {
+        JsonObject params = new Gson().fromJson("{\"debug\": false, \"wordnetDistanceThreshold\": 3}", JsonObject.class);
+        JsonObject reordered = new Gson().fromJson("{\"wordnetDistanceThreshold\": 3.0, \"debug\": false}", JsonObject.class);
+        JsonObject changed = new Gson().fromJson("{\"wordnetDistanceThreshold\": 4, \"debug\": false}", JsonObject.class);
+
+        assertEquals(RequestDigest.digest(params), RequestDigest.digest(reordered));
+        assertFalse(RequestDigest.digest(params).equals(RequestDigest.digest(changed)));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResponseIsRemoved() {
+        ResponseCache cache = new ResponseCache(10, 60);
+        cache.put("a", "aaaa");
+        cache.put("b", "bbbb");
+        cache.get("a");
+        cache.put("c", "cccc");
+
+        assertEquals("aaaa", cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals("cccc", cache.get("c"));
+        assertEquals(8, cache.getBytes());
+    }
+
+    @Test
+    public void testExpiredResponseIsRemoved() {
+        ResponseCache cache = new ResponseCache(10, 0);
+        cache.put("a", "aaaa");
+
+        try {
+            Thread.sleep(5);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        assertNull(cache.get("a"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,45 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import de.uhd.ifi.se.accompleteness.cache.SentenceCache;
+import de.uhd.ifi.se.accompleteness.model.ExtractionResult;
+import de.uhd.ifi.se.accompleteness.model.Relationship;
+import de.uhd.ifi.se.accompleteness.model.Topic;
+
+public class SentenceCacheTest {
+
+    @Test
+    public void testPositionsAreConvertedToOtherWhitespace() {
+        SentenceCache cache = new SentenceCache(10);
+        Topic user = new Topic("user", "NN", 6, 10);
+        Topic email = new Topic("email", "NN", 26, 31);
+        cache.put("The   user is notified by\temail.",
+                new ExtractionResult(List.of(new Relationship(user, email, "be notify by")), List.of(user, email)));
+
+        ExtractionResult result = cache.get("The user is notified by email.");
+
+        assertEquals(4, result.getTopics().get(0).getStartPosition());
+        assertEquals(8, result.getTopics().get(0).getEndPosition());
+        assertEquals(24, result.getTopics().get(1).getStartPosition());
+        assertEquals(29, result.getTopics().get(1).getEndPosition());
+        assertEquals(24, result.getRelationships().get(0).getRightTopic().getStartPosition());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedSentenceIsRemoved() {
+        SentenceCache cache = new SentenceCache(1);
+        ExtractionResult empty = new ExtractionResult(List.of(), List.of());
+        cache.put("Changes are persisted.", empty);
+        cache.put("The user is notified.", empty);
+
+        assertNull(cache.get("Changes are persisted."));
+        assertEquals(0, cache.get("The user is notified.").getTopics().size());
+        assertEquals(.5, cache.getHitRate(), .001);
+    }
+}
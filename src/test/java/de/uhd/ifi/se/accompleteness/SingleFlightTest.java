@@ -0,0 +1,109 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import de.uhd.ifi.se.accompleteness.concurrent.SingleFlight;
+import de.uhd.ifi.se.accompleteness.exception.ExtractionTimeoutException;
+
+public class SingleFlightTest {
+
+    @Test
+    public void testConcurrentCallersShareOneComputation() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(10000);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            awaitLatch(release);
+            return computations.incrementAndGet();
+        }));
+        started.await();
+        List<Future<Integer>> waiters = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            waiters.add(executor.submit(() -> singleFlight.execute("key", computations::incrementAndGet)));
+        }
+        // give the waiters time to join the computation in progress
+        Thread.sleep(200);
+        release.countDown();
+
+        assertEquals(1, (int) leader.get());
+        for (Future<Integer> waiter : waiters) {
+            assertEquals(1, (int) waiter.get());
+        }
+        assertEquals(1, computations.get());
+        assertEquals(0, singleFlight.size());
+        executor.shutdown();
+    }
+
+    @Test
+    public void testFailureIsPassedOnToWaiters() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(10000);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        Future<Integer> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            awaitLatch(release);
+            throw new IllegalStateException("failed");
+        }));
+        started.await();
+        Future<Integer> waiter = executor.submit(() -> singleFlight.execute("key", () -> 1));
+        Thread.sleep(200);
+        release.countDown();
+
+        for (Future<Integer> future : List.of(leader, waiter)) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof IllegalStateException);
+                continue;
+            }
+            throw new AssertionError("The failure was not passed on");
+        }
+        executor.shutdown();
+    }
+
+    @Test(expected = ExtractionTimeoutException.class)
+    public void testWaiterTimesOut() throws Exception {
+        SingleFlight<String, Integer> singleFlight = new SingleFlight<>(50);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            awaitLatch(release);
+            return 1;
+        }));
+        started.await();
+        try {
+            singleFlight.execute("key", () -> 2);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitLatch(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import de.uhd.ifi.se.accompleteness.model.UserStory;
+import de.uhd.ifi.se.accompleteness.model.UserStoryDocument;
+
+public class UserStoryTest {
+
+    @Test
+    public void testDocumentSections() {
+        UserStoryDocument document = UserStoryDocument
+                .parse("###As a user\nI want to log in.###\n+++The user is\nlogged in.+++");
+
+        assertEquals("As a userI want to log in.", document.getUserStoryText());
+        assertEquals("The user islogged in.", document.getAcceptanceCriteriaText());
+    }
+
+    @Test
+    public void testAcceptanceCriteriaSection() {
+        UserStoryDocument document = UserStoryDocument.parse("###As a user I want to log in.###\n+++ The user is logged in.+++");
+
+        assertEquals(" The user is logged in.", document.getAcceptanceCriteriaText());
+
+        // with a single +++ marker, the section starts three characters after
+        // the user story section
+        document = UserStoryDocument.parse("###As a user I want to log in.###   The user is logged in.+++");
+
+        assertEquals("The user is logged in.", document.getAcceptanceCriteriaText());
+    }
+
+    @Test(expected = StringIndexOutOfBoundsException.class)
+    public void testDocumentWithoutUserStory() {
+        UserStoryDocument.parse("+++The user is logged in.+++").getUserStoryText();
+    }
+
+    @Test
+    public void testUserStoryParts() throws Exception {
+        UserStory userStory = new UserStory("Note: as a *registered* user,  I want to log in... quickly so that I can see e.g. my orders. Thanks",
+                "TEST-1", "The user is logged in.");
+
+        assertEquals("as a registered user, ", userStory.getRole());
+        assertEquals("I want to log in… quickly ", userStory.getGoal());
+        assertEquals("so that I can see e.g. my orders.", userStory.getReason());
+        assertEquals(25, userStory.getGoalStartPosition());
+    }
+}
@@ -0,0 +1,32 @@
+package de.uhd.ifi.se.accompleteness;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.google.gson.JsonObject;
+
+import de.uhd.ifi.se.accompleteness.concurrent.PriorityScheduler;
+import de.uhd.ifi.se.accompleteness.startup.Warmup;
+
+public class WarmupTest {
+
+    @Test
+    public void testReadyAfterWarmup() {
+        Warmup warmup = new Warmup(new PriorityScheduler(2, 8, 30000));
+        assertFalse(warmup.isReady());
+        assertEquals("pending", warmup.toJson().get("state").getAsString());
+
+        warmup.run();
+
+        assertTrue(warmup.isReady());
+        JsonObject components = warmup.toJson().get("components").getAsJsonObject();
+        for (String component : components.keySet()) {
+            JsonObject componentJson = components.get(component).getAsJsonObject();
+            assertEquals("ready", componentJson.get("state").getAsString());
+            assertTrue(componentJson.get("load_millis").getAsLong() >= 0);
+        }
+    }
+}